@@ -1,36 +1,61 @@
 package com.docprocessor.api.controllers;
 
 import com.docprocessor.api.dto.StatusUpdateRequest;
+import com.docprocessor.domain.dto.BatchStatusDTO;
+import com.docprocessor.domain.dto.BatchUploadResponse;
+import com.docprocessor.domain.dto.CursorPage;
 import com.docprocessor.domain.dto.DocumentDTO;
+import com.docprocessor.domain.dto.DocumentSummaryDTO;
+import com.docprocessor.domain.dto.FacetSearchResultDTO;
+import com.docprocessor.domain.dto.ProcessingStatisticsDTO;
 import com.docprocessor.domain.dto.UploadResponse;
 import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ExportFormat;
 import com.docprocessor.domain.enums.ProcessingStatus;
 import com.docprocessor.exception.DocumentProcessingException;
 import com.docprocessor.exception.ErrorCode;
+import com.docprocessor.events.DocumentEventStream;
 import com.docprocessor.exception.ValidationException;
-import com.docprocessor.repository.DocumentRepository;
+import com.docprocessor.index.FacetQuery;
+import com.docprocessor.service.impl.BatchIngestService;
+import com.docprocessor.service.impl.DocumentExportService;
 import com.docprocessor.service.impl.DocumentServiceImpl;
+import com.docprocessor.service.impl.DocumentStatisticsService;
 import com.docprocessor.service.impl.StorageServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for document management operations.
@@ -43,23 +68,90 @@ import java.util.Map;
 @Validated
 public class DocumentController {
 
+    /** Identifies the customer (tenant) an upload belongs to. */
+    static final String CUSTOMER_ID_HEADER = "X-Customer-Id";
+
     private final DocumentServiceImpl documentService;
     private final StorageServiceImpl storageService;
-    private final DocumentRepository repository;
+    private final FileDownloadResponder downloadResponder;
+    private final DocumentEventStream eventStream;
+    private final DocumentStatisticsService statisticsService;
+    private final DocumentExportService exportService;
+    private final BatchIngestService batchIngestService;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UploadResponse> uploadDocument(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = CUSTOMER_ID_HEADER, required = false) String customerId) {
         
         log.info("Received upload request: file={}, size={}", 
                 file.getOriginalFilename(), file.getSize());
         
-        UploadResponse response = documentService.uploadDocument(file);
+        UploadResponse response = documentService.uploadDocument(file, customerId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streaming alternative to {@code /upload}: the request body is the file itself
+     * and is written straight to storage instead of being buffered as a multipart part.
+     */
+    @PostMapping(value = "/ingest", consumes = {
+            MediaType.APPLICATION_PDF_VALUE,
+            MediaType.IMAGE_JPEG_VALUE,
+            MediaType.IMAGE_PNG_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<UploadResponse> ingestDocument(
+            @RequestParam("filename") String filename,
+            @RequestHeader(value = CUSTOMER_ID_HEADER, required = false) String customerId,
+            HttpServletRequest request) throws IOException {
+        
+        log.info("Received ingest request: file={}, size={}", filename, request.getContentLengthLong());
+        
+        UploadResponse response = documentService.ingestDocument(
+                request.getInputStream(), filename, request.getContentType(), request.getContentLengthLong(),
+                customerId);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Uploads many files in one request as multipart parts named {@code files}.
+     * Files that cannot be accepted are reported per item; the others are queued
+     * for processing under the returned batch id.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchUploadResponse> uploadBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestHeader(value = CUSTOMER_ID_HEADER, required = false) String customerId) {
+        
+        log.info("Received batch upload request: files={}", files.size());
+        
+        return ResponseEntity.ok(batchIngestService.ingestFiles(files, customerId));
+    }
+
+    /**
+     * Uploads the files of a ZIP archive sent as the request body. Entries are
+     * unpacked while the body is read.
+     */
+    @PostMapping(value = "/batch", consumes = {"application/zip", "application/x-zip-compressed"})
+    public ResponseEntity<BatchUploadResponse> uploadBatchArchive(
+            @RequestHeader(value = CUSTOMER_ID_HEADER, required = false) String customerId,
+            HttpServletRequest request) throws IOException {
+        
+        log.info("Received batch archive upload: size={}", request.getContentLengthLong());
+        
+        return ResponseEntity.ok(batchIngestService.ingestZip(request.getInputStream(), customerId));
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<BatchStatusDTO> getBatchStatus(@PathVariable String batchId) {
+        
+        return batchIngestService.getBatchStatus(batchId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
-    public ResponseEntity<Page<DocumentDTO>> getDocuments(
+    public ResponseEntity<Page<DocumentSummaryDTO>> getDocuments(
             @RequestParam(value = "status", required = false) ProcessingStatus status,
             @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
@@ -73,10 +165,123 @@ public class DocumentController {
         Sort sort = Sort.by(direction, sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<DocumentDTO> documents = documentService.getDocuments(status, pageable);
+        Page<DocumentSummaryDTO> documents = documentService.getDocumentSummaries(status, pageable);
         return ResponseEntity.ok(documents);
     }
 
+    /**
+     * Keyset-paginated listing, newest first. Pass the returned {@code nextCursor}
+     * back as {@code cursor} to fetch the following slice.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<DocumentSummaryDTO>> getDocumentsByCursor(
+            @RequestParam(value = "status", required = false) ProcessingStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        
+        log.debug("Getting documents by cursor: status={}, size={}", status, size);
+        
+        return ResponseEntity.ok(documentService.getDocumentSummariesAfter(status, cursor, size, includeTotal));
+    }
+
+    /**
+     * Ranked full-text search over invoice number, filename and OCR text, and/or
+     * invoice number prefix search. Returns a slice without a total count.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Slice<DocumentSummaryDTO>> searchDocuments(
+            @RequestParam(value = "q", required = false) @Size(max = 200) String text,
+            @RequestParam(value = "invoiceNumber", required = false) @Size(max = 50) String invoicePrefix,
+            @RequestParam(value = "status", required = false) ProcessingStatus status,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedFrom,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedTo,
+            @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        log.debug("Searching documents: q={}, invoiceNumber={}, page={}", text, invoicePrefix, page);
+        
+        return ResponseEntity.ok(documentService.searchDocuments(text, invoicePrefix, status,
+                uploadedFrom, uploadedTo, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Faceted filtering with counts per status and vendor, served from the
+     * in-memory facet index. Repeat {@code status} and {@code vendor} to select
+     * several values. Returns 503 while the index is loading after startup.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetSearchResultDTO> getFacets(
+            @RequestParam(value = "status", required = false) Set<ProcessingStatus> statuses,
+            @RequestParam(value = "vendor", required = false) Set<@Size(max = 200) String> vendors,
+            @RequestParam(value = "minAmount", required = false) BigDecimal minAmount,
+            @RequestParam(value = "maxAmount", required = false) BigDecimal maxAmount,
+            @RequestParam(value = "invoiceDateFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate invoiceDateFrom,
+            @RequestParam(value = "invoiceDateTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate invoiceDateTo,
+            @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        FacetQuery query = new FacetQuery(statuses, vendors, minAmount, maxAmount, invoiceDateFrom, invoiceDateTo);
+        return documentService.facetSearch(query, page, size)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+
+    /**
+     * Streams every matching document with its extracted metadata as NDJSON or CSV,
+     * optionally gzip-compressed, without paging. Filters are those of the listing
+     * plus an upload date range.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "status", required = false) ProcessingStatus status,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedFrom,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedTo,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        exportService.validateFilters(uploadedFrom, uploadedTo);
+        log.info("Exporting documents: format={}, status={}, from={}, to={}, gzip={}",
+                exportFormat, status, uploadedFrom, uploadedTo, gzip);
+        
+        String filename = "documents-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.export(exportFormat, status, uploadedFrom, uploadedTo, gzip, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+
+    /**
+     * Server-Sent Events stream of status changes of all documents, for clients that
+     * cannot use the WebSocket endpoint. Each {@code status} event has the same payload
+     * as a WebSocket push. A {@code reset} event means changes were missed and the
+     * client should reload.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        log.debug("Opening event stream, resuming after: {}", lastEventId);
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // nginx must not buffer the stream
+                .body(eventStream.subscribe(lastEventId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DocumentDTO> getDocument(
             @PathVariable String id) {
@@ -89,9 +294,14 @@ public class DocumentController {
         return ResponseEntity.ok(document);
     }
 
+    /**
+     * Serves the original file. Supports {@code Range} requests and conditional GET
+     * against the content hash ({@code ETag}), see {@link FileDownloadResponder}.
+     */
     @GetMapping("/{id}/download")
-    public ResponseEntity<InputStreamResource> downloadDocument(
-            @PathVariable String id) {
+    public ResponseEntity<?> downloadDocument(
+            @PathVariable String id,
+            ServletWebRequest webRequest) {
         
         log.info("Download request for document: {}", id);
         
@@ -102,27 +312,24 @@ public class DocumentController {
             throw new ValidationException(ErrorCode.FILE_NOT_FOUND, "Document file is not available");
         }
         
-        InputStream fileStream;
-        try {
-            fileStream = storageService.getFileStream(document.getFileId());
-        } catch (IOException e) {
-            log.error("Failed to get file stream", e);
-            throw new DocumentProcessingException("Failed to read file", e);
-        }
-        long fileSize = storageService.getFileSize(document.getFileId());
+        Resource file = storageService.getFileResource(document.getFileId());
         
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, 
                 "attachment; filename=\"" + sanitizeFilename(document.getFilename()) + "\"");
-        headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileSize));
         headers.add("X-Document-Id", document.getId());
         
-        MediaType mediaType = determineMediaType(document.getFilename());
+        MediaType mediaType = document.getContentType() != null
+                ? MediaType.parseMediaType(document.getContentType())
+                : determineMediaType(document.getFilename());
+        String etag = document.getContentHash() != null ? "\"" + document.getContentHash() + "\"" : null;
         
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(mediaType)
-                .body(new InputStreamResource(fileStream));
+        try {
+            return downloadResponder.respond(file, mediaType, etag, headers, webRequest);
+        } catch (IOException e) {
+            log.error("Failed to read file for document: {}", id, e);
+            throw new DocumentProcessingException("Failed to read file", e);
+        }
     }
 
     @PutMapping("/{id}/status")
@@ -147,7 +354,7 @@ public class DocumentController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<DocumentDTO>> getDocumentsByStatus(
+    public ResponseEntity<Page<DocumentSummaryDTO>> getDocumentsByStatus(
             @PathVariable ProcessingStatus status,
             @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size) {
@@ -155,19 +362,20 @@ public class DocumentController {
         log.debug("Getting documents by status: {}", status);
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "uploadedAt"));
-        Page<DocumentDTO> documents = documentService.getDocuments(status, pageable);
+        Page<DocumentSummaryDTO> documents = documentService.getDocumentSummaries(status, pageable);
         return ResponseEntity.ok(documents);
     }
 
+    /**
+     * Status counts plus latency, throughput and failure reasons over the last
+     * {@code window} (at most the retention of the rollups), served from precomputed rollups.
+     */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getDocumentStats() {
-        log.debug("Getting document statistics");
-        
-        Map<String, Object> stats = Map.of(
-            "totalDocuments", repository.count(),
-            "message", "Statistics endpoint"
-        );
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<ProcessingStatisticsDTO> getDocumentStats(
+            @RequestParam(value = "window", defaultValue = "PT1H") Duration window) {
+        log.debug("Getting document statistics: window={}", window);
+        
+        return ResponseEntity.ok(statisticsService.getStatistics(window));
     }
     
     /**
@@ -0,0 +1,168 @@
+package com.docprocessor.api.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds file download responses with conditional GET and byte-range support.
+ * <p>
+ * Full and single-range responses for local files on Tomcat are handed to the
+ * connector's {@code sendfile} support, so the file is copied to the socket by the
+ * kernel without passing through the heap. Elsewhere (multiple ranges, small files,
+ * HEAD, remote storage, other containers) the content is written by Spring's
+ * resource converters. Partial content is written here, with
+ * {@link ResourceRegionHttpMessageConverter}, because the handler's
+ * {@code ResponseEntity<?>} return type gives Spring MVC no element type to select
+ * that converter by.
+ * <p>
+ * Ranges are evaluated here rather than by Spring MVC so that {@code If-Range}
+ * is honoured: a range request whose validator does not match the current
+ * {@code ETag} gets the full content.
+ */
+@Slf4j
+@Component
+public class FileDownloadResponder {
+
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final Type REGION_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, ResourceRegion.class).getType();
+
+    @Value("${app.download.cache-max-age:PT1H}")
+    private Duration cacheMaxAge;
+
+    @Value("${app.download.sendfile-min-size:49152}")
+    private long sendfileMinSize;
+
+    private final ResourceRegionHttpMessageConverter regionConverter = new ResourceRegionHttpMessageConverter();
+
+    /**
+     * @param etag quoted strong entity tag of the file content, or {@code null} if unknown
+     * @return the response, or {@code null} if it has already been written: a
+     *         {@code 304 Not Modified} or partial content
+     */
+    public ResponseEntity<?> respond(Resource file, MediaType contentType, String etag,
+                                     HttpHeaders headers, ServletWebRequest webRequest) throws IOException {
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        HttpServletRequest request = webRequest.getRequest();
+        long length = file.contentLength();
+
+        headers.setContentType(contentType);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setCacheControl(CacheControl.maxAge(cacheMaxAge).cachePrivate());
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            return respondWithRanges(file, length, rangeHeader, headers, webRequest);
+        }
+
+        if (trySendfile(request, file, 0, length)) {
+            headers.setContentLength(length);
+            return ResponseEntity.ok().headers(headers).build();
+        }
+
+        // Spring MVC applies any Range header itself to a Resource body, so a range
+        // request that has to be answered in full gets a plain stream instead
+        Object body = rangeHeader != null
+                ? new InputStreamResource(file.getInputStream())
+                : file;
+        headers.setContentLength(length);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    private ResponseEntity<?> respondWithRanges(Resource file, long length, String rangeHeader,
+                                                HttpHeaders headers, ServletWebRequest webRequest) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        List<ResourceRegion> regions;
+        try {
+            regions = HttpRange.toResourceRegions(HttpRange.parseRanges(rangeHeader), file);
+        } catch (IllegalArgumentException e) {
+            log.debug("Unsatisfiable range '{}' for {} ({} bytes)", rangeHeader, file.getFilename(), length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        if (regions.size() == 1) {
+            ResourceRegion region = regions.get(0);
+            long start = region.getPosition();
+            long count = region.getCount();
+
+            if (trySendfile(request, file, start, count)) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+                headers.setContentLength(count);
+                return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).build();
+            }
+            writePartialContent(region, ResourceRegion.class, headers, webRequest);
+        } else {
+            writePartialContent(regions, REGION_LIST_TYPE, headers, webRequest);
+        }
+        return null;
+    }
+
+    /**
+     * Writes a single region, or several as {@code multipart/byteranges}; the
+     * converter sets {@code Content-Range} and the multipart content type.
+     */
+    private void writePartialContent(Object regions, Type type, HttpHeaders headers,
+                                     ServletWebRequest webRequest) throws IOException {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(webRequest.getResponse());
+        response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        response.getHeaders().putAll(headers);
+        regionConverter.write(regions, type, headers.getContentType(), response);
+        response.flush();
+    }
+
+    /**
+     * Asks Tomcat to send {@code count} bytes of the file from {@code start} once
+     * the (empty) response body is committed.
+     */
+    private boolean trySendfile(HttpServletRequest request, Resource file, long start, long count) throws IOException {
+        if (!file.isFile() || !HttpMethod.GET.matches(request.getMethod()) || count < sendfileMinSize
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTR, file.getFile().getAbsolutePath());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, start + count);
+        return true;
+    }
+
+    /**
+     * Only a matching strong entity tag keeps the range; HTTP dates are never
+     * matched since no {@code Last-Modified} is sent.
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag) {
+        return ifRange == null || (etag != null && ifRange.trim().equals(etag));
+    }
+}
@@ -18,6 +18,8 @@ public class CorsConfig {
         corsConfig.setAllowedOrigins(List.of("http://localhost:3000"));
         corsConfig.setAllowedHeaders(List.of("*"));
         corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        corsConfig.setExposedHeaders(List.of("ETag", "Accept-Ranges", "Content-Range",
+                "Content-Disposition", "X-Document-Id"));
         corsConfig.setAllowCredentials(true);
         corsConfig.setMaxAge(3600L);
         
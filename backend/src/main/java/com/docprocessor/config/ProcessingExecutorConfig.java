@@ -0,0 +1,106 @@
+package com.docprocessor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for the processing pipeline, one per stage.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} (which also moves Tomcat request
+ * handling onto virtual threads) every task gets its own virtual thread and the
+ * stage limits become concurrency throttles instead of pool sizes. Otherwise
+ * bounded platform-thread pools are used.
+ */
+@Slf4j
+@Configuration
+public class ProcessingExecutorConfig {
+
+    public static final String PROCESSING_EXECUTOR = "documentProcessingExecutor";
+    public static final String OCR_EXECUTOR = "ocrExecutor";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.processing.workers.core-size:4}")
+    private int coreSize;
+
+    @Value("${app.processing.workers.max-size:8}")
+    private int maxSize;
+
+    @Value("${app.processing.workers.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${app.processing.workers.shutdown-timeout-seconds:30}")
+    private int shutdownTimeoutSeconds;
+
+    @Value("${app.processing.ocr.concurrency:4}")
+    private int ocrConcurrency;
+
+    @Value("${app.processing.ocr.queue-capacity:100}")
+    private int ocrQueueCapacity;
+
+    /**
+     * Pipeline stage: loading the document, reading storage, validation and persistence.
+     */
+    @Bean(name = PROCESSING_EXECUTOR)
+    public AsyncTaskExecutor documentProcessingExecutor() {
+        if (virtualThreads) {
+            // In-flight documents are bounded by the worker pool's total capacity;
+            // submitters block (instead of being rejected) once it is reached.
+            return virtualThreadExecutor("doc-worker-", Math.max(coreSize, maxSize) + queueCapacity);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("doc-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        executor.initialize();
+
+        log.info("Document processing pool initialized: core={}, max={}, queue={}",
+                coreSize, executor.getMaxPoolSize(), queueCapacity);
+        return executor;
+    }
+
+    /**
+     * OCR stage. Its queue is only fed by pipeline workers and message listeners,
+     * each waiting for its own OCR task, so it never holds more entries than there
+     * are of those; the capacity guards against misconfiguration.
+     */
+    @Bean(name = OCR_EXECUTOR)
+    public AsyncTaskExecutor ocrExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("ocr-", ocrConcurrency);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ocrConcurrency);
+        executor.setMaxPoolSize(ocrConcurrency);
+        executor.setQueueCapacity(ocrQueueCapacity);
+        executor.setThreadNamePrefix("ocr-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        executor.initialize();
+
+        log.info("OCR pool initialized: threads={}, queue={}", ocrConcurrency, ocrQueueCapacity);
+        return executor;
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(shutdownTimeoutSeconds * 1000L);
+
+        log.info("Virtual-thread executor initialized: prefix={}, concurrencyLimit={}",
+                threadNamePrefix, concurrencyLimit);
+        return executor;
+    }
+}
@@ -0,0 +1,164 @@
+package com.docprocessor.config;
+
+import com.docprocessor.messaging.DocumentProcessingMessage;
+import com.docprocessor.service.impl.DocumentProcessingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
+
+/**
+ * RabbitMQ topology for distributed document processing.
+ * Consumer concurrency, prefetch and retry are configured through
+ * spring.rabbitmq.listener.simple.*.
+ */
+@Slf4j
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${app.messaging.exchange:docprocessor.documents}")
+    private String exchange;
+
+    @Value("${app.messaging.processing-queue:document.processing}")
+    private String processingQueue;
+
+    @Value("${app.messaging.processing-routing-key:document.process}")
+    private String processingRoutingKey;
+
+    @Value("${app.messaging.bulk-processing-queue:document.processing.bulk}")
+    private String bulkProcessingQueue;
+
+    @Value("${app.messaging.bulk-processing-routing-key:document.process.bulk}")
+    private String bulkProcessingRoutingKey;
+
+    @Value("${app.messaging.dead-letter-exchange:docprocessor.documents.dlx}")
+    private String deadLetterExchange;
+
+    @Value("${app.messaging.dead-letter-queue:document.processing.dlq}")
+    private String deadLetterQueue;
+
+    @Value("${app.messaging.status-exchange:docprocessor.status}")
+    private String statusExchange;
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages(DocumentProcessingMessage.class.getPackageName());
+
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        converter.setJavaTypeMapper(typeMapper);
+        return converter;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public DirectExchange documentExchange() {
+        return ExchangeBuilder.directExchange(exchange).durable(true).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public DirectExchange deadLetterExchange() {
+        return ExchangeBuilder.directExchange(deadLetterExchange).durable(true).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Queue processingQueue() {
+        return QueueBuilder.durable(processingQueue)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+    /**
+     * Documents of batch uploads, consumed separately from interactive uploads.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Queue bulkProcessingQueue() {
+        return QueueBuilder.durable(bulkProcessingQueue)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Queue deadLetterQueue() {
+        return QueueBuilder.durable(deadLetterQueue).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Binding processingBinding() {
+        return BindingBuilder.bind(processingQueue()).to(documentExchange()).with(processingRoutingKey);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Binding bulkProcessingBinding() {
+        return BindingBuilder.bind(bulkProcessingQueue()).to(documentExchange()).with(bulkProcessingRoutingKey);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Binding deadLetterBinding() {
+        return BindingBuilder.bind(deadLetterQueue()).to(deadLetterExchange()).with(deadLetterQueue);
+    }
+
+    /**
+     * Status events fan out to every replica, each with its own auto-deleted queue.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public FanoutExchange statusExchange() {
+        return ExchangeBuilder.fanoutExchange(statusExchange).durable(true).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Queue documentStatusQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public Binding statusBinding() {
+        return BindingBuilder.bind(documentStatusQueue()).to(statusExchange());
+    }
+
+    /**
+     * Invoked once the listener retries are exhausted: records the failure on
+     * the document and rejects the message so the broker dead-letters it.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+    public MessageRecoverer processingMessageRecoverer(DocumentProcessingService processingService,
+                                                       MessageConverter jsonMessageConverter) {
+        RejectAndDontRequeueRecoverer reject = new RejectAndDontRequeueRecoverer();
+        return (message, cause) -> {
+            if (jsonMessageConverter.fromMessage(message) instanceof DocumentProcessingMessage payload) {
+                String reason = NestedExceptionUtils.getMostSpecificCause(cause).getMessage();
+                log.error("Giving up on document {} after retries: {}", payload.getDocumentId(), reason);
+                processingService.markAsFailed(payload.getDocumentId(), reason);
+            }
+            reject.recover(message, cause);
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.docprocessor.config;
+
+import com.docprocessor.storage.LocalStorageBackend;
+import com.docprocessor.storage.S3StorageBackend;
+import com.docprocessor.storage.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Selects where document files are stored with {@code app.storage.backend}:
+ * {@code local} (default) or {@code s3}.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(
+            @Value("${app.storage.upload-dir:${app.upload.directory:uploads}}") String uploadDir,
+            @Value("${app.storage.local.flat-fallback:true}") boolean flatFallback) {
+        return new LocalStorageBackend(Paths.get(uploadDir), flatFallback);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+    public S3Client storageS3Client(
+            @Value("${app.storage.s3.endpoint:}") String endpoint,
+            @Value("${app.storage.s3.region:us-east-1}") String region,
+            @Value("${app.storage.s3.access-key:}") String accessKey,
+            @Value("${app.storage.s3.secret-key:}") String secretKey,
+            @Value("${app.storage.s3.path-style-access:false}") boolean pathStyleAccess) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess)
+                .credentialsProvider(StringUtils.hasText(accessKey)
+                        ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                        : DefaultCredentialsProvider.builder().build());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+    public StorageBackend s3StorageBackend(
+            S3Client storageS3Client,
+            @Value("${app.storage.s3.bucket}") String bucket,
+            @Value("${app.storage.s3.key-prefix:}") String keyPrefix,
+            @Value("${app.storage.s3.staging-dir:${java.io.tmpdir}/docprocessor-staging}") String stagingDir) {
+        return new S3StorageBackend(storageS3Client, bucket, keyPrefix, Paths.get(stagingDir));
+    }
+}
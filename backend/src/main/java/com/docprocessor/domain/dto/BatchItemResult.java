@@ -0,0 +1,32 @@
+package com.docprocessor.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one file of a batch upload: either the document it became or why it
+ * was rejected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /** Position of the file in the request or archive, from 0. */
+    private int index;
+
+    private String filename;
+
+    private String documentId;
+
+    private Long fileSizeBytes;
+
+    private String error;
+
+    public boolean isAccepted() {
+        return documentId != null;
+    }
+}
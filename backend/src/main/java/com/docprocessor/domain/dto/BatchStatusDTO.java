@@ -0,0 +1,46 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress of a batch upload. {@code statusCounts} covers the accepted documents
+ * that still exist; the batch is complete once none of them is waiting or in
+ * processing.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusDTO {
+
+    private String batchId;
+
+    private String source;
+
+    private String customerId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /** False while files of the batch are still being received. */
+    private boolean received;
+
+    private int accepted;
+
+    private int rejected;
+
+    private Map<ProcessingStatus, Long> statusCounts;
+
+    private boolean completed;
+
+    private List<BatchItemResult> rejectedItems;
+}
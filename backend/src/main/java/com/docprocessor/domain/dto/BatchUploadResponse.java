@@ -0,0 +1,23 @@
+package com.docprocessor.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadResponse {
+
+    private String batchId;
+
+    private int accepted;
+
+    private int rejected;
+
+    private List<BatchItemResult> items;
+}
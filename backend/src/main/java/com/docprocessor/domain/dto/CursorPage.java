@@ -0,0 +1,30 @@
+package com.docprocessor.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of a keyset-paginated listing. {@code nextCursor} is an opaque token
+ * to pass back for the following slice; it is null on the last slice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private int size;
+
+    /** Only populated when requested; may be an estimate when no filter is applied. */
+    private Long totalElements;
+}
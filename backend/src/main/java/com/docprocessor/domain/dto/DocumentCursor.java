@@ -0,0 +1,43 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.exception.ValidationException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the {@code (uploadedAt desc, _id desc)} ordering used by keyset pagination,
+ * encoded as an opaque URL-safe token.
+ */
+@Data
+public class DocumentCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime uploadedAt;
+
+    private final String id;
+
+    public String encode() {
+        String raw = uploadedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new ValidationException("Invalid pagination cursor");
+            }
+            return new DocumentCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class DocumentDTO {
     @NotBlank(message = "Filename is required")
     private String filename;
 
+    private String customerId;
+
     @NotNull(message = "Upload date is required")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime uploadedAt;
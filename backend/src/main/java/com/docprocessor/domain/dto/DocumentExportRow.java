@@ -0,0 +1,39 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of an NDJSON export: the document without its OCR output.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentExportRow {
+
+    private String id;
+
+    private String filename;
+
+    private ProcessingStatus status;
+
+    private String contentType;
+
+    private Long fileSizeBytes;
+
+    private LocalDateTime uploadedAt;
+
+    private LocalDateTime processedAt;
+
+    private DocumentMetadata metadata;
+
+    private List<String> errors;
+}
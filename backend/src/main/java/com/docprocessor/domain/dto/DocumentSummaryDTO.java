@@ -0,0 +1,55 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Slim list-view representation of a document. OCR text, extracted data and
+ * line items are only returned by the detail endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummaryDTO {
+
+    private String id;
+
+    private String filename;
+
+    private ProcessingStatus status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime uploadedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime processedAt;
+
+    private String invoiceNumber;
+    
+    private String vendorName;
+
+    private BigDecimal totalAmount;
+
+    private int errorCount;
+
+    private Long fileSizeBytes;
+
+    private String contentType;
+
+    /** Relevance, only set on text search results. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
+
+    public boolean isProcessed() {
+        return status != null && status.isCompleted();
+    }
+}
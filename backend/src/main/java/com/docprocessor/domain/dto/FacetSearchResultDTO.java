@@ -0,0 +1,37 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a faceted query with the number of matches per facet value. A
+ * facet's counts ignore that facet's own selection, so selecting another value
+ * adds the count shown for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetSearchResultDTO {
+
+    private long total;
+
+    private Map<ProcessingStatus, Long> statusCounts;
+
+    /** The vendors with the most matches, plus any selected ones. */
+    private Map<String, Long> vendorCounts;
+
+    private List<DocumentSummaryDTO> content;
+
+    private int page;
+
+    private int size;
+
+    private boolean hasNext;
+}
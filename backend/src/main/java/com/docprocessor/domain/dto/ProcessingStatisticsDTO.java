@@ -0,0 +1,65 @@
+package com.docprocessor.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard statistics. Status counts cover all documents; everything else covers
+ * documents that completed within the last {@code windowMinutes}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingStatisticsDTO {
+
+    private long total;
+
+    private long uploaded;
+
+    private long processing;
+
+    private long validated;
+
+    private long failed;
+
+    private long windowMinutes;
+
+    private long completedInWindow;
+
+    /** Mean time from the start of processing to completion, in milliseconds; null if nothing was measured. */
+    private Double averageProcessingTime;
+
+    /** Estimated from a histogram, in milliseconds: {@code p50}, {@code p90}, {@code p95}, {@code p99}. */
+    private Map<String, Long> latencyPercentiles;
+
+    private double throughputPerMinute;
+
+    /** Minutes in which documents completed, oldest first. */
+    private List<ThroughputPoint> throughput;
+
+    /** Most frequent failure reasons in the window, most frequent first. */
+    private Map<String, Long> failureReasons;
+
+    /** When the status counts were last recomputed from the documents themselves. */
+    private LocalDateTime countsRebuiltAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ThroughputPoint {
+
+        private Instant minute;
+
+        private long completed;
+
+        private long failed;
+    }
+}
@@ -17,6 +17,14 @@ import java.util.Map;
 @ToString
 public class DocumentMetadata {
 
+    /** Who issued the invoice (vendor or supplier), as printed on it. Not always present. */
+    @Size(max = 200, message = "Vendor name cannot exceed 200 characters")
+    private String vendorName;
+
+    /** Who the invoice was billed to, as printed on it. Not always present. */
+    @Size(max = 200, message = "Customer name cannot exceed 200 characters")
+    private String customerName;
+
     @NotBlank(message = "Invoice number is required")
     @Pattern(regexp = "^[A-Za-z0-9\\-_]+$", message = "Invoice number can only contain letters, numbers, hyphens and underscores")
     private String invoiceNumber;
@@ -44,6 +52,11 @@ public class DocumentMetadata {
         this.additionalFields = new HashMap<>();
     }
 
+    public DocumentMetadata(String customerName, String invoiceNumber, LocalDate invoiceDate, BigDecimal totalAmount) {
+        this(invoiceNumber, invoiceDate, totalAmount);
+        this.customerName = customerName;
+    }
+
     public void setItems(List<InvoiceItem> items) {
         this.items = items != null ? items : new ArrayList<>();
     }
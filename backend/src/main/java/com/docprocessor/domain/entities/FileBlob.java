@@ -0,0 +1,33 @@
+package com.docprocessor.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count of a content-addressed file in storage. The id is the hex
+ * SHA-256 of the content, which is also the file's storage id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "blobs")
+public class FileBlob {
+
+    @Id
+    private String hash;
+
+    private long refCount;
+
+    private long sizeBytes;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastReferencedAt;
+}
@@ -0,0 +1,46 @@
+package com.docprocessor.domain.entities;
+
+import com.docprocessor.domain.dto.BatchItemResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch upload. Its documents reference it by {@code batchId}; only the files
+ * that were rejected are kept here.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ingest_batches")
+public class IngestBatch {
+
+    public static final String SOURCE_MULTIPART = "multipart";
+    public static final String SOURCE_ZIP = "zip";
+
+    @Id
+    private String id;
+
+    private String source;
+
+    private String customerId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime receivedAt;
+
+    private int accepted;
+
+    private int rejected;
+
+    @Builder.Default
+    private List<BatchItemResult> rejectedItems = new ArrayList<>();
+}
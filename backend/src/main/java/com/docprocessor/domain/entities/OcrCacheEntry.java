@@ -0,0 +1,40 @@
+package com.docprocessor.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the OCR result cache. The id combines the content hash and
+ * the OCR engine version, so a new engine never sees results of an older one.
+ * The result holds the recognition output only, never extracted fields. Entries expire 90 days after they were written.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ocr_cache")
+public class OcrCacheEntry {
+
+    @Id
+    private String id;
+
+    private String contentHash;
+
+    private String engine;
+
+    private OCRResult result;
+
+    @Indexed(expireAfter = "90d")
+    private LocalDateTime createdAt;
+
+    public static String key(String contentHash, String engine) {
+        return contentHash + ":" + engine;
+    }
+}
@@ -10,6 +10,8 @@ import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -25,6 +27,10 @@ import java.util.List;
 @AllArgsConstructor
 @ToString
 @Document(collection = "documents")
+@CompoundIndex(name = "status_uploadedAt_id", def = "{'status': 1, 'uploadedAt': -1, '_id': -1}")
+@CompoundIndex(name = "uploadedAt_id", def = "{'uploadedAt': -1, '_id': -1}")
+@CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
 public class ProcessingDocument {
 
     @Id
@@ -35,6 +41,20 @@ public class ProcessingDocument {
 
     private String fileId;
 
+    private Long fileSizeBytes;
+
+    private String contentType;
+
+    @Indexed
+    private String contentHash;
+
+    /** The customer (tenant) the document belongs to; processing is shared fairly between customers. */
+    private String customerId;
+
+    /** The batch upload the document arrived in, if any. */
+    @Indexed(sparse = true)
+    private String batchId;
+
     @NotNull(message = "Upload date is required")
     @CreatedDate
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -54,6 +74,31 @@ public class ProcessingDocument {
     @Builder.Default
     private List<String> errors = new ArrayList<>();
 
+    /**
+     * Incremented by every write. Conditional updates on it fence off writers
+     * working from an outdated read, e.g. a worker whose lease was taken over.
+     */
+    @Version
+    private Long version;
+
+    /** Node holding the processing lease while the document is PROCESSING. */
+    private String processingOwner;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime processingStartedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime leaseExpiresAt;
+
+    /** Number of times the document has been claimed for processing. */
+    private Integer processingAttempts;
+
+    /**
+     * While UPLOADED: when the document is (re)dispatched if no worker has claimed
+     * it by then. Covers lost queue messages and backoff after an abandoned attempt.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime nextAttemptAt;
 
     @CreatedDate
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -0,0 +1,49 @@
+package com.docprocessor.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Documents that finished processing during one minute, keyed by the start of the
+ * minute. Latencies (start of processing to completion) are kept as a histogram over
+ * fixed bounds so that buckets can be summed and percentiles estimated for any window.
+ * Buckets expire once they are older than the configured retention.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "processing_stats")
+public class ProcessingStatsBucket {
+
+    @Id
+    private Instant minute;
+
+    private long completed;
+
+    private long validated;
+
+    private long failed;
+
+    private long latencySumMs;
+
+    /** Count per latency upper bound in milliseconds, or {@code +Inf} for anything above the largest. */
+    @Builder.Default
+    private Map<String, Long> latencyHistogram = new HashMap<>();
+
+    /** Normalized failure reason to count. */
+    @Builder.Default
+    private Map<String, Long> failureReasons = new HashMap<>();
+
+    @Indexed(expireAfter = "0s")
+    private Instant expireAt;
+}
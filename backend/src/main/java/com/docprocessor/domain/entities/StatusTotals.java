@@ -0,0 +1,36 @@
+package com.docprocessor.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of documents per status, kept up to date by the pipeline with {@code $inc}
+ * and recomputed from the documents collection by the statistics rebuild job.
+ * There is a single instance, {@link #ID}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "document_stats")
+public class StatusTotals {
+
+    public static final String ID = "status";
+
+    @Id
+    private String id;
+
+    /** Keyed by {@code ProcessingStatus} name. */
+    @Builder.Default
+    private Map<String, Long> counts = new HashMap<>();
+
+    private LocalDateTime rebuiltAt;
+}
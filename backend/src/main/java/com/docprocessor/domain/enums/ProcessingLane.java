@@ -0,0 +1,14 @@
+package com.docprocessor.domain.enums;
+
+/**
+ * Priority lanes of the processing queue. Documents uploaded one at a time are
+ * usually waited on by someone, so they are scheduled ahead of batch uploads.
+ */
+public enum ProcessingLane {
+    INTERACTIVE,
+    BULK;
+
+    public static ProcessingLane forBatch(String batchId) {
+        return batchId != null ? BULK : INTERACTIVE;
+    }
+}
@@ -1,5 +1,8 @@
 package com.docprocessor.domain.enums;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum ProcessingStatus {
     UPLOADED("Document uploaded and waiting for processing"),
     PROCESSING("Document is being processed"),
@@ -27,4 +30,21 @@ public enum ProcessingStatus {
     public boolean canBeProcessed() {
         return this == UPLOADED;
     }
+
+    public boolean canTransitionTo(ProcessingStatus target) {
+        return switch (this) {
+            case UPLOADED -> target == PROCESSING || target == FAILED;
+            case PROCESSING -> target == VALIDATED || target == FAILED;
+            case VALIDATED, FAILED -> target == UPLOADED;
+        };
+    }
+
+    /**
+     * Statuses from which {@code target} can be reached, for guarding transitions in update filters.
+     */
+    public static List<ProcessingStatus> sourcesOf(ProcessingStatus target) {
+        return Arrays.stream(values())
+                .filter(source -> source.canTransitionTo(target))
+                .toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.docprocessor.events;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds {@link StatusEventRing} from a single change stream on the documents collection,
+ * so every replica sees status transitions made by any other without polling.
+ * <p>
+ * While streaming, entries are identified by the change's resume token. After an error
+ * the stream is reopened after the last token seen, so the ring carries on without gaps.
+ * Clients only resume from entries still in this node's ring: a token is recognised by
+ * another replica only while that replica is streaming too and still buffers it, and
+ * the ids given out while not streaming are known to this node alone. Anything else
+ * gets a reset.
+ * <p>
+ * Change streams require a replica set. While the stream is not open (standalone
+ * server, or during reconnects) the feed takes this node's {@link DocumentStatusEvent}s
+ * instead, which in {@code rabbitmq} mode also cover the other replicas.
+ */
+@Slf4j
+@Component
+public class DocumentChangeFeed implements SmartLifecycle {
+
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+
+    private static final Duration RETRY_INITIAL = Duration.ofSeconds(1);
+    private static final Duration RETRY_MAX = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final StatusEventRing ring;
+    private final AtomicLong localSequence = new AtomicLong();
+    private final String localIdPrefix = "local-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    @Value("${app.events.change-stream.enabled:true}")
+    private boolean changeStreamEnabled;
+
+    private volatile boolean running;
+    private volatile boolean streaming;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcher;
+
+    public DocumentChangeFeed(MongoTemplate mongoTemplate,
+                              @Value("${app.events.buffer-size:1024}") int bufferSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.ring = new StatusEventRing(bufferSize);
+    }
+
+    StatusEventRing getRing() {
+        return ring;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (changeStreamEnabled) {
+            watcher = Thread.ofVirtual().name("document-change-stream").start(this::watch);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        closeCursor();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @EventListener
+    public void onStatusChanged(DocumentStatusEvent event) {
+        if (!streaming) {
+            ring.append(localIdPrefix + localSequence.incrementAndGet(), event);
+        }
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        Duration retryDelay = RETRY_INITIAL;
+
+        while (running) {
+            try {
+                var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ProcessingDocument.class))
+                        .watch(pipeline())
+                        .maxAwaitTime(1, TimeUnit.SECONDS);
+                if (resumeToken != null) {
+                    stream.resumeAfter(resumeToken);
+                }
+                cursor = stream.cursor();
+                streaming = true;
+                retryDelay = RETRY_INITIAL;
+                log.info("Watching document status changes{}", resumeToken != null ? " (resumed)" : "");
+
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        publish(change);
+                    }
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    break;
+                }
+                streaming = false;
+                if (e.getCode() == NOT_A_REPLICA_SET) {
+                    log.info("MongoDB does not support change streams (not a replica set), " +
+                            "status events are taken from this node only");
+                    break;
+                }
+                if (e.getCode() == HISTORY_LOST) {
+                    log.warn("Change stream history lost, resuming from the current position");
+                    resumeToken = null;
+                    ring.append(null, null);
+                } else {
+                    log.warn("Change stream failed, reopening in {}: {}", retryDelay, e.getMessage());
+                }
+                if (!sleep(retryDelay)) {
+                    break;
+                }
+                Duration doubled = retryDelay.multipliedBy(2);
+                retryDelay = doubled.compareTo(RETRY_MAX) > 0 ? RETRY_MAX : doubled;
+            } finally {
+                streaming = false;
+                closeCursor();
+            }
+        }
+    }
+
+    private void publish(ChangeStreamDocument<Document> change) {
+        String status = null;
+        if (change.getUpdateDescription() != null && change.getUpdateDescription().getUpdatedFields() != null) {
+            BsonValue updated = change.getUpdateDescription().getUpdatedFields().get("status");
+            status = updated != null && updated.isString() ? updated.asString().getValue() : null;
+        } else if (change.getFullDocument() != null) {
+            status = change.getFullDocument().getString("status");
+        }
+        if (status == null || change.getDocumentKey() == null) {
+            return;
+        }
+        ProcessingStatus processingStatus;
+        try {
+            processingStatus = ProcessingStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring change to unknown status {}", status);
+            return;
+        }
+
+        BsonValue id = change.getDocumentKey().get("_id");
+        String documentId = id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+        Instant timestamp = change.getWallTime() != null
+                ? Instant.ofEpochMilli(change.getWallTime().getValue())
+                : Instant.now();
+
+        ring.append(change.getResumeToken().getString("_data").getValue(),
+                new DocumentStatusEvent(documentId, processingStatus, null, timestamp));
+    }
+
+    /**
+     * Inserts, and updates that set {@code status}; only the fields needed to build the
+     * event are returned.
+     */
+    private static List<Bson> pipeline() {
+        return List.of(
+                Aggregates.match(Filters.or(
+                        Filters.in("operationType", "insert", "replace"),
+                        Filters.and(
+                                Filters.eq("operationType", "update"),
+                                Filters.exists("updateDescription.updatedFields.status")))),
+                Aggregates.project(Projections.include(
+                        "operationType", "documentKey", "wallTime", "clusterTime",
+                        "updateDescription.updatedFields.status", "fullDocument.status")));
+    }
+
+    private void closeCursor() {
+        var current = cursor;
+        cursor = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (RuntimeException e) {
+                log.debug("Failed to close change stream cursor: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.docprocessor.events;
+
+import com.docprocessor.websocket.DocumentStatusMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events view of {@link DocumentChangeFeed}. Each subscriber reads the
+ * shared buffer on its own virtual thread, so a slow client only delays itself; one
+ * that falls behind by more than the buffer receives a {@code reset} event and should
+ * reload whatever state it shows.
+ * <p>
+ * Events carry the feed's id, which the browser sends back as {@code Last-Event-ID}
+ * when it reconnects. Changes still buffered after that id are replayed; if this node
+ * no longer has it, or never had it, the client gets {@code reset} instead.
+ */
+@Slf4j
+@Component
+public class DocumentEventStream {
+
+    static final String STATUS_EVENT = "status";
+    static final String RESET_EVENT = "reset";
+
+    private static final int MAX_BATCH = 100;
+
+    private final StatusEventRing ring;
+    private final Duration emitterTimeout;
+    private final Duration heartbeatInterval;
+    private final Set<Thread> subscribers = ConcurrentHashMap.newKeySet();
+
+    public DocumentEventStream(DocumentChangeFeed feed,
+                               @Value("${app.events.emitter-timeout:PT30M}") Duration emitterTimeout,
+                               @Value("${app.events.heartbeat-interval:PT15S}") Duration heartbeatInterval) {
+        this.ring = feed.getRing();
+        this.emitterTimeout = emitterTimeout;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(emitterTimeout.toMillis()), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        // Only this node's ring is searched, see DocumentChangeFeed for which ids it knows
+        boolean resumed = true;
+        long position = ring.head();
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            OptionalLong after = ring.positionAfter(lastEventId);
+            resumed = after.isPresent();
+            if (resumed) {
+                position = after.getAsLong();
+            }
+        }
+
+        boolean reset = !resumed;
+        long start = position;
+        Thread subscriber = Thread.ofVirtual().name("sse-subscriber").unstarted(() -> stream(emitter, start, reset));
+        emitter.onCompletion(subscriber::interrupt);
+        emitter.onTimeout(subscriber::interrupt);
+        emitter.onError(error -> subscriber.interrupt());
+        subscribers.add(subscriber);
+        subscriber.start();
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, long position, boolean reset) {
+        try {
+            if (reset) {
+                sendReset(emitter);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                StatusEventRing.Batch batch = ring.read(position, MAX_BATCH, heartbeatInterval);
+                position = batch.next();
+
+                if (batch.missed()) {
+                    sendReset(emitter);
+                } else if (batch.entries().isEmpty()) {
+                    // Detects clients that went away without closing the connection
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (StatusEventRing.Entry entry : batch.entries()) {
+                    if (entry.event() == null) {
+                        sendReset(emitter);
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(entry.id())
+                                .name(STATUS_EVENT)
+                                .data(DocumentStatusMessage.from(entry.event()), MediaType.APPLICATION_JSON));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Event stream subscriber disconnected: {}", e.getMessage());
+        } finally {
+            subscribers.remove(Thread.currentThread());
+            emitter.complete();
+        }
+    }
+
+    private static void sendReset(SseEmitter emitter) throws IOException {
+        emitter.send(SseEmitter.event().name(RESET_EVENT).data(Map.of(), MediaType.APPLICATION_JSON));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Thread::interrupt);
+    }
+}
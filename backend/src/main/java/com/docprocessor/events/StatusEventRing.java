@@ -0,0 +1,109 @@
+package com.docprocessor.events;
+
+import com.docprocessor.messaging.DocumentStatusEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size buffer of the most recent status changes, written by one feed and read by
+ * any number of subscribers, each at its own position.
+ * <p>
+ * Positions are sequence numbers that only grow. A reader that falls more than the
+ * capacity behind has missed entries; it is told so and moved to the newest position
+ * instead of holding the writer back.
+ */
+class StatusEventRing {
+
+    /**
+     * One entry. {@code event} is null for a gap marker, appended when the feed itself
+     * may have missed changes.
+     */
+    record Entry(long sequence, String id, DocumentStatusEvent event) {
+    }
+
+    /** Entries from the requested position on, and the position to read from next. */
+    record Batch(List<Entry> entries, long next, boolean missed) {
+    }
+
+    private final Entry[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long next;
+
+    StatusEventRing(int capacity) {
+        this.slots = new Entry[capacity];
+    }
+
+    void append(String id, DocumentStatusEvent event) {
+        lock.lock();
+        try {
+            slots[(int) (next % slots.length)] = new Entry(next, id, event);
+            next++;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Position a new reader starts at: only changes from now on. */
+    long head() {
+        lock.lock();
+        try {
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Position right after the entry with the given id, if it is still buffered. */
+    OptionalLong positionAfter(String id) {
+        lock.lock();
+        try {
+            for (long sequence = next - 1; sequence >= oldest(); sequence--) {
+                Entry entry = slots[(int) (sequence % slots.length)];
+                if (id.equals(entry.id())) {
+                    return OptionalLong.of(sequence + 1);
+                }
+            }
+            return OptionalLong.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code max} entries starting at {@code from}, waiting up to
+     * {@code timeout} for the first one. An empty batch means nothing was appended in time.
+     */
+    Batch read(long from, int max, Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeout.toNanos();
+            while (from >= next && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+
+            if (from < oldest()) {
+                return new Batch(List.of(), next, true);
+            }
+
+            int count = (int) Math.min(max, next - from);
+            List<Entry> entries = new ArrayList<>(count);
+            for (long sequence = from; sequence < from + count; sequence++) {
+                entries.add(slots[(int) (sequence % slots.length)]);
+            }
+            return new Batch(entries, from + count, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long oldest() {
+        return Math.max(0, next - slots.length);
+    }
+}
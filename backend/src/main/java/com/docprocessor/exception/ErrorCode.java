@@ -11,6 +11,7 @@ import lombok.Getter;
 public enum ErrorCode {
     DOCUMENT_NOT_FOUND("DOC001", "Document not found: %s"),
     DOCUMENT_INVALID_STATUS("DOC004", "Invalid document status transition from %s to %s"),
+    DOCUMENT_CONCURRENT_MODIFICATION("DOC005", "Document was modified concurrently, please retry: %s"),
     
     FILE_TOO_LARGE("FILE002", "File size exceeds maximum allowed size of %s MB"),
     FILE_EMPTY("FILE003", "File is empty or corrupted"),
@@ -0,0 +1,34 @@
+package com.docprocessor.extraction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * {@code type: amount} - the first capture group as a decimal, ignoring thousands separators.
+ */
+@Slf4j
+@Component
+public class AmountFieldExtractorFactory implements FieldExtractorFactory {
+
+    @Override
+    public String getType() {
+        return "amount";
+    }
+
+    @Override
+    public FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords) {
+        return PatternFieldExtractor.compile(rule, keywords, matcher -> parse(matcher.group(1)));
+    }
+
+    static BigDecimal parse(String amount) {
+        String plain = amount.indexOf(',') >= 0 ? amount.replace(",", "") : amount;
+        try {
+            return new BigDecimal(plain);
+        } catch (NumberFormatException e) {
+            log.warn("Error parsing amount: {}", plain);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.docprocessor.extraction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled {@link ExtractionRules} file.
+ * <p>
+ * All keywords of all document types (type detection, pattern gates and keyword
+ * fields) share one {@link KeywordIndex}, so a document is scanned once to pick
+ * its type and to decide which patterns can match at all. Only the detected
+ * type's extractors run afterwards.
+ */
+public final class CompiledRuleSet {
+
+    private final KeywordIndex keywords;
+    private final List<DocumentType> types;
+    private final DocumentType defaultType;
+
+    private CompiledRuleSet(KeywordIndex keywords, List<DocumentType> types, DocumentType defaultType) {
+        this.keywords = keywords;
+        this.types = types;
+        this.defaultType = defaultType;
+    }
+
+    public static CompiledRuleSet compile(ExtractionRules rules, Map<String, FieldExtractorFactory> factories) {
+        if (rules.getDocumentTypes().isEmpty()) {
+            throw new IllegalArgumentException("Extraction rules declare no document types");
+        }
+
+        KeywordIndex.Builder keywords = KeywordIndex.builder();
+        List<DocumentType> types = new ArrayList<>();
+        DocumentType defaultType = null;
+
+        for (Map.Entry<String, ExtractionRules.DocumentTypeRules> entry : rules.getDocumentTypes().entrySet()) {
+            ExtractionRules.DocumentTypeRules typeRules = entry.getValue();
+
+            int[] detectIds = typeRules.getDetectKeywords().stream().mapToInt(keywords::add).toArray();
+
+            List<FieldExtractor> extractors = new ArrayList<>(typeRules.getFields().size());
+            for (ExtractionRules.FieldRule field : typeRules.getFields()) {
+                FieldExtractorFactory factory = factories.get(field.getType());
+                if (factory == null) {
+                    throw new IllegalArgumentException("Unknown extractor type '" + field.getType()
+                            + "' for field '" + field.getField() + "' of document type '" + entry.getKey() + "'");
+                }
+                extractors.add(factory.create(field, keywords));
+            }
+
+            DocumentType type = new DocumentType(entry.getKey(), detectIds, List.copyOf(extractors));
+            types.add(type);
+            if (entry.getKey().equals(rules.getDefaultType())) {
+                defaultType = type;
+            }
+        }
+
+        if (defaultType == null) {
+            defaultType = types.get(0);
+        }
+        return new CompiledRuleSet(keywords.build(), List.copyOf(types), defaultType);
+    }
+
+    public ExtractionResult extract(String text) {
+        BitSet hits = keywords.scan(text);
+        DocumentType type = detectType(hits);
+        ExtractionContext context = new ExtractionContext(text, hits);
+
+        Map<String, Object> fields = new HashMap<>();
+        for (FieldExtractor extractor : type.extractors()) {
+            Object value = extractor.extract(context);
+            if (value != null) {
+                fields.put(extractor.getField(), value);
+            }
+        }
+        return new ExtractionResult(type.name(), fields);
+    }
+
+    private DocumentType detectType(BitSet hits) {
+        DocumentType best = defaultType;
+        int bestScore = 0;
+        for (DocumentType type : types) {
+            int score = 0;
+            for (int id : type.detectKeywordIds()) {
+                if (hits.get(id)) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                best = type;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private record DocumentType(String name, int[] detectKeywordIds, List<FieldExtractor> extractors) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.docprocessor.extraction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * {@code type: date} - the first capture group as {@code dd/MM/yyyy} or ISO {@code yyyy-MM-dd}.
+ */
+@Slf4j
+@Component
+public class DateFieldExtractorFactory implements FieldExtractorFactory {
+
+    @Override
+    public String getType() {
+        return "date";
+    }
+
+    @Override
+    public FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords) {
+        return PatternFieldExtractor.compile(rule, keywords, matcher -> parse(matcher.group(1)));
+    }
+
+    static LocalDate parse(String dateStr) {
+        try {
+            int slash = dateStr.indexOf('/');
+            if (slash > 0) {
+                int secondSlash = dateStr.indexOf('/', slash + 1);
+                int day = Integer.parseInt(dateStr, 0, slash, 10);
+                int month = Integer.parseInt(dateStr, slash + 1, secondSlash, 10);
+                int year = Integer.parseInt(dateStr, secondSlash + 1, dateStr.length(), 10);
+                return LocalDate.of(year, month, day);
+            } else if (dateStr.indexOf('-') >= 0) {
+                return LocalDate.parse(dateStr);
+            }
+        } catch (Exception e) {
+            log.warn("Error parsing date: {}", dateStr);
+        }
+        return null;
+    }
+}
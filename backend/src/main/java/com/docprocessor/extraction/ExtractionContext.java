@@ -0,0 +1,25 @@
+package com.docprocessor.extraction;
+
+import lombok.Getter;
+
+import java.util.BitSet;
+
+/**
+ * The text being extracted together with the keyword hits of its rule set's
+ * {@link KeywordIndex}, computed once per document.
+ */
+@Getter
+public class ExtractionContext {
+
+    private final String text;
+    private final BitSet keywordHits;
+
+    public ExtractionContext(String text, BitSet keywordHits) {
+        this.text = text;
+        this.keywordHits = keywordHits;
+    }
+
+    public boolean hasKeyword(int keywordId) {
+        return keywordId < 0 || keywordHits.get(keywordId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.docprocessor.extraction;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Field values extracted from one document, keyed by field name. Fields that
+ * were not found are absent.
+ */
+@Getter
+public class ExtractionResult {
+
+    private final String documentType;
+    private final Map<String, Object> fields;
+
+    public ExtractionResult(String documentType, Map<String, Object> fields) {
+        this.documentType = documentType;
+        this.fields = fields;
+    }
+
+    public <T> T get(String field, Class<T> type) {
+        Object value = fields.get(field);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.docprocessor.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the compiled extraction rules.
+ * <p>
+ * Rules are read from {@code app.extraction.rules-location} and compiled at startup;
+ * an invalid file fails the startup. When the location is a file on disk it is
+ * checked for changes every {@code app.extraction.reload-interval-ms} and recompiled
+ * in the background. Extractions in flight keep the rule set they started with,
+ * and a file that fails to compile is logged and leaves the current rules in place.
+ */
+@Slf4j
+@Component
+public class ExtractionRuleRegistry {
+
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory())
+            .setPropertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE);
+
+    private final Resource rulesLocation;
+    private final Map<String, FieldExtractorFactory> factories;
+    private final AtomicReference<CompiledRuleSet> rules = new AtomicReference<>();
+    private volatile long loadedLastModified;
+
+    public ExtractionRuleRegistry(
+            @Value("${app.extraction.rules-location:classpath:extraction-rules.yml}") Resource rulesLocation,
+            List<FieldExtractorFactory> factories) {
+        this.rulesLocation = rulesLocation;
+        this.factories = factories.stream()
+                .collect(Collectors.toUnmodifiableMap(FieldExtractorFactory::getType, Function.identity()));
+
+        this.loadedLastModified = lastModified();
+        this.rules.set(compile());
+        log.info("Extraction rules loaded from {}", rulesLocation);
+    }
+
+    public CompiledRuleSet getRules() {
+        return rules.get();
+    }
+
+    @Scheduled(initialDelayString = "${app.extraction.reload-interval-ms:10000}",
+            fixedDelayString = "${app.extraction.reload-interval-ms:10000}")
+    public void reloadIfModified() {
+        if (!rulesLocation.isFile()) {
+            return;
+        }
+
+        long lastModified = lastModified();
+        if (lastModified == loadedLastModified) {
+            return;
+        }
+        loadedLastModified = lastModified;
+
+        try {
+            rules.set(compile());
+            log.info("Extraction rules reloaded from {}", rulesLocation);
+        } catch (RuntimeException e) {
+            log.error("Failed to reload extraction rules from {}, keeping the previous rules", rulesLocation, e);
+        }
+    }
+
+    private CompiledRuleSet compile() {
+        try (InputStream in = rulesLocation.getInputStream()) {
+            return CompiledRuleSet.compile(YAML_MAPPER.readValue(in, ExtractionRules.class), factories);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read extraction rules from " + rulesLocation, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return rulesLocation.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.docprocessor.extraction;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule file model, bound from YAML (see {@code extraction-rules.yml}).
+ * Document types are tried in declaration order.
+ */
+@Data
+public class ExtractionRules {
+
+    private String defaultType;
+    private Map<String, DocumentTypeRules> documentTypes = new LinkedHashMap<>();
+
+    @Data
+    public static class DocumentTypeRules {
+        /** Keywords that identify the type; the type with the most hits wins. */
+        private List<String> detectKeywords = new ArrayList<>();
+        private List<FieldRule> fields = new ArrayList<>();
+    }
+
+    @Data
+    public static class FieldRule {
+        private String field;
+        /** Extractor type, resolved against the registered {@link FieldExtractorFactory} beans. */
+        private String type;
+        private List<PatternRule> patterns = new ArrayList<>();
+        private List<KeywordValue> values = new ArrayList<>();
+        private String defaultValue;
+    }
+
+    @Data
+    public static class PatternRule {
+        private String regex;
+        /** Literal the regex cannot match without; the regex is skipped when it is absent. */
+        private String keyword;
+    }
+
+    @Data
+    public static class KeywordValue {
+        private List<String> keywords = new ArrayList<>();
+        private String value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.docprocessor.extraction;
+
+/**
+ * Extracts a single field from document text. Instances are created from a
+ * {@link ExtractionRules.FieldRule} by a {@link FieldExtractorFactory} when a
+ * rule set is compiled and are shared between threads.
+ */
+public interface FieldExtractor {
+
+    String getField();
+
+    /**
+     * @return the extracted value, or {@code null} when the field is not present
+     */
+    Object extract(ExtractionContext context);
+}
@@ -0,0 +1,20 @@
+package com.docprocessor.extraction;
+
+/**
+ * Creates {@link FieldExtractor}s for one rule type. Every factory bean is picked
+ * up by {@link ExtractionRuleRegistry}, so a new kind of field only needs a new
+ * factory and can then be referenced from the rule file.
+ */
+public interface FieldExtractorFactory {
+
+    /**
+     * The {@code type} value in the rule file this factory handles.
+     */
+    String getType();
+
+    /**
+     * Compiles {@code rule}. Keywords the extractor relies on are registered with
+     * {@code keywords}, and their hits are available from the {@link ExtractionContext}.
+     */
+    FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords);
+}
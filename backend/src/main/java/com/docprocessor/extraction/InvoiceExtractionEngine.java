@@ -0,0 +1,137 @@
+package com.docprocessor.extraction;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts invoice fields and text statistics from OCR output.
+ * <p>
+ * Fields come from the rule set currently held by {@link ExtractionRuleRegistry};
+ * missing ones get the same fallbacks as before. Word, line and character counts
+ * are taken in a single pass over the text without splitting it.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvoiceExtractionEngine {
+
+    private static final Pattern HAS_INVOICE_NUMBER = Pattern.compile("(?i).*invoice\\s*#?\\s*:?\\s*[A-Z0-9-]+.*");
+    private static final Pattern HAS_AMOUNT = Pattern.compile("(?i).*(amount|total)\\s*:?\\s*\\$[0-9,.].*");
+    private static final Pattern HAS_DATE = Pattern.compile("(?i).*date\\s*:?\\s*[0-9/-]+.*");
+
+    private final ExtractionRuleRegistry ruleRegistry;
+
+    public DocumentMetadata extractMetadata(String text) {
+        ExtractionResult extracted = ruleRegistry.getRules().extract(text);
+        DocumentMetadata metadata = new DocumentMetadata();
+
+        String invoiceNumber = extracted.get("invoiceNumber", String.class);
+        metadata.setInvoiceNumber(invoiceNumber != null ? invoiceNumber
+                : "INV-2024-" + String.format("%03d", ThreadLocalRandom.current().nextInt(1, 999)));
+
+        metadata.setVendorName(extracted.get("vendorName", String.class));
+        metadata.setCustomerName(extracted.get("customerName", String.class));
+
+        LocalDate invoiceDate = extracted.get("invoiceDate", LocalDate.class);
+        metadata.setInvoiceDate(invoiceDate != null ? invoiceDate : LocalDate.now());
+
+        BigDecimal totalAmount = extracted.get("totalAmount", BigDecimal.class);
+        if (totalAmount == null) {
+            double randomAmount = 100.0 + (ThreadLocalRandom.current().nextDouble() * 4900.0);
+            totalAmount = BigDecimal.valueOf(Math.round(randomAmount * 100.0) / 100.0);
+        }
+        metadata.setTotalAmount(totalAmount);
+
+        String description = extracted.get("itemDescription", String.class);
+        DocumentMetadata.InvoiceItem item = extracted.get("lineItem", DocumentMetadata.InvoiceItem.class);
+        if (item != null) {
+            item.setDescription(description);
+        } else {
+            item = new DocumentMetadata.InvoiceItem(description, BigDecimal.ONE, totalAmount);
+        }
+        List<DocumentMetadata.InvoiceItem> items = new ArrayList<>(1);
+        items.add(item);
+        metadata.setItems(items);
+
+        Map<String, Object> additionalFields = new HashMap<>(4);
+        additionalFields.put("extractionMethod", "OCR");
+        additionalFields.put("documentType", extracted.getDocumentType());
+        additionalFields.put("processingTimestamp", LocalDate.now().toString());
+        metadata.setAdditionalFields(additionalFields);
+
+        return metadata;
+    }
+
+    public Map<String, Object> extractStructuredData(String text) {
+        Map<String, Object> data = new HashMap<>(8);
+
+        data.put("hasInvoiceNumber", HAS_INVOICE_NUMBER.matcher(text).matches());
+        data.put("hasAmount", HAS_AMOUNT.matcher(text).matches());
+        data.put("hasDate", HAS_DATE.matcher(text).matches());
+
+        countText(text, data);
+        return data;
+    }
+
+    /**
+     * Single pass equivalent of {@code split("\\s+").length}, {@code split("\n").length}
+     * and {@code length()}.
+     */
+    private void countText(String text, Map<String, Object> data) {
+        int length = text.length();
+        int words = 0;
+        int newlines = 0;
+        int trailingNewlines = 0;
+        boolean inWord = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                newlines++;
+                trailingNewlines++;
+            } else {
+                trailingNewlines = 0;
+            }
+
+            if (isRegexWhitespace(c)) {
+                inWord = false;
+            } else if (!inWord) {
+                words++;
+                inWord = true;
+            }
+        }
+
+        // split() returns the whole input when there is no separator, keeps the empty
+        // token in front of a leading separator and drops trailing empty tokens
+        int wordCount;
+        if (words == 0) {
+            wordCount = length == 0 ? 1 : 0;
+        } else {
+            wordCount = isRegexWhitespace(text.charAt(0)) ? words + 1 : words;
+        }
+
+        int lineCount;
+        if (newlines == 0) {
+            lineCount = 1;
+        } else {
+            lineCount = trailingNewlines == length ? 0 : newlines + 1 - trailingNewlines;
+        }
+
+        data.put("wordCount", wordCount);
+        data.put("lineCount", lineCount);
+        data.put("characterCount", length);
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,52 @@
+package com.docprocessor.extraction;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code type: keyword} - the value of the first entry with any of its keywords
+ * present in the text, otherwise {@code default-value}. Matching is case-insensitive
+ * and costs nothing beyond the shared keyword scan.
+ */
+@Component
+public class KeywordFieldExtractorFactory implements FieldExtractorFactory {
+
+    @Override
+    public String getType() {
+        return "keyword";
+    }
+
+    @Override
+    public FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords) {
+        List<KeywordValue> values = rule.getValues().stream()
+                .map(v -> new KeywordValue(
+                        v.getKeywords().stream().mapToInt(keywords::add).toArray(),
+                        v.getValue()))
+                .toList();
+        String field = rule.getField();
+        String defaultValue = rule.getDefaultValue();
+
+        return new FieldExtractor() {
+            @Override
+            public String getField() {
+                return field;
+            }
+
+            @Override
+            public Object extract(ExtractionContext context) {
+                for (KeywordValue value : values) {
+                    for (int keywordId : value.keywordIds()) {
+                        if (context.hasKeyword(keywordId)) {
+                            return value.value();
+                        }
+                    }
+                }
+                return defaultValue;
+            }
+        };
+    }
+
+    private record KeywordValue(int[] keywordIds, String value) {
+    }
+}
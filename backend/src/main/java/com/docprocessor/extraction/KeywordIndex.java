@@ -0,0 +1,192 @@
+package com.docprocessor.extraction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over all keywords of a rule set.
+ * <p>
+ * {@link #scan(String)} finds every keyword present in a text in a single pass,
+ * independent of the number of keywords. The automaton is compiled into a
+ * dense transition table over the characters that occur in keywords; any other
+ * character leads back to the root.
+ */
+public final class KeywordIndex {
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] asciiClasses;
+    private final Map<Character, Integer> otherClasses;
+    private final int keywordCount;
+
+    private KeywordIndex(int[][] transitions, int[][] outputs, int[] asciiClasses,
+                         Map<Character, Integer> otherClasses, int keywordCount) {
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.asciiClasses = asciiClasses;
+        this.otherClasses = otherClasses;
+        this.keywordCount = keywordCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return keywordCount;
+    }
+
+    /**
+     * Returns the ids of all keywords that occur in {@code text}.
+     */
+    public BitSet scan(String text) {
+        BitSet hits = new BitSet(keywordCount);
+        int state = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state][classOf(fold(text.charAt(i)))];
+            int[] matched = outputs[state];
+            if (matched != null) {
+                for (int id : matched) {
+                    hits.set(id);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        Integer cls = otherClasses.get(c);
+        return cls != null ? cls : 0;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Collects keywords and hands out stable ids. Registering the same keyword
+     * twice (ignoring case) returns the same id.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public int add(String keyword) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            return ids.computeIfAbsent(foldAll(keyword), k -> ids.size());
+        }
+
+        public KeywordIndex build() {
+            // Character classes: 0 is "not part of any keyword"
+            int[] asciiClasses = new int[128];
+            Map<Character, Integer> otherClasses = new HashMap<>();
+            int classCount = 1;
+            for (String keyword : ids.keySet()) {
+                for (char c : keyword.toCharArray()) {
+                    if (c < 128) {
+                        if (asciiClasses[c] == 0) {
+                            asciiClasses[c] = classCount++;
+                        }
+                    } else if (!otherClasses.containsKey(c)) {
+                        otherClasses.put(c, classCount++);
+                    }
+                }
+            }
+
+            // Trie
+            List<int[]> trie = new ArrayList<>();
+            List<List<Integer>> trieOutputs = new ArrayList<>();
+            trie.add(newRow(classCount));
+            trieOutputs.add(new ArrayList<>());
+
+            for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+                int state = 0;
+                for (char c : entry.getKey().toCharArray()) {
+                    int cls = c < 128 ? asciiClasses[c] : otherClasses.get(c);
+                    if (trie.get(state)[cls] < 0) {
+                        trie.get(state)[cls] = trie.size();
+                        trie.add(newRow(classCount));
+                        trieOutputs.add(new ArrayList<>());
+                    }
+                    state = trie.get(state)[cls];
+                }
+                trieOutputs.get(state).add(entry.getValue());
+            }
+
+            // Failure links, folded into a full transition table (breadth first)
+            int stateCount = trie.size();
+            int[][] transitions = new int[stateCount][];
+            int[] failure = new int[stateCount];
+            Queue<Integer> queue = new ArrayDeque<>();
+
+            transitions[0] = new int[classCount];
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = trie.get(0)[cls];
+                if (next > 0) {
+                    failure[next] = 0;
+                    queue.add(next);
+                    transitions[0][cls] = next;
+                } else {
+                    transitions[0][cls] = 0;
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                trieOutputs.get(state).addAll(trieOutputs.get(failure[state]));
+                transitions[state] = new int[classCount];
+
+                for (int cls = 0; cls < classCount; cls++) {
+                    int next = trie.get(state)[cls];
+                    if (next > 0) {
+                        failure[next] = transitions[failure[state]][cls];
+                        queue.add(next);
+                        transitions[state][cls] = next;
+                    } else {
+                        transitions[state][cls] = transitions[failure[state]][cls];
+                    }
+                }
+            }
+
+            int[][] outputs = new int[stateCount][];
+            for (int state = 0; state < stateCount; state++) {
+                List<Integer> matched = trieOutputs.get(state);
+                if (!matched.isEmpty()) {
+                    outputs[state] = matched.stream().mapToInt(Integer::intValue).distinct().toArray();
+                }
+            }
+
+            return new KeywordIndex(transitions, outputs, asciiClasses, Map.copyOf(otherClasses), ids.size());
+        }
+
+        private static int[] newRow(int classCount) {
+            int[] row = new int[classCount];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        private static String foldAll(String keyword) {
+            char[] chars = keyword.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = fold(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
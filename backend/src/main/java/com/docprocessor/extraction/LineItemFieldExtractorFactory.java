@@ -0,0 +1,35 @@
+package com.docprocessor.extraction;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * {@code type: line-item} - an {@link DocumentMetadata.InvoiceItem} from the named groups
+ * {@code quantity} and {@code unitPrice}. The description is left to the caller.
+ */
+@Slf4j
+@Component
+public class LineItemFieldExtractorFactory implements FieldExtractorFactory {
+
+    @Override
+    public String getType() {
+        return "line-item";
+    }
+
+    @Override
+    public FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords) {
+        return PatternFieldExtractor.compile(rule, keywords, matcher -> {
+            try {
+                BigDecimal quantity = new BigDecimal(matcher.group("quantity"));
+                BigDecimal unitPrice = AmountFieldExtractorFactory.parse(matcher.group("unitPrice"));
+                return unitPrice != null ? new DocumentMetadata.InvoiceItem(null, quantity, unitPrice) : null;
+            } catch (NumberFormatException e) {
+                log.warn("Error parsing line item: {}", e.getMessage());
+                return null;
+            }
+        });
+    }
+}
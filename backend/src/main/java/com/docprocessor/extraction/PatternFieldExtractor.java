@@ -0,0 +1,64 @@
+package com.docprocessor.extraction;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tries an ordered list of patterns and converts the first usable match.
+ * Patterns whose keyword is absent from the text are skipped without running
+ * the regex. A converter returning {@code null} moves on to the next pattern.
+ */
+public final class PatternFieldExtractor implements FieldExtractor {
+
+    private final String field;
+    private final List<GatedPattern> patterns;
+    private final Function<Matcher, Object> converter;
+
+    private PatternFieldExtractor(String field, List<GatedPattern> patterns, Function<Matcher, Object> converter) {
+        this.field = field;
+        this.patterns = patterns;
+        this.converter = converter;
+    }
+
+    public static PatternFieldExtractor compile(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords,
+                                                Function<Matcher, Object> converter) {
+        if (rule.getPatterns().isEmpty()) {
+            throw new IllegalArgumentException("Field '" + rule.getField() + "' declares no patterns");
+        }
+
+        List<GatedPattern> patterns = rule.getPatterns().stream()
+                .map(p -> new GatedPattern(
+                        Pattern.compile(p.getRegex()),
+                        p.getKeyword() != null ? keywords.add(p.getKeyword()) : -1))
+                .toList();
+        return new PatternFieldExtractor(rule.getField(), patterns, converter);
+    }
+
+    @Override
+    public String getField() {
+        return field;
+    }
+
+    @Override
+    public Object extract(ExtractionContext context) {
+        for (GatedPattern pattern : patterns) {
+            if (!context.hasKeyword(pattern.keywordId())) {
+                continue;
+            }
+
+            Matcher matcher = pattern.pattern().matcher(context.getText());
+            if (matcher.find()) {
+                Object value = converter.apply(matcher);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private record GatedPattern(Pattern pattern, int keywordId) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.docprocessor.extraction;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code type: text} - the first capture group, trimmed.
+ */
+@Component
+public class TextFieldExtractorFactory implements FieldExtractorFactory {
+
+    @Override
+    public String getType() {
+        return "text";
+    }
+
+    @Override
+    public FieldExtractor create(ExtractionRules.FieldRule rule, KeywordIndex.Builder keywords) {
+        return PatternFieldExtractor.compile(rule, keywords, matcher -> matcher.group(1).trim());
+    }
+}
@@ -0,0 +1,215 @@
+package com.docprocessor.index;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index over status, vendor, amount and invoice date for faceted
+ * filtering without querying Mongo (see {@link FacetData}).
+ * <p>
+ * The index is loaded in the background at startup and rebuilt periodically.
+ * Between rebuilds it follows status changes: every {@link DocumentStatusEvent}
+ * marks its document for refresh, and marked documents are re-read in batches, so
+ * metadata written when processing completes is picked up and deleted documents
+ * drop out. In {@code rabbitmq} mode status events reach every replica, so each
+ * replica keeps its own index current.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentFacetIndex implements ApplicationRunner {
+
+    private static final String[] FIELDS = {
+            "status", "metadata.vendorName", "metadata.totalAmount", "metadata.invoiceDate"};
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.facets.refresh-batch-size:500}")
+    private int refreshBatchSize;
+
+    @Value("${app.facets.max-vendor-values:20}")
+    private int maxVendorValues;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /** Null until first loaded. Guarded by {@link #lock}. */
+    private FacetData data;
+
+    /** Documents to re-read. Guards itself and {@link #refreshedDuringRebuild}. */
+    private final Set<String> dirty = new LinkedHashSet<>();
+
+    /** Documents refreshed while a rebuild was reading, so possibly older in the rebuilt index. */
+    private Set<String> refreshedDuringRebuild;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("facet-index-load").start(this::rebuild);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return data != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a faceted query, or returns empty while the index is still loading.
+     */
+    public Optional<FacetResult> query(FacetQuery query, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return data != null
+                    ? Optional.of(data.query(query, offset, limit, maxVendorValues))
+                    : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(DocumentStatusEvent event) {
+        if (event.getDocumentId() != null) {
+            synchronized (dirty) {
+                dirty.add(event.getDocumentId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.facets.refresh-interval-ms:500}")
+    public void refresh() {
+        List<String> batch;
+        while (!(batch = takeDirty()).isEmpty()) {
+            Map<String, ProcessingDocument> current;
+            try {
+                Query query = Query.query(Criteria.where("_id").in(batch));
+                query.fields().include(FIELDS);
+                current = mongoTemplate.find(query, ProcessingDocument.class).stream()
+                        .collect(Collectors.toMap(ProcessingDocument::getId, Function.identity()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh facet index, retrying {} documents later: {}", batch.size(), e.getMessage());
+                synchronized (dirty) {
+                    dirty.addAll(batch);
+                }
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (data != null) {
+                    for (String id : batch) {
+                        ProcessingDocument document = current.get(id);
+                        if (document != null) {
+                            upsert(data, document, false);
+                        } else {
+                            data.remove(id);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads the index from the documents collection, correcting any drift, e.g.
+     * from status events lost while a replica was disconnected.
+     */
+    @Scheduled(initialDelayString = "${app.facets.rebuild.interval-ms:3600000}",
+            fixedDelayString = "${app.facets.rebuild.interval-ms:3600000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (dirty) {
+            refreshedDuringRebuild = new HashSet<>();
+        }
+        try {
+            long started = System.currentTimeMillis();
+            FacetData fresh = new FacetData();
+            Query query = new Query().with(Sort.by("_id"));
+            query.fields().include(FIELDS);
+            try (Stream<ProcessingDocument> documents = mongoTemplate.stream(query, ProcessingDocument.class)) {
+                documents.forEach(document -> upsert(fresh, document, true));
+            }
+            fresh.compact();
+
+            lock.writeLock().lock();
+            try {
+                data = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded facet index with {} documents in {} ms",
+                    fresh.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load facet index: {}", e.getMessage());
+        } finally {
+            synchronized (dirty) {
+                dirty.addAll(refreshedDuringRebuild);
+                refreshedDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    private List<String> takeDirty() {
+        synchronized (dirty) {
+            List<String> batch = new ArrayList<>(Math.min(dirty.size(), refreshBatchSize));
+            Iterator<String> iterator = dirty.iterator();
+            while (batch.size() < refreshBatchSize && iterator.hasNext()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.addAll(batch);
+            }
+            return batch;
+        }
+    }
+
+    private static void upsert(FacetData data, ProcessingDocument document, boolean bulk) {
+        DocumentMetadata metadata = document.getMetadata();
+        if (metadata == null) {
+            metadata = new DocumentMetadata();
+        }
+        if (bulk) {
+            data.load(document.getId(), document.getStatus(), metadata.getVendorName(),
+                    metadata.getTotalAmount(), metadata.getInvoiceDate());
+        } else {
+            data.upsert(document.getId(), document.getStatus(), metadata.getVendorName(),
+                    metadata.getTotalAmount(), metadata.getInvoiceDate());
+        }
+    }
+}
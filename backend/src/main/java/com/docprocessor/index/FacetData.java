@@ -0,0 +1,251 @@
+package com.docprocessor.index;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The facet index proper. Documents are numbered with dense ordinals; status and
+ * vendor values map to bitmaps of ordinals, amount and invoice date are
+ * {@link SortedLongColumn}s. Ordinals of removed documents are not reused until the
+ * next rebuild.
+ * <p>
+ * Not thread-safe; {@link DocumentFacetIndex} guards it.
+ */
+final class FacetData {
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<ProcessingStatus> statusOf = new ArrayList<>();
+    private final List<String> vendorOf = new ArrayList<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    private final Map<ProcessingStatus, RoaringBitmap> byStatus = new EnumMap<>(ProcessingStatus.class);
+    private final Map<String, RoaringBitmap> byVendor = new HashMap<>();
+    private final Map<String, String> vendorNames = new HashMap<>();
+    private final SortedLongColumn amounts = new SortedLongColumn();
+    private final SortedLongColumn invoiceDates = new SortedLongColumn();
+
+    /**
+     * Adds a document while bulk loading; {@link #compact} must follow.
+     */
+    void load(String id, ProcessingStatus status, String vendorName, BigDecimal totalAmount, LocalDate invoiceDate) {
+        put(id, status, vendorName, totalAmount, invoiceDate, true);
+    }
+
+    void upsert(String id, ProcessingStatus status, String vendorName, BigDecimal totalAmount, LocalDate invoiceDate) {
+        put(id, status, vendorName, totalAmount, invoiceDate, false);
+    }
+
+    void remove(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        live.remove(ordinal);
+        setStatus(ordinal, null);
+        setVendor(ordinal, null, null);
+        amounts.clear(ordinal);
+        invoiceDates.clear(ordinal);
+        ids.set(ordinal, null);
+    }
+
+    void compact() {
+        amounts.compact();
+        invoiceDates.compact();
+        live.runOptimize();
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    FacetResult query(FacetQuery query, long offset, int limit, int maxVendorValues) {
+        RoaringBitmap status = null;
+        if (!query.statuses().isEmpty()) {
+            status = new RoaringBitmap();
+            for (ProcessingStatus value : query.statuses()) {
+                status.or(byStatus.getOrDefault(value, new RoaringBitmap()));
+            }
+        }
+        RoaringBitmap vendor = null;
+        if (!query.vendors().isEmpty()) {
+            vendor = new RoaringBitmap();
+            for (String name : query.vendors()) {
+                String key = vendorKey(name);
+                if (key != null && byVendor.containsKey(key)) {
+                    vendor.or(byVendor.get(key));
+                }
+            }
+        }
+        RoaringBitmap amount = query.minAmount() == null && query.maxAmount() == null ? null
+                : amounts.range(query.minAmount() != null ? cents(query.minAmount()) : Long.MIN_VALUE,
+                        query.maxAmount() != null ? cents(query.maxAmount()) : Long.MAX_VALUE);
+        RoaringBitmap invoiceDate = query.invoiceDateFrom() == null && query.invoiceDateTo() == null ? null
+                : invoiceDates.range(
+                        query.invoiceDateFrom() != null ? query.invoiceDateFrom().toEpochDay() : Long.MIN_VALUE,
+                        query.invoiceDateTo() != null ? query.invoiceDateTo().toEpochDay() : Long.MAX_VALUE);
+
+        RoaringBitmap others = and(live, amount, invoiceDate);
+        RoaringBitmap withoutStatus = and(others, vendor);
+        RoaringBitmap withoutVendor = and(others, status);
+        RoaringBitmap matches = and(withoutStatus, status);
+
+        Map<ProcessingStatus, Long> statusCounts = new EnumMap<>(ProcessingStatus.class);
+        byStatus.forEach((value, postings) -> {
+            long count = RoaringBitmap.andCardinality(withoutStatus, postings);
+            if (count > 0 || query.statuses().contains(value)) {
+                statusCounts.put(value, count);
+            }
+        });
+
+        return new FacetResult(matches.getLongCardinality(), statusCounts,
+                vendorCounts(withoutVendor, query, maxVendorValues),
+                page(matches, offset, limit), matches.getLongCardinality() > offset + limit);
+    }
+
+    /**
+     * The vendors with the most matches, plus the selected ones.
+     */
+    private Map<String, Long> vendorCounts(RoaringBitmap matches, FacetQuery query, int maxValues) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        byVendor.forEach((key, postings) -> {
+            long count = RoaringBitmap.andCardinality(matches, postings);
+            if (count > 0) {
+                counts.add(Map.entry(key, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> count : counts.subList(0, Math.min(maxValues, counts.size()))) {
+            result.put(vendorNames.get(count.getKey()), count.getValue());
+        }
+        for (String name : query.vendors()) {
+            String key = vendorKey(name);
+            String label = key != null ? vendorNames.getOrDefault(key, name) : name;
+            if (!result.containsKey(label)) {
+                result.put(label, key != null && byVendor.containsKey(key)
+                        ? RoaringBitmap.andCardinality(matches, byVendor.get(key)) : 0L);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ordinals grow with insertion and a rebuild loads documents in id order, so
+     * iterating in reverse returns the newest documents first.
+     */
+    private List<String> page(RoaringBitmap matches, long offset, int limit) {
+        List<String> page = new ArrayList<>(limit);
+        IntIterator iterator = matches.getReverseIntIterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(ids.get(iterator.next()));
+        }
+        return page;
+    }
+
+    private void put(String id, ProcessingStatus status, String vendorName, BigDecimal totalAmount,
+                     LocalDate invoiceDate, boolean bulk) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) {
+            ordinal = ids.size();
+            ids.add(id);
+            statusOf.add(null);
+            vendorOf.add(null);
+            ordinals.put(id, ordinal);
+            live.add(ordinal);
+        }
+
+        setStatus(ordinal, status);
+        setVendor(ordinal, vendorKey(vendorName), vendorName);
+        setValue(amounts, ordinal, totalAmount != null ? cents(totalAmount) : null, bulk);
+        setValue(invoiceDates, ordinal, invoiceDate != null ? invoiceDate.toEpochDay() : null, bulk);
+    }
+
+    private void setStatus(int ordinal, ProcessingStatus status) {
+        ProcessingStatus previous = statusOf.get(ordinal);
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            byStatus.get(previous).remove(ordinal);
+        }
+        if (status != null) {
+            byStatus.computeIfAbsent(status, s -> new RoaringBitmap()).add(ordinal);
+        }
+        statusOf.set(ordinal, status);
+    }
+
+    private void setVendor(int ordinal, String key, String name) {
+        String previous = vendorOf.get(ordinal);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        if (previous != null) {
+            RoaringBitmap postings = byVendor.get(previous);
+            postings.remove(ordinal);
+            if (postings.isEmpty()) {
+                byVendor.remove(previous);
+                vendorNames.remove(previous);
+            }
+        }
+        if (key != null) {
+            byVendor.computeIfAbsent(key, k -> new RoaringBitmap()).add(ordinal);
+            vendorNames.putIfAbsent(key, name.trim());
+        }
+        vendorOf.set(ordinal, key);
+    }
+
+    private static void setValue(SortedLongColumn column, int ordinal, Long value, boolean bulk) {
+        if (value == null) {
+            column.clear(ordinal);
+        } else if (bulk) {
+            column.append(ordinal, value);
+        } else {
+            column.set(ordinal, value);
+        }
+    }
+
+    /**
+     * Vendors are matched ignoring case and repeated whitespace, since OCR output
+     * of the same name varies in both.
+     */
+    static String vendorKey(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static RoaringBitmap and(RoaringBitmap first, RoaringBitmap... others) {
+        RoaringBitmap result = first;
+        for (RoaringBitmap other : others) {
+            if (other != null) {
+                result = RoaringBitmap.and(result, other);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.docprocessor.index;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Filters of a faceted query. Empty sets and null bounds do not filter; values
+ * within a facet are alternatives, facets are combined.
+ */
+public record FacetQuery(Set<ProcessingStatus> statuses,
+                         Set<String> vendors,
+                         BigDecimal minAmount,
+                         BigDecimal maxAmount,
+                         LocalDate invoiceDateFrom,
+                         LocalDate invoiceDateTo) {
+
+    public FacetQuery {
+        statuses = statuses != null ? Set.copyOf(statuses) : Set.of();
+        vendors = vendors != null ? Set.copyOf(vendors) : Set.of();
+    }
+}
@@ -0,0 +1,20 @@
+package com.docprocessor.index;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches of a {@link FacetQuery}: the total, counts per facet value and one page
+ * of document ids, newest first.
+ * <p>
+ * Each facet's counts apply every filter except that facet's own, so they tell how
+ * many documents selecting another value would add.
+ */
+public record FacetResult(long total,
+                          Map<ProcessingStatus, Long> statusCounts,
+                          Map<String, Long> vendorCounts,
+                          List<String> documentIds,
+                          boolean hasNext) {
+}
@@ -0,0 +1,149 @@
+package com.docprocessor.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+
+/**
+ * A numeric column over document ordinals answering range queries as bitmaps.
+ * <p>
+ * Values are kept in a sorted run of {@code (value, ordinal)} pairs plus a small
+ * unsorted tail of recent changes. A range query binary searches the run and scans
+ * the tail. Changes only append to the tail, and the previous entry of an ordinal is
+ * left behind: an entry counts only while it matches the ordinal's current value.
+ * Once the tail is full it is merged into the run, dropping such entries.
+ * <p>
+ * Not thread-safe; {@link DocumentFacetIndex} guards it.
+ */
+final class SortedLongColumn {
+
+    private static final int MAX_TAIL = 4096;
+
+    private long[] values = new long[1024];
+    private final RoaringBitmap present = new RoaringBitmap();
+
+    private long[] runKeys = new long[0];
+    private int[] runOrdinals = new int[0];
+    private int runSize;
+
+    private long[] tailKeys = new long[64];
+    private int[] tailOrdinals = new int[64];
+    private int tailSize;
+
+    void set(int ordinal, long value) {
+        append(ordinal, value);
+        if (tailSize >= MAX_TAIL) {
+            compact();
+        }
+    }
+
+    /**
+     * Like {@link #set} but never merges; for bulk loading, followed by {@link #compact}.
+     */
+    void append(int ordinal, long value) {
+        if (ordinal < values.length && values[ordinal] == value && present.contains(ordinal)) {
+            return;
+        }
+        if (ordinal >= values.length) {
+            values = Arrays.copyOf(values, Math.max(ordinal + 1, values.length * 2));
+        }
+        values[ordinal] = value;
+        present.add(ordinal);
+
+        if (tailSize == tailKeys.length) {
+            tailKeys = Arrays.copyOf(tailKeys, tailSize * 2);
+            tailOrdinals = Arrays.copyOf(tailOrdinals, tailSize * 2);
+        }
+        tailKeys[tailSize] = value;
+        tailOrdinals[tailSize] = ordinal;
+        tailSize++;
+    }
+
+    void clear(int ordinal) {
+        present.remove(ordinal);
+    }
+
+    /**
+     * Ordinals whose value is within {@code [from, to]}.
+     */
+    RoaringBitmap range(long from, long to) {
+        RoaringBitmap result = new RoaringBitmap();
+        if (from > to) {
+            return result;
+        }
+        for (int i = lowerBound(from); i < runSize && runKeys[i] <= to; i++) {
+            addIfCurrent(result, runOrdinals[i], runKeys[i]);
+        }
+        for (int i = 0; i < tailSize; i++) {
+            if (tailKeys[i] >= from && tailKeys[i] <= to) {
+                addIfCurrent(result, tailOrdinals[i], tailKeys[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the tail into the sorted run. The tail is sorted by packing each
+     * entry's rank among the tail's values together with its ordinal into a long.
+     */
+    void compact() {
+        if (tailSize == 0) {
+            return;
+        }
+        long[] sortedKeys = Arrays.copyOf(tailKeys, tailSize);
+        Arrays.sort(sortedKeys);
+        long[] packed = new long[tailSize];
+        for (int i = 0; i < tailSize; i++) {
+            packed[i] = ((long) Arrays.binarySearch(sortedKeys, tailKeys[i]) << 32) | tailOrdinals[i];
+        }
+        Arrays.sort(packed);
+
+        long[] keys = new long[runSize + tailSize];
+        int[] ordinals = new int[runSize + tailSize];
+        RoaringBitmap seen = new RoaringBitmap();
+        int size = 0;
+        int r = 0;
+        int t = 0;
+        while (r < runSize || t < tailSize) {
+            long key;
+            int ordinal;
+            long tailKey = t < tailSize ? sortedKeys[(int) (packed[t] >>> 32)] : 0;
+            if (t == tailSize || (r < runSize && runKeys[r] <= tailKey)) {
+                key = runKeys[r];
+                ordinal = runOrdinals[r++];
+            } else {
+                key = tailKey;
+                ordinal = (int) packed[t++];
+            }
+            if (present.contains(ordinal) && values[ordinal] == key && seen.checkedAdd(ordinal)) {
+                keys[size] = key;
+                ordinals[size++] = ordinal;
+            }
+        }
+
+        runKeys = keys;
+        runOrdinals = ordinals;
+        runSize = size;
+        tailSize = 0;
+    }
+
+    private void addIfCurrent(RoaringBitmap result, int ordinal, long key) {
+        if (values[ordinal] == key && present.contains(ordinal)) {
+            result.add(ordinal);
+        }
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = runSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (runKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,54 @@
+package com.docprocessor.messaging;
+
+import com.docprocessor.exception.DocumentProcessingException;
+import com.docprocessor.exception.ErrorCode;
+import com.docprocessor.service.impl.DocumentProcessingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Consumes processing requests from the shared queues and runs the pipeline.
+ * The bulk queue has its own, smaller set of consumers, so batch uploads leave
+ * the regular consumers free for interactive uploads.
+ * Exceptions are left to the container's retry advice (spring.rabbitmq.listener.simple.retry);
+ * once the attempts are exhausted the message is dead-lettered.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+public class DocumentProcessingListener {
+
+    private final DocumentProcessingService processingService;
+
+    @RabbitListener(queues = "${app.messaging.processing-queue:document.processing}")
+    public void onProcessingRequest(DocumentProcessingMessage message) throws IOException {
+        process(message);
+    }
+
+    @RabbitListener(queues = "${app.messaging.bulk-processing-queue:document.processing.bulk}",
+            concurrency = "${app.messaging.bulk-concurrency:1-2}")
+    public void onBulkProcessingRequest(DocumentProcessingMessage message) throws IOException {
+        process(message);
+    }
+
+    private void process(DocumentProcessingMessage message) throws IOException {
+        String documentId = message.getDocumentId();
+        log.debug("Received processing request for document: {}", documentId);
+
+        try {
+            processingService.processDocument(documentId);
+        } catch (DocumentProcessingException e) {
+            if (e.getErrorCode() == ErrorCode.DOCUMENT_NOT_FOUND) {
+                log.warn("Dropping processing request for missing document: {}", documentId);
+                return;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.docprocessor.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Payload published to the processing exchange when a document is ready for OCR.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentProcessingMessage {
+
+    private String documentId;
+
+    private Instant enqueuedAt;
+
+    public static DocumentProcessingMessage of(String documentId) {
+        return new DocumentProcessingMessage(documentId, Instant.now());
+    }
+}
@@ -0,0 +1,36 @@
+package com.docprocessor.messaging;
+
+import com.docprocessor.domain.enums.ProcessingLane;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes processing requests so that any backend replica can pick them up.
+ * Batch uploads go to a queue of their own, so that they cannot hold up
+ * interactive uploads behind them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentProcessingPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${app.messaging.exchange:docprocessor.documents}")
+    private String exchange;
+
+    @Value("${app.messaging.processing-routing-key:document.process}")
+    private String routingKey;
+
+    @Value("${app.messaging.bulk-processing-routing-key:document.process.bulk}")
+    private String bulkRoutingKey;
+
+    public void publish(String documentId, ProcessingLane lane) {
+        rabbitTemplate.convertAndSend(exchange, lane == ProcessingLane.BULK ? bulkRoutingKey : routingKey,
+                DocumentProcessingMessage.of(documentId));
+        log.debug("Published {} processing request for document: {}", lane, documentId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.docprocessor.messaging;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A document's status changed. Published as an application event on every replica,
+ * relayed between replicas through the status exchange in {@code rabbitmq} mode.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentStatusEvent {
+
+    private String documentId;
+
+    /** Null once the document has been deleted. */
+    private ProcessingStatus status;
+
+    /** Why the document failed, if it did. */
+    private String message;
+
+    private Instant timestamp;
+
+    public static DocumentStatusEvent of(String documentId, ProcessingStatus status, String message) {
+        return new DocumentStatusEvent(documentId, status, message, Instant.now());
+    }
+}
@@ -0,0 +1,55 @@
+package com.docprocessor.messaging;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces status transitions once they are written. In {@code rabbitmq} mode the
+ * event goes through the status fanout exchange so that every replica, including
+ * this one, receives it (see {@link DocumentStatusRelayListener}); otherwise it is
+ * published locally. Notification is best-effort and never fails the transition.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentStatusPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${app.processing.dispatch-mode:local}")
+    private String dispatchMode;
+
+    @Value("${app.messaging.status-exchange:docprocessor.status}")
+    private String statusExchange;
+
+    public void publish(String documentId, ProcessingStatus status) {
+        publish(documentId, status, null);
+    }
+
+    public void publish(String documentId, ProcessingStatus status, String message) {
+        DocumentStatusEvent event = DocumentStatusEvent.of(documentId, status, message);
+
+        if ("rabbitmq".equalsIgnoreCase(dispatchMode)) {
+            try {
+                rabbitTemplate.convertAndSend(statusExchange, "", event);
+                return;
+            } catch (AmqpException e) {
+                log.warn("Failed to relay status of document {}, notifying local clients only: {}",
+                        documentId, e.getMessage());
+            }
+        }
+
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish status of document {}: {}", documentId, e.getMessage());
+        }
+    }
+}
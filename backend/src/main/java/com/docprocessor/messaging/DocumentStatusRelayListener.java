@@ -0,0 +1,24 @@
+package com.docprocessor.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives status events from all replicas on this instance's exclusive queue and
+ * republishes them locally.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.processing.dispatch-mode", havingValue = "rabbitmq")
+public class DocumentStatusRelayListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @RabbitListener(queues = "#{documentStatusQueue.name}")
+    public void onStatusEvent(DocumentStatusEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -32,30 +33,7 @@ public interface DocumentRepository extends MongoRepository<ProcessingDocument,
     List<ProcessingDocument> findDocumentsBetweenProcessedDates(LocalDateTime startDate, LocalDateTime endDate);
 
     @Query("{ 'metadata.invoiceDate': { $gte: ?0, $lte: ?1 } }")
-    List<ProcessingDocument> findDocumentsBetweenInvoiceDates(String startDate, String endDate);
-
-    @Query("{ $and: [ " +
-           "{ 'status': ?0 }, " +
-           "{ 'uploadedAt': { $gte: ?1, $lte: ?2 } }, " +
-           "{ $or: [ " +
-           "  { 'filename': { $regex: ?3, $options: 'i' } }, " +
-           "  { 'metadata.invoiceNumber': { $regex: ?3, $options: 'i' } } " +
-           "] } " +
-           "] }")
-    Page<ProcessingDocument> findByStatusAndDateRangeAndSearchTerm(
-        ProcessingStatus status, 
-        LocalDateTime startDate, 
-        LocalDateTime endDate, 
-        String searchTerm, 
-        Pageable pageable
-    );
-
-    @Query("{ $or: [ " +
-           "  { 'filename': { $regex: ?0, $options: 'i' } }, " +
-           "  { 'metadata.invoiceNumber': { $regex: ?0, $options: 'i' } }, " +
-           "  { 'ocrResult.text': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    Page<ProcessingDocument> searchDocuments(String searchTerm, Pageable pageable);
+    List<ProcessingDocument> findDocumentsBetweenInvoiceDates(LocalDate startDate, LocalDate endDate);
 
     @Query("{ 'status': 'UPLOADED' }")
     List<ProcessingDocument> findDocumentsToProcess();
@@ -79,11 +57,4 @@ public interface DocumentRepository extends MongoRepository<ProcessingDocument,
 
     @Query(value = "{ 'metadata.invoiceNumber': ?0 }", exists = true)
     boolean existsByInvoiceNumber(String invoiceNumber);
-
-    @Query("{ $group: { " +
-           "_id: '$status', " +
-           "count: { $sum: 1 }, " +
-           "avgProcessingTime: { $avg: { $subtract: ['$processedAt', '$uploadedAt'] } } " +
-           "} }")
-    List<Object> getProcessingStatistics();
 }
\ No newline at end of file
@@ -0,0 +1,365 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.dto.BatchItemResult;
+import com.docprocessor.domain.dto.BatchStatusDTO;
+import com.docprocessor.domain.dto.BatchUploadResponse;
+import com.docprocessor.domain.entities.IngestBatch;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.exception.DocumentProcessingException;
+import com.docprocessor.exception.ValidationException;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Uploads of many files in one request, as multipart parts or as a ZIP archive.
+ * <p>
+ * Each file is streamed into storage as it is read; archive entries are read
+ * straight from the request body, so the archive is never written out as a whole.
+ * Documents are registered in chunks, each with a single {@code insertAll}, and
+ * dispatched once registered. A file that cannot be stored is reported as rejected
+ * without failing the rest of the batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchIngestService {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final StorageServiceImpl storageService;
+    private final MongoTemplate mongoTemplate;
+    private final ProcessingDispatcher processingDispatcher;
+    private final DocumentStatusPublisher statusPublisher;
+    private final DocumentStatisticsService statistics;
+
+    @Value("${app.document.max-file-size:52428800}")
+    private long maxFileSize;
+
+    @Value("${app.document.allowed-types:application/pdf,image/jpeg,image/png}")
+    private String[] allowedTypes;
+
+    @Value("${app.processing.lease-duration:PT5M}")
+    private Duration dispatchTimeout;
+
+    @Value("${app.batch.max-items:5000}")
+    private int maxItems;
+
+    @Value("${app.batch.insert-chunk-size:500}")
+    private int insertChunkSize;
+
+    public BatchUploadResponse ingestFiles(List<MultipartFile> files, String customerId) {
+        if (files == null || files.isEmpty()) {
+            throw new ValidationException("At least one file is required");
+        }
+        if (files.size() > maxItems) {
+            throw new ValidationException("A batch can contain at most " + maxItems + " files");
+        }
+
+        Batch batch = start(IngestBatch.SOURCE_MULTIPART, DocumentServiceImpl.normalizeCustomerId(customerId));
+        for (MultipartFile file : files) {
+            try (InputStream content = file.getInputStream()) {
+                batch.add(file.getOriginalFilename(), file.getContentType(), content);
+            } catch (IOException e) {
+                batch.reject(file.getOriginalFilename(), "Failed to read file");
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Reads the archive entry by entry from {@code archive}. Directories and hidden
+     * files (including macOS resource forks) are skipped. A corrupt archive ends the
+     * batch at the last complete entry.
+     */
+    public BatchUploadResponse ingestZip(InputStream archive, String customerId) {
+        Batch batch = start(IngestBatch.SOURCE_ZIP, DocumentServiceImpl.normalizeCustomerId(customerId));
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(archive, READ_BUFFER_SIZE))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String filename = entryFilename(entry);
+                if (filename == null) {
+                    continue;
+                }
+                if (batch.size() >= maxItems) {
+                    batch.reject(filename, "A batch can contain at most " + maxItems + " files");
+                    break;
+                }
+                batch.add(filename, null, zip);
+            }
+        } catch (IOException e) {
+            log.warn("Batch {} stopped reading the archive: {}", batch.id, e.getMessage());
+            batch.reject("(archive)", "Invalid or truncated ZIP archive: " + e.getMessage());
+        }
+        if (batch.size() == 0) {
+            batch.reject("(archive)", "The archive contains no files");
+        }
+        return batch.finish();
+    }
+
+    public Optional<BatchStatusDTO> getBatchStatus(String batchId) {
+        IngestBatch batch = mongoTemplate.findById(batchId, IngestBatch.class);
+        if (batch == null) {
+            return Optional.empty();
+        }
+
+        Map<ProcessingStatus, Long> statusCounts = new EnumMap<>(ProcessingStatus.class);
+        mongoTemplate.aggregate(Aggregation.newAggregation(ProcessingDocument.class,
+                        Aggregation.match(Criteria.where("batchId").is(batchId)),
+                        Aggregation.group("status").count().as("count")),
+                Document.class).getMappedResults()
+                .forEach(group -> statusCounts.put(ProcessingStatus.valueOf(group.getString("_id")),
+                        ((Number) group.get("count")).longValue()));
+
+        boolean received = batch.getReceivedAt() != null;
+        boolean pending = statusCounts.containsKey(ProcessingStatus.UPLOADED)
+                || statusCounts.containsKey(ProcessingStatus.PROCESSING);
+
+        return Optional.of(BatchStatusDTO.builder()
+                .batchId(batch.getId())
+                .source(batch.getSource())
+                .customerId(batch.getCustomerId())
+                .createdAt(batch.getCreatedAt())
+                .received(received)
+                .accepted(batch.getAccepted())
+                .rejected(batch.getRejected())
+                .statusCounts(statusCounts)
+                .completed(received && !pending)
+                .rejectedItems(batch.getRejectedItems())
+                .build());
+    }
+
+    /**
+     * The entry's file name without its directories, or null for entries that are
+     * not invoice files.
+     */
+    static String entryFilename(ZipEntry entry) {
+        if (entry.isDirectory()) {
+            return null;
+        }
+        String name = entry.getName().replace('\\', '/');
+        if (name.startsWith("__MACOSX/")) {
+            return null;
+        }
+        String filename = name.substring(name.lastIndexOf('/') + 1);
+        return filename.isEmpty() || filename.startsWith(".") ? null : filename;
+    }
+
+    private Batch start(String source, String customerId) {
+        IngestBatch record = mongoTemplate.insert(IngestBatch.builder()
+                .id(new ObjectId().toHexString())
+                .source(source)
+                .customerId(customerId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        log.info("Started batch upload {} ({})", record.getId(), source);
+        return new Batch(record.getId(), customerId);
+    }
+
+    private boolean isAllowedType(String contentType) {
+        return Arrays.stream(allowedTypes).anyMatch(type -> type.equalsIgnoreCase(contentType));
+    }
+
+    /**
+     * Accumulates the files of one batch request and registers them in chunks.
+     */
+    private final class Batch {
+
+        private final String id;
+        private final String customerId;
+        private final List<BatchItemResult> items = new ArrayList<>();
+        private final List<ProcessingDocument> pending = new ArrayList<>();
+        private final List<BatchItemResult> pendingItems = new ArrayList<>();
+        private int undispatched;
+
+        private Batch(String id, String customerId) {
+            this.id = id;
+            this.customerId = customerId;
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void add(String originalFilename, String declaredContentType, InputStream content) {
+            String filename = DocumentServiceImpl.sanitizeFilename(originalFilename);
+            String contentType = declaredContentType != null
+                    && !MediaType.APPLICATION_OCTET_STREAM_VALUE.equals(declaredContentType)
+                    ? declaredContentType
+                    : MediaTypeFactory.getMediaType(filename).map(MediaType::toString).orElse(null);
+            if (!isAllowedType(contentType)) {
+                reject(originalFilename, "Unsupported file type: " + (contentType != null ? contentType : "unknown"));
+                return;
+            }
+
+            StorageServiceImpl.StoredFile storedFile;
+            try {
+                storedFile = storageService.storeStream(content, filename, contentType, maxFileSize);
+            } catch (ValidationException e) {
+                reject(originalFilename, e.getMessage());
+                return;
+            } catch (DocumentProcessingException e) {
+                log.warn("Batch {} failed to store {}: {}", id, originalFilename, e.getMessage());
+                reject(originalFilename, "Failed to store file");
+                return;
+            }
+
+            BatchItemResult item = BatchItemResult.builder()
+                    .index(items.size())
+                    .filename(filename)
+                    .fileSizeBytes(storedFile.getSizeBytes())
+                    .build();
+            items.add(item);
+            pendingItems.add(item);
+            pending.add(ProcessingDocument.builder()
+                    .id(new ObjectId().toHexString())
+                    .filename(filename)
+                    .fileId(storedFile.getFileId())
+                    .fileSizeBytes(storedFile.getSizeBytes())
+                    .contentType(storedFile.getContentType())
+                    .contentHash(storedFile.getContentHash())
+                    .customerId(customerId)
+                    .batchId(id)
+                    .status(ProcessingStatus.UPLOADED)
+                    .nextAttemptAt(LocalDateTime.now().plus(dispatchTimeout))
+                    .build());
+
+            if (pending.size() >= insertChunkSize) {
+                flush();
+            }
+        }
+
+        void reject(String originalFilename, String error) {
+            items.add(BatchItemResult.builder()
+                    .index(items.size())
+                    .filename(originalFilename)
+                    .error(error)
+                    .build());
+        }
+
+        /**
+         * Registers the stored files of the current chunk and dispatches them. Ids are
+         * assigned up front, so that after a failed insert the documents that did get
+         * inserted can be told apart; the files of the others are released and
+         * reported as rejected.
+         */
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> inserted;
+            try {
+                mongoTemplate.insertAll(pending);
+                inserted = pending.stream().map(ProcessingDocument::getId).collect(Collectors.toSet());
+            } catch (RuntimeException e) {
+                log.error("Batch {} failed to register {} documents", id, pending.size(), e);
+                inserted = insertedIds();
+            }
+
+            for (int i = 0; i < pending.size(); i++) {
+                ProcessingDocument document = pending.get(i);
+                BatchItemResult item = pendingItems.get(i);
+                if (inserted == null) {
+                    item.setError("Failed to register document");
+                } else if (inserted.contains(document.getId())) {
+                    item.setDocumentId(document.getId());
+                    statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+                    statusPublisher.publish(document.getId(), ProcessingStatus.UPLOADED);
+                    if (!processingDispatcher.dispatch(document)) {
+                        undispatched++;
+                    }
+                } else {
+                    releaseStoredFile(document.getFileId());
+                    item.setError("Failed to register document");
+                }
+            }
+            pending.clear();
+            pendingItems.clear();
+        }
+
+        /**
+         * Which documents of the chunk exist, or null if that cannot be told; their
+         * files are then kept rather than risk releasing a registered document's file.
+         */
+        private Set<String> insertedIds() {
+            try {
+                Query query = Query.query(Criteria.where("_id")
+                        .in(pending.stream().map(ProcessingDocument::getId).toList()));
+                query.fields().include("_id");
+                return mongoTemplate.find(query, ProcessingDocument.class).stream()
+                        .map(ProcessingDocument::getId)
+                        .collect(Collectors.toSet());
+            } catch (RuntimeException e) {
+                log.warn("Batch {} could not check which documents were registered: {}", id, e.getMessage());
+                return null;
+            }
+        }
+
+        BatchUploadResponse finish() {
+            flush();
+
+            List<BatchItemResult> rejected = items.stream().filter(item -> !item.isAccepted()).toList();
+            int accepted = items.size() - rejected.size();
+            try {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                        new Update()
+                                .set("receivedAt", LocalDateTime.now())
+                                .set("accepted", accepted)
+                                .set("rejected", rejected.size())
+                                .set("rejectedItems", rejected),
+                        IngestBatch.class);
+            } catch (RuntimeException e) {
+                log.warn("Failed to record the outcome of batch {}: {}", id, e.getMessage());
+            }
+
+            log.info("Batch upload {} received: {} accepted, {} rejected", id, accepted, rejected.size());
+            if (undispatched > 0) {
+                log.warn("Batch {} of customer {}: {} document(s) could not be dispatched yet, "
+                        + "the recovery job dispatches them later", id, customerId, undispatched);
+            }
+            return BatchUploadResponse.builder()
+                    .batchId(id)
+                    .accepted(accepted)
+                    .rejected(rejected.size())
+                    .items(items)
+                    .build();
+        }
+    }
+
+    private void releaseStoredFile(String fileId) {
+        try {
+            storageService.deleteFile(fileId);
+        } catch (Exception e) {
+            log.warn("Failed to release stored file after failed batch registration: {}", fileId, e);
+        }
+    }
+}
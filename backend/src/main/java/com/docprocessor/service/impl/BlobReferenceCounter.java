@@ -0,0 +1,74 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.FileBlob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Atomic reference counts for content-addressed files, kept in the {@code blobs} collection.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlobReferenceCounter {
+
+    /** Returned by {@link #release} for files stored before content addressing. */
+    public static final long UNTRACKED = -1;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Adds a reference, creating the record on first use.
+     *
+     * @return the reference count after the increment
+     */
+    public long acquire(String hash, long sizeBytes) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .inc("refCount", 1)
+                .set("lastReferencedAt", now)
+                .setOnInsert("sizeBytes", sizeBytes)
+                .setOnInsert("createdAt", now);
+
+        FileBlob blob = mongoTemplate.findAndModify(byHash(hash), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), FileBlob.class);
+        return blob != null ? blob.getRefCount() : 1;
+    }
+
+    /**
+     * Drops a reference. The count never goes below zero: releasing a file that has
+     * no references left, e.g. a repeated release, leaves the record as it is.
+     *
+     * @return the remaining reference count, or {@link #UNTRACKED} if there is no
+     *         record for the file
+     */
+    public long release(String hash) {
+        FileBlob blob = mongoTemplate.findAndModify(byHash(hash).addCriteria(Criteria.where("refCount").gt(0)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), FileBlob.class);
+        if (blob != null) {
+            return blob.getRefCount();
+        }
+        return mongoTemplate.exists(byHash(hash), FileBlob.class) ? 0 : UNTRACKED;
+    }
+
+    /**
+     * Deletes the record unless it has been referenced again in the meantime.
+     *
+     * @return whether the record was deleted
+     */
+    public boolean removeIfUnreferenced(String hash) {
+        Query query = byHash(hash).addCriteria(Criteria.where("refCount").lte(0));
+        return mongoTemplate.remove(query, FileBlob.class).getDeletedCount() > 0;
+    }
+
+    private static Query byHash(String hash) {
+        return Query.query(Criteria.where("_id").is(hash));
+    }
+}
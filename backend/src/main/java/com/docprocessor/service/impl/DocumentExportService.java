@@ -0,0 +1,254 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.dto.DocumentExportRow;
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ExportFormat;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams documents and their extracted metadata as NDJSON or CSV.
+ * <p>
+ * Documents are read from a Mongo cursor in batches and each one is written to the
+ * output as soon as it arrives, so memory use does not depend on the number of
+ * documents exported. OCR output is not exported. Documents are ordered like the
+ * keyset listing, newest first, and filtered the same way.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentExportService {
+
+    private static final String[] FIELDS = {
+            "filename", "status", "contentType", "fileSizeBytes", "uploadedAt", "processedAt", "metadata", "errors"};
+
+    static final String CSV_HEADER = "id,filename,status,uploadedAt,processedAt,invoiceNumber,vendorName,customerName,"
+            + "invoiceDate,totalAmount,itemCount,contentType,fileSizeBytes,errors";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Writes the matching documents to {@code out}, optionally gzip-compressed.
+     * {@code out} is flushed but left open.
+     *
+     * @return the number of documents written
+     */
+    public long export(ExportFormat format, ProcessingStatus status, LocalDateTime uploadedFrom,
+                       LocalDateTime uploadedTo, boolean gzip, OutputStream out) throws IOException {
+        Query query = exportQuery(status, uploadedFrom, uploadedTo);
+        long started = System.currentTimeMillis();
+        long count;
+
+        OutputStream target = leaveOpen(out);
+        if (gzip) {
+            target = new GZIPOutputStream(target, BUFFER_SIZE);
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+             Stream<ProcessingDocument> documents = mongoTemplate.stream(query, ProcessingDocument.class)) {
+            count = format == ExportFormat.CSV
+                    ? writeCsv(documents.iterator(), writer)
+                    : writeNdjson(documents.iterator(), writer);
+        }
+        out.flush();
+
+        log.info("Exported {} documents as {} in {} ms", count, format, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    /**
+     * Checks the filters up front, so that invalid ones fail the request before the
+     * response is committed.
+     */
+    public void validateFilters(LocalDateTime uploadedFrom, LocalDateTime uploadedTo) {
+        if (uploadedFrom != null && uploadedTo != null && uploadedFrom.isAfter(uploadedTo)) {
+            throw new ValidationException("Upload date range start cannot be after its end");
+        }
+    }
+
+    private Query exportQuery(ProcessingStatus status, LocalDateTime uploadedFrom, LocalDateTime uploadedTo) {
+        Criteria filter = status != null ? Criteria.where("status").is(status) : new Criteria();
+        if (uploadedFrom != null || uploadedTo != null) {
+            Criteria uploadedAt = filter.and("uploadedAt");
+            if (uploadedFrom != null) {
+                uploadedAt.gte(uploadedFrom);
+            }
+            if (uploadedTo != null) {
+                uploadedAt.lte(uploadedTo);
+            }
+        }
+
+        Query query = Query.query(filter)
+                .with(Sort.by(Sort.Direction.DESC, "uploadedAt", "_id"))
+                .cursorBatchSize(batchSize);
+        query.fields().include(FIELDS);
+        return query;
+    }
+
+    private long writeNdjson(Iterator<ProcessingDocument> documents, Writer writer) throws IOException {
+        // One generator for the whole export; flushing after each row would defeat the buffer
+        ObjectWriter rowWriter = objectMapper.writerFor(DocumentExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = 0;
+        try (JsonGenerator generator = rowWriter.createGenerator(writer)) {
+            generator.setRootValueSeparator(null);
+            while (documents.hasNext()) {
+                rowWriter.writeValue(generator, toRow(documents.next()));
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<ProcessingDocument> documents, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        while (documents.hasNext()) {
+            writeCsvRow(documents.next(), writer);
+            count++;
+        }
+        return count;
+    }
+
+    static void writeCsvRow(ProcessingDocument document, Writer writer) throws IOException {
+        DocumentMetadata metadata = document.getMetadata();
+        List<String> errors = document.getErrors();
+
+        writeCsvText(writer, document.getId());
+        writer.write(',');
+        writeCsvText(writer, document.getFilename());
+        writer.write(',');
+        writeCsvValue(writer, document.getStatus());
+        writer.write(',');
+        writeCsvValue(writer, document.getUploadedAt());
+        writer.write(',');
+        writeCsvValue(writer, document.getProcessedAt());
+        writer.write(',');
+        writeCsvText(writer, metadata != null ? metadata.getInvoiceNumber() : null);
+        writer.write(',');
+        writeCsvText(writer, metadata != null ? metadata.getVendorName() : null);
+        writer.write(',');
+        writeCsvText(writer, metadata != null ? metadata.getCustomerName() : null);
+        writer.write(',');
+        writeCsvValue(writer, metadata != null ? metadata.getInvoiceDate() : null);
+        writer.write(',');
+        writeCsvValue(writer, metadata != null && metadata.getTotalAmount() != null
+                ? metadata.getTotalAmount().toPlainString() : null);
+        writer.write(',');
+        writeCsvValue(writer, metadata != null ? metadata.getItemCount() : null);
+        writer.write(',');
+        writeCsvText(writer, document.getContentType());
+        writer.write(',');
+        writeCsvValue(writer, document.getFileSizeBytes());
+        writer.write(',');
+        writeCsvText(writer, errors != null && !errors.isEmpty() ? String.join("; ", errors) : null);
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * Quotes text per RFC 4180 when needed. Text that a spreadsheet would evaluate
+     * as a formula gets a leading apostrophe, since filenames and OCR output are
+     * user-controlled.
+     */
+    static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Closing the writer finishes the gzip stream, but the response stream is the
+     * container's to close.
+     */
+    private static OutputStream leaveOpen(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private static DocumentExportRow toRow(ProcessingDocument document) {
+        return DocumentExportRow.builder()
+                .id(document.getId())
+                .filename(document.getFilename())
+                .status(document.getStatus())
+                .contentType(document.getContentType())
+                .fileSizeBytes(document.getFileSizeBytes())
+                .uploadedAt(document.getUploadedAt())
+                .processedAt(document.getProcessedAt())
+                .metadata(document.getMetadata())
+                .errors(document.getErrors())
+                .build();
+    }
+}
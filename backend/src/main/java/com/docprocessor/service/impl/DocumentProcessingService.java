@@ -0,0 +1,334 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.config.ProcessingExecutorConfig;
+import com.docprocessor.domain.entities.OCRResult;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.exception.DocumentProcessingException;
+import com.docprocessor.exception.ErrorCode;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs the OCR -> metadata -> validation pipeline for uploaded documents
+ * on the dedicated processing worker pool.
+ * <p>
+ * Status transitions are targeted {@code $set} updates rather than full document
+ * saves, and final results are coalesced into bulk writes by {@link ProcessingResultWriter}.
+ * <p>
+ * Workers on any number of replicas claim documents with a conditional
+ * {@code findAndModify} that takes a time-limited lease, so each document is
+ * processed by one worker at a time without locks.
+ */
+@Slf4j
+@Service
+public class DocumentProcessingService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProcessingResultWriter resultWriter;
+    private final StorageServiceImpl storageService;
+    private final OCRService ocrService;
+    private final ValidationServiceImpl validationService;
+    private final OcrResultCache ocrResultCache;
+    private final AsyncTaskExecutor ocrExecutor;
+    private final DocumentStatusPublisher statusPublisher;
+    private final DocumentStatisticsService statistics;
+
+    @Value("${app.processing.node-id:#{T(java.lang.management.ManagementFactory).getRuntimeMXBean().getName()}}")
+    private String nodeId;
+
+    @Value("${app.processing.lease-duration:PT5M}")
+    private Duration leaseDuration;
+
+    public DocumentProcessingService(MongoTemplate mongoTemplate, ProcessingResultWriter resultWriter,
+                                     StorageServiceImpl storageService, OCRService ocrService,
+                                     ValidationServiceImpl validationService, OcrResultCache ocrResultCache,
+                                     @Qualifier(ProcessingExecutorConfig.OCR_EXECUTOR) AsyncTaskExecutor ocrExecutor,
+                                     DocumentStatusPublisher statusPublisher, DocumentStatisticsService statistics) {
+        this.mongoTemplate = mongoTemplate;
+        this.resultWriter = resultWriter;
+        this.storageService = storageService;
+        this.ocrService = ocrService;
+        this.validationService = validationService;
+        this.ocrResultCache = ocrResultCache;
+        this.ocrExecutor = ocrExecutor;
+        this.statusPublisher = statusPublisher;
+        this.statistics = statistics;
+    }
+
+    @Async(ProcessingExecutorConfig.PROCESSING_EXECUTOR)
+    public CompletableFuture<Void> processDocumentAsync(String documentId) {
+        try {
+            processDocument(documentId);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            log.error("Document processing failed: {}", documentId, e);
+            markAsFailed(documentId, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs the pipeline on the calling thread. Infrastructure failures are
+     * propagated so that callers with their own retry policy (the message
+     * listener) can decide when to give up and mark the document failed.
+     * <p>
+     * The document is claimed first; if another worker holds it, or it has already
+     * been processed, this returns without doing anything.
+     */
+    public void processDocument(String documentId) throws IOException {
+        log.info("Starting processing for document: {}", documentId);
+
+        Optional<ProcessingDocument> claimed = claim(documentId);
+        if (claimed.isEmpty()) {
+            if (!mongoTemplate.exists(byId(documentId), ProcessingDocument.class)) {
+                throw new DocumentProcessingException(ErrorCode.DOCUMENT_NOT_FOUND, documentId);
+            }
+            log.info("Document {} is not claimable (already claimed or processed), skipping", documentId);
+            return;
+        }
+
+        ProcessingDocument document = claimed.get();
+        statusPublisher.publish(documentId, ProcessingStatus.PROCESSING);
+        try {
+            runPipeline(document);
+        } catch (IOException | RuntimeException e) {
+            releaseClaim(document);
+            throw e;
+        }
+    }
+
+    private void runPipeline(ProcessingDocument document) throws IOException {
+        var ocrResult = getOrPerformOCR(document);
+        document.setOcrResult(ocrResult);
+
+        Update result = new Update()
+                .set("ocrResult", ocrResult)
+                .set("updatedAt", LocalDateTime.now())
+                .unset("processingOwner")
+                .unset("leaseExpiresAt")
+                .inc("version", 1);
+
+        String failure = null;
+        if (ocrResult != null && StringUtils.hasText(ocrResult.getText())) {
+            var metadata = ocrResult.getExtractedMetadata();
+            document.setMetadata(metadata);
+            result.set("metadata", metadata);
+
+            var validationResult = validationService.validateDocument(document);
+
+            if (validationResult.isValid()) {
+                document.markAsValidated();
+            } else {
+                failure = String.join(", ", validationResult.getErrors());
+            }
+        } else {
+            failure = "OCR failed to extract text";
+        }
+        if (failure != null) {
+            document.markAsFailed(failure);
+            result.push("errors", failure);
+        }
+
+        result.set("status", document.getStatus()).set("processedAt", document.getProcessedAt());
+        // Dropped if the lease was taken over meanwhile; the new holder writes its own result.
+        // A takeover also moves the version on, but leaves the new holder as owner.
+        long written = writeResult(document.getId(),
+                Query.query(Criteria.where("_id").is(document.getId()).and("version").is(document.getVersion())),
+                result,
+                Query.query(Criteria.where("_id").is(document.getId()).and("version").is(document.getVersion() + 1)
+                        .and("processingOwner").exists(false)));
+        if (written == 0) {
+            log.info("Result of document {} superseded, its lease was taken over by another worker", document.getId());
+            return;
+        }
+        statistics.recordTransition(ProcessingStatus.PROCESSING, document.getStatus());
+        statistics.recordCompletion(document.getStatus(), document.getProcessingStartedAt(), document.getProcessedAt(),
+                failure);
+        statusPublisher.publish(document.getId(), document.getStatus(), failure);
+
+        log.info("Document processing completed: id={}, status={}",
+                document.getId(), document.getStatus());
+    }
+
+    /**
+     * Atomically moves an UPLOADED document, or a PROCESSING one whose lease has
+     * expired, to PROCESSING under a lease held by this node. Loads the fields the
+     * pipeline needs in the same round trip; results of an earlier run are not
+     * loaded since they are about to be replaced.
+     * <p>
+     * The document is returned as it was before the claim, so that statistics see
+     * which status it left, and the claim is then applied to it locally.
+     */
+    private Optional<ProcessingDocument> claim(String documentId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(documentId),
+                new Criteria().orOperator(
+                        Criteria.where("status").is(ProcessingStatus.UPLOADED),
+                        Criteria.where("status").is(ProcessingStatus.PROCESSING).and("leaseExpiresAt").lt(now))));
+        query.fields().exclude("ocrResult", "metadata");
+
+        ProcessingDocument document = mongoTemplate.findAndModify(query,
+                new Update()
+                        .set("status", ProcessingStatus.PROCESSING)
+                        .set("processingOwner", nodeId)
+                        .set("processingStartedAt", now)
+                        .set("leaseExpiresAt", now.plus(leaseDuration))
+                        .set("updatedAt", now)
+                        .unset("nextAttemptAt")
+                        .inc("processingAttempts", 1)
+                        .inc("version", 1),
+                FindAndModifyOptions.options().returnNew(false),
+                ProcessingDocument.class);
+        if (document == null) {
+            return Optional.empty();
+        }
+
+        statistics.recordTransition(document.getStatus(), ProcessingStatus.PROCESSING);
+        document.setStatus(ProcessingStatus.PROCESSING);
+        document.setProcessingOwner(nodeId);
+        document.setProcessingStartedAt(now);
+        document.setLeaseExpiresAt(now.plus(leaseDuration));
+        document.setUpdatedAt(now);
+        document.setNextAttemptAt(null);
+        document.setProcessingAttempts(increment(document.getProcessingAttempts()));
+        document.setVersion(document.getVersion() != null ? document.getVersion() + 1 : 1L);
+        return Optional.of(document);
+    }
+
+    private static int increment(Integer value) {
+        return value != null ? value + 1 : 1;
+    }
+
+    /**
+     * Hands a claimed document back after a failed attempt so that a retry can
+     * claim it again right away instead of waiting for the lease to expire.
+     */
+    private void releaseClaim(ProcessingDocument document) {
+        try {
+            var released = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(document.getId()).and("version").is(document.getVersion())),
+                    new Update()
+                            .set("status", ProcessingStatus.UPLOADED)
+                            .set("updatedAt", LocalDateTime.now())
+                            .set("nextAttemptAt", LocalDateTime.now().plus(leaseDuration))
+                            .unset("processingOwner")
+                            .unset("leaseExpiresAt")
+                            .inc("version", 1),
+                    ProcessingDocument.class);
+            if (released.getModifiedCount() > 0) {
+                statistics.recordTransition(ProcessingStatus.PROCESSING, ProcessingStatus.UPLOADED);
+                statusPublisher.publish(document.getId(), ProcessingStatus.UPLOADED);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to release claim on document {}, it is recovered once the lease expires: {}",
+                    document.getId(), e.getMessage());
+        }
+    }
+
+    private long writeResult(String documentId, Query filter, Update result, Query applied) {
+        try {
+            return resultWriter.submit(filter, result, applied).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DocumentProcessingException("Failed to save processing result: " + documentId, e.getCause());
+        }
+    }
+
+    /**
+     * Identical content yields the same OCR output, so results are cached by content
+     * hash and engine version. Re-uploads and reprocessing skip both the storage
+     * read and the OCR stage on a hit; extraction still runs, with the current rules.
+     */
+    private OCRResult getOrPerformOCR(ProcessingDocument document) throws IOException {
+        String contentHash = document.getContentHash();
+        if (contentHash != null) {
+            Optional<OCRResult> cached = ocrResultCache.get(contentHash, OCRService.ENGINE_VERSION);
+            if (cached.isPresent()) {
+                log.info("Using cached OCR result for document {} (content {})", document.getId(), contentHash);
+                return ocrService.extract(cached.get());
+            }
+        }
+
+        OCRResult ocrResult;
+        try (StorageServiceImpl.MappedContent content = storageService.openMappedContent(document.getFileId())) {
+            ocrResult = performOCR(content.getContent(), document.getFilename());
+        }
+
+        if (contentHash != null && ocrResult != null && StringUtils.hasText(ocrResult.getText())) {
+            ocrResultCache.put(contentHash, OCRService.ENGINE_VERSION, ocrResult);
+        }
+        return ocrResult;
+    }
+
+    /**
+     * Runs the OCR stage on its own executor so that its concurrency is limited
+     * independently of the number of documents in flight. The content is mapped
+     * rather than read onto the heap, so large files do not inflate worker memory.
+     */
+    private OCRResult performOCR(ByteBuffer content, String filename) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> ocrService.performOCR(content, filename), ocrExecutor)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DocumentProcessingException("OCR stage failed", e.getCause());
+        }
+    }
+
+    /**
+     * Moves a document that has not completed to FAILED, e.g. once retries are exhausted.
+     */
+    public void markAsFailed(String documentId, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", ProcessingStatus.FAILED)
+                .set("processedAt", now)
+                .set("updatedAt", now)
+                .unset("processingOwner")
+                .unset("leaseExpiresAt")
+                .inc("version", 1);
+        if (reason != null) {
+            update.push("errors", reason);
+        }
+        Query query = byId(documentId)
+                .addCriteria(Criteria.where("status").in(ProcessingStatus.sourcesOf(ProcessingStatus.FAILED)));
+        query.fields().include("status", "processingStartedAt");
+
+        ProcessingDocument previous = mongoTemplate.findAndModify(query, update, ProcessingDocument.class);
+        if (previous != null) {
+            statistics.recordTransition(previous.getStatus(), ProcessingStatus.FAILED);
+            statistics.recordCompletion(ProcessingStatus.FAILED, previous.getProcessingStartedAt(), now, reason);
+            statusPublisher.publish(documentId, ProcessingStatus.FAILED, reason);
+        }
+    }
+
+    private static Query byId(String documentId) {
+        return Query.query(Criteria.where("_id").is(documentId));
+    }
+}
@@ -1,32 +1,53 @@
 package com.docprocessor.service.impl;
 
+import com.docprocessor.domain.dto.CursorPage;
+import com.docprocessor.domain.dto.DocumentCursor;
 import com.docprocessor.domain.dto.DocumentDTO;
+import com.docprocessor.domain.dto.DocumentSummaryDTO;
+import com.docprocessor.domain.dto.FacetSearchResultDTO;
 import com.docprocessor.domain.dto.UploadResponse;
 import com.docprocessor.domain.entities.ProcessingDocument;
 import com.docprocessor.domain.enums.ProcessingStatus;
 import com.docprocessor.exception.*;
+import com.docprocessor.index.DocumentFacetIndex;
+import com.docprocessor.index.FacetQuery;
+import com.docprocessor.messaging.DocumentStatusPublisher;
 import com.docprocessor.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of DocumentService with enterprise features.
@@ -36,11 +57,17 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class DocumentServiceImpl {
     
+    private static final Document TEXT_SCORE = new Document("$meta", "textScore");
+    private static final Pattern INVOICE_PREFIX = Pattern.compile("^[A-Za-z0-9\\-_]+$");
+    private static final Pattern CUSTOMER_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    
     private final DocumentRepository repository;
     private final StorageServiceImpl storageService;
-    private final OCRService ocrService;
-    private final ValidationServiceImpl validationService;
+    private final ProcessingDispatcher processingDispatcher;
     private final MongoTemplate mongoTemplate;
+    private final DocumentStatusPublisher statusPublisher;
+    private final DocumentStatisticsService statistics;
+    private final DocumentFacetIndex facetIndex;
     
     @Value("${app.document.max-file-size:52428800}")
     private long maxFileSize;
@@ -48,9 +75,12 @@ public class DocumentServiceImpl {
     @Value("${app.document.allowed-types:application/pdf,image/jpeg,image/png}")
     private String[] allowedTypes;
     
+    @Value("${app.processing.lease-duration:PT5M}")
+    private Duration dispatchTimeout;
+    
     
-    @Transactional
-    public UploadResponse uploadDocument(MultipartFile file) {
+    public UploadResponse uploadDocument(MultipartFile file, String customerId) {
+        String customer = normalizeCustomerId(customerId);
         try {
             log.info("Starting document upload: filename={}, size={}", 
                     file.getOriginalFilename(), file.getSize());
@@ -62,28 +92,10 @@ public class DocumentServiceImpl {
                 throw new ValidationException(ErrorCode.FILE_TOO_LARGE, maxFileSize / (1024 * 1024));
             }
             
-            String fileId = storageService.storeFile(file);
-            
-            ProcessingDocument document = ProcessingDocument.builder()
-                    .filename(sanitizeFilename(file.getOriginalFilename()))
-                    .fileId(fileId)
-                    .status(ProcessingStatus.UPLOADED)
-                    .build();
-            
-            document = repository.save(document);
-            
-            processDocumentAsync(document.getId());
+            StorageServiceImpl.StoredFile storedFile = storageService.storeFile(file);
             
-            log.info("Document uploaded successfully: id={}", document.getId());
+            return registerStoredFile(file.getOriginalFilename(), customer, storedFile);
             
-            return UploadResponse.builder()
-                    .documentId(document.getId())
-                    .filename(document.getFilename())
-                    .status(document.getStatus())
-                    .uploadedAt(LocalDateTime.now())
-                    .message("Document uploaded successfully and queued for processing")
-                    .build();
-                    
         } catch (ValidationException e) {
             throw e;
         } catch (IOException e) {
@@ -94,7 +106,80 @@ public class DocumentServiceImpl {
         }
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Ingests a raw request body (no multipart encoding), streaming it straight
+     * into storage. {@code contentLength} is checked up front when the client sent
+     * one; the size limit is enforced while streaming either way.
+     */
+    public UploadResponse ingestDocument(InputStream content, String originalFilename,
+                                         String contentType, long contentLength, String customerId) {
+        log.info("Starting document ingest: filename={}, size={}", originalFilename, contentLength);
+        
+        String customer = normalizeCustomerId(customerId);
+        if (!StringUtils.hasText(originalFilename)) {
+            throw new ValidationException("Filename is required");
+        }
+        if (contentLength == 0) {
+            throw new ValidationException(ErrorCode.FILE_EMPTY);
+        }
+        if (contentLength > maxFileSize) {
+            throw new ValidationException(ErrorCode.FILE_TOO_LARGE, maxFileSize / (1024 * 1024));
+        }
+        
+        StorageServiceImpl.StoredFile storedFile =
+                storageService.storeStream(content, originalFilename, contentType, maxFileSize);
+        
+        return registerStoredFile(originalFilename, customer, storedFile);
+    }
+    
+    private UploadResponse registerStoredFile(String originalFilename, String customerId,
+                                              StorageServiceImpl.StoredFile storedFile) {
+        ProcessingDocument document = ProcessingDocument.builder()
+                .filename(sanitizeFilename(originalFilename))
+                .customerId(customerId)
+                .fileId(storedFile.getFileId())
+                .fileSizeBytes(storedFile.getSizeBytes())
+                .contentType(storedFile.getContentType())
+                .contentHash(storedFile.getContentHash())
+                .status(ProcessingStatus.UPLOADED)
+                .nextAttemptAt(LocalDateTime.now().plus(dispatchTimeout))
+                .build();
+        
+        try {
+            document = repository.save(document);
+        } catch (RuntimeException e) {
+            releaseStoredFile(storedFile.getFileId());
+            throw e;
+        }
+        
+        statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+        statusPublisher.publish(document.getId(), ProcessingStatus.UPLOADED);
+        if (!processingDispatcher.dispatch(document)) {
+            log.warn("Document {} could not be dispatched yet, the recovery job dispatches it later", document.getId());
+        }
+        
+        log.info("Document uploaded successfully: id={}", document.getId());
+        
+        return UploadResponse.builder()
+                .documentId(document.getId())
+                .filename(document.getFilename())
+                .status(document.getStatus())
+                .uploadedAt(LocalDateTime.now())
+                .message("Document uploaded successfully and queued for processing")
+                .downloadUrl(downloadUrl(document.getId()))
+                .fileSizeBytes(document.getFileSizeBytes())
+                .contentType(document.getContentType())
+                .build();
+    }
+    
+    private void releaseStoredFile(String fileId) {
+        try {
+            storageService.deleteFile(fileId);
+        } catch (Exception e) {
+            log.warn("Failed to release stored file after failed upload: {}", fileId, e);
+        }
+    }
+    
     public Optional<DocumentDTO> getDocumentById(String documentId) {
         try {
             DocumentDTO doc = getDocument(documentId);
@@ -104,7 +189,6 @@ public class DocumentServiceImpl {
         }
     }
     
-    @Transactional(readOnly = true)
     private DocumentDTO getDocument(String documentId) {
         log.debug("Retrieving document: {}", documentId);
         
@@ -128,54 +212,278 @@ public class DocumentServiceImpl {
         }
     }
     
-    @Transactional(readOnly = true)
-    public Page<DocumentDTO> getDocuments(ProcessingStatus status, Pageable pageable) {
-        log.debug("Getting documents: status={}", status);
+    /**
+     * Lists documents as summaries. Only the listed fields are projected out of
+     * Mongo, so OCR text and extracted data are never decoded for list views.
+     */
+    public Page<DocumentSummaryDTO> getDocumentSummaries(ProcessingStatus status, Pageable pageable) {
+        log.debug("Getting document summaries: status={}", status);
         
-        Query query = buildQuery(status, null);
+        Criteria filter = buildListCriteria(status);
         
-        long total = mongoTemplate.count(query, ProcessingDocument.class);
+        long total = mongoTemplate.count(Query.query(filter), ProcessingDocument.class);
         
-        query.with(pageable);
-        List<ProcessingDocument> documents = mongoTemplate.find(query, ProcessingDocument.class);
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(filter));
+        if (pageable.getSort().isSorted()) {
+            operations.add(Aggregation.sort(pageable.getSort()));
+        }
+        operations.add(Aggregation.skip(pageable.getOffset()));
+        operations.add(Aggregation.limit(pageable.getPageSize()));
+        operations.add(summaryProjection());
         
-        List<DocumentDTO> dtos = documents.stream()
-                .map(this::convertToDTO)
-                .toList();
+        List<DocumentSummaryDTO> summaries = mongoTemplate.aggregate(
+                Aggregation.newAggregation(ProcessingDocument.class, operations),
+                DocumentSummaryDTO.class).getMappedResults();
                 
-        return new org.springframework.data.domain.PageImpl<>(dtos, pageable, total);
+        return new org.springframework.data.domain.PageImpl<>(summaries, pageable, total);
     }
     
-    @Transactional
+    /**
+     * Keyset pagination over {@code (uploadedAt desc, _id desc)}, served by the
+     * {@code status_uploadedAt_id} / {@code uploadedAt_id} indexes. Unlike
+     * {@link #getDocumentSummaries} it never skips, and the total is only counted
+     * when asked for (estimated from collection metadata when unfiltered).
+     */
+    public CursorPage<DocumentSummaryDTO> getDocumentSummariesAfter(ProcessingStatus status, String cursor,
+                                                                    int size, boolean includeTotal) {
+        log.debug("Getting document summaries by cursor: status={}, size={}", status, size);
+        
+        Criteria filter = buildListCriteria(status);
+        if (StringUtils.hasText(cursor)) {
+            DocumentCursor position = DocumentCursor.decode(cursor);
+            if (!ObjectId.isValid(position.getId())) {
+                throw new ValidationException("Invalid pagination cursor");
+            }
+            filter = new Criteria().andOperator(filter, new Criteria().orOperator(
+                    Criteria.where("uploadedAt").lt(position.getUploadedAt()),
+                    new Criteria().andOperator(
+                            Criteria.where("uploadedAt").is(position.getUploadedAt()),
+                            Criteria.where("_id").lt(new ObjectId(position.getId())))));
+        }
+        
+        List<DocumentSummaryDTO> summaries = new ArrayList<>(mongoTemplate.aggregate(
+                Aggregation.newAggregation(ProcessingDocument.class,
+                        Aggregation.match(filter),
+                        Aggregation.sort(Sort.by(Sort.Direction.DESC, "uploadedAt", "_id")),
+                        Aggregation.limit(size + 1L),
+                        summaryProjection()),
+                DocumentSummaryDTO.class).getMappedResults());
+        
+        boolean hasMore = summaries.size() > size;
+        if (hasMore) {
+            summaries.remove(size);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            DocumentSummaryDTO last = summaries.get(summaries.size() - 1);
+            nextCursor = new DocumentCursor(last.getUploadedAt(), last.getId()).encode();
+        }
+        
+        Long total = null;
+        if (includeTotal) {
+            total = status == null
+                    ? mongoTemplate.estimatedCount(ProcessingDocument.class)
+                    : mongoTemplate.count(Query.query(buildListCriteria(status)), ProcessingDocument.class);
+        }
+        
+        return CursorPage.<DocumentSummaryDTO>builder()
+                .content(summaries)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(summaries.size())
+                .totalElements(total)
+                .build();
+    }
+    
+    /**
+     * Searches invoice number, filename and OCR text through the {@code document_text}
+     * index, most relevant first, optionally narrowed to invoice numbers starting with
+     * {@code invoicePrefix}. With only a prefix, results are ordered by invoice number
+     * and served by the invoice number index.
+     * <p>
+     * Matches are not counted; the next slice exists if one more result was found.
+     */
+    public Slice<DocumentSummaryDTO> searchDocuments(String text, String invoicePrefix, ProcessingStatus status,
+                                                     LocalDateTime uploadedFrom, LocalDateTime uploadedTo,
+                                                     Pageable pageable) {
+        log.debug("Searching documents: text={}, invoicePrefix={}, status={}", text, invoicePrefix, status);
+        
+        boolean fullText = StringUtils.hasText(text);
+        if (!fullText && !StringUtils.hasText(invoicePrefix)) {
+            throw new ValidationException("A search text or an invoice number prefix is required");
+        }
+        
+        Criteria filter = buildListCriteria(status);
+        if (StringUtils.hasText(invoicePrefix)) {
+            filter.and("metadata.invoiceNumber").in(invoicePrefixPatterns(invoicePrefix));
+        }
+        if (uploadedFrom != null || uploadedTo != null) {
+            Criteria uploadedAt = filter.and("uploadedAt");
+            if (uploadedFrom != null) {
+                uploadedAt.gte(uploadedFrom);
+            }
+            if (uploadedTo != null) {
+                uploadedAt.lte(uploadedTo);
+            }
+        }
+        
+        List<AggregationOperation> operations = new ArrayList<>();
+        ProjectionOperation projection = summaryProjection();
+        if (fullText) {
+            // $text has to be the first stage
+            operations.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(text)));
+            operations.add(Aggregation.match(filter));
+            operations.add(context -> new Document("$sort",
+                    new Document("score", TEXT_SCORE).append("_id", -1)));
+            projection = projection.and(context -> TEXT_SCORE).as("score");
+        } else {
+            operations.add(Aggregation.match(filter));
+            operations.add(Aggregation.sort(Sort.by(Sort.Direction.ASC, "metadata.invoiceNumber", "_id")));
+        }
+        operations.add(Aggregation.skip(pageable.getOffset()));
+        operations.add(Aggregation.limit(pageable.getPageSize() + 1L));
+        operations.add(projection);
+        
+        List<DocumentSummaryDTO> hits = new ArrayList<>(mongoTemplate.aggregate(
+                Aggregation.newAggregation(ProcessingDocument.class, operations),
+                DocumentSummaryDTO.class).getMappedResults());
+        
+        boolean hasNext = hits.size() > pageable.getPageSize();
+        if (hasNext) {
+            hits.remove(pageable.getPageSize());
+        }
+        return new SliceImpl<>(hits, pageable, hasNext);
+    }
+    
+    /**
+     * Faceted filtering by status, vendor, amount and invoice date. Matching and
+     * counting is done by the in-memory {@link DocumentFacetIndex}; only the page of
+     * summaries is read from Mongo. Empty while the index is still loading.
+     */
+    public Optional<FacetSearchResultDTO> facetSearch(FacetQuery query, int page, int size) {
+        log.debug("Faceted search: {}, page={}", query, page);
+        
+        if (query.minAmount() != null && query.maxAmount() != null
+                && query.minAmount().compareTo(query.maxAmount()) > 0) {
+            throw new ValidationException("Minimum amount cannot be greater than maximum amount");
+        }
+        if (query.invoiceDateFrom() != null && query.invoiceDateTo() != null
+                && query.invoiceDateFrom().isAfter(query.invoiceDateTo())) {
+            throw new ValidationException("Invoice date range start cannot be after its end");
+        }
+        
+        return facetIndex.query(query, (long) page * size, size).map(result -> FacetSearchResultDTO.builder()
+                .total(result.total())
+                .statusCounts(result.statusCounts())
+                .vendorCounts(result.vendorCounts())
+                .content(summariesInOrder(result.documentIds()))
+                .page(page)
+                .size(size)
+                .hasNext(result.hasNext())
+                .build());
+    }
+    
+    private List<DocumentSummaryDTO> summariesInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, DocumentSummaryDTO> summaries = mongoTemplate.aggregate(
+                Aggregation.newAggregation(ProcessingDocument.class,
+                        Aggregation.match(Criteria.where("_id").in(ids)),
+                        summaryProjection()),
+                DocumentSummaryDTO.class).getMappedResults().stream()
+                .collect(Collectors.toMap(DocumentSummaryDTO::getId, Function.identity()));
+        // Documents deleted since the index was last refreshed are left out
+        return ids.stream().map(summaries::get).filter(Objects::nonNull).toList();
+    }
+    
+    /**
+     * Anchored, case-sensitive regexes can be answered from the invoice number index
+     * as a range scan; the upper-case variant covers the usual invoice number style.
+     */
+    private List<Pattern> invoicePrefixPatterns(String prefix) {
+        if (!INVOICE_PREFIX.matcher(prefix).matches()) {
+            throw new ValidationException("Invoice number prefix can only contain letters, numbers, hyphens and underscores");
+        }
+        String upper = prefix.toUpperCase(Locale.ROOT);
+        return upper.equals(prefix)
+                ? List.of(Pattern.compile("^" + prefix))
+                : List.of(Pattern.compile("^" + prefix), Pattern.compile("^" + upper));
+    }
+    
+    /**
+     * Applies a manual status change. The transition is checked against the status
+     * read here and applied only if the document is still at that version, so a
+     * concurrent worker or API call cannot be silently overwritten.
+     *
+     * @throws DocumentProcessingException with {@link ErrorCode#DOCUMENT_CONCURRENT_MODIFICATION}
+     *         if the document changed in between
+     */
     public DocumentDTO updateDocumentStatus(String documentId, ProcessingStatus status) {
         log.info("Updating document status: id={}, status={}", documentId, status);
         
-        ProcessingDocument document = repository.findById(documentId)
-                .orElseThrow(() -> new DocumentProcessingException(ErrorCode.DOCUMENT_NOT_FOUND, documentId));
-                
+        Query current = Query.query(Criteria.where("_id").is(documentId));
+        current.fields().include("status", "version");
+        ProcessingDocument document = mongoTemplate.findOne(current, ProcessingDocument.class);
+        if (document == null) {
+            throw new DocumentProcessingException(ErrorCode.DOCUMENT_NOT_FOUND, documentId);
+        }
+        
         ProcessingStatus oldStatus = document.getStatus();
         
-        if (!isValidStatusTransition(oldStatus, status)) {
+        if (!oldStatus.canTransitionTo(status)) {
             throw new ValidationException(ErrorCode.DOCUMENT_INVALID_STATUS, oldStatus, status);
         }
         
-        document.setStatus(status);
-        document.setUpdatedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("updatedAt", now)
+                .unset("processingOwner")
+                .unset("leaseExpiresAt")
+                .inc("version", 1);
         
         if (status == ProcessingStatus.PROCESSING) {
-            document.markAsProcessing();
+            update.set("processingStartedAt", now);
         } else if (status == ProcessingStatus.VALIDATED) {
-            document.markAsValidated();
+            update.set("processedAt", now);
         } else if (status == ProcessingStatus.FAILED) {
-            document.markAsFailed("Manual status update");
+            update.set("processedAt", now).push("errors", "Manual status update");
+        } else if (status == ProcessingStatus.UPLOADED) {
+            // Reprocessing: start from a clean slate; OCR is served from the result cache
+            update.set("errors", new ArrayList<>())
+                    .set("processingAttempts", 0)
+                    .set("nextAttemptAt", now.plus(dispatchTimeout))
+                    .unset("processingStartedAt")
+                    .unset("processedAt");
+        }
+        
+        ProcessingDocument updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(documentId)
+                        .and("status").is(oldStatus)
+                        .and("version").is(document.getVersion())),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                ProcessingDocument.class);
+        if (updated == null) {
+            throw new DocumentProcessingException(ErrorCode.DOCUMENT_CONCURRENT_MODIFICATION, documentId);
         }
+        String reason = status == ProcessingStatus.FAILED ? "Manual status update" : null;
+        statistics.recordTransition(oldStatus, status);
+        if (status == ProcessingStatus.VALIDATED || status == ProcessingStatus.FAILED) {
+            statistics.recordCompletion(status, updated.getProcessingStartedAt(), updated.getProcessedAt(), reason);
+        }
+        statusPublisher.publish(documentId, status, reason);
         
-        document = repository.save(document);
+        if (status == ProcessingStatus.UPLOADED && !processingDispatcher.dispatch(updated)) {
+            log.warn("Document {} could not be dispatched yet, the recovery job dispatches it later", documentId);
+        }
         
-        return convertToDTO(document);
+        return convertToDTO(updated);
     }
     
-    @Transactional
     public void deleteDocument(String documentId) {
         log.info("Deleting document: {}", documentId);
         
@@ -186,69 +494,24 @@ public class DocumentServiceImpl {
             storageService.deleteFile(document.getFileId());
             
             repository.deleteById(documentId);
+            statistics.recordTransition(document.getStatus(), null);
+            statusPublisher.publish(documentId, null);
                     
             log.info("Document deleted successfully: {}", documentId);
             
         } catch (IOException e) {
             log.error("Failed to delete file from storage: {}", document.getFileId(), e);
             repository.deleteById(documentId);
+            statistics.recordTransition(document.getStatus(), null);
+            statusPublisher.publish(documentId, null);
         }
     }
     
-    public CompletableFuture<Void> processDocumentAsync(String documentId) {
-        log.info("Starting async processing for document: {}", documentId);
-        
-        try {
-            ProcessingDocument document = repository.findById(documentId)
-                    .orElseThrow(() -> new DocumentProcessingException(ErrorCode.DOCUMENT_NOT_FOUND, documentId));
-                    
-            document.markAsProcessing();
-            repository.save(document);
-            
-            byte[] fileContent = storageService.getFileContent(document.getFileId());
-            
-            var ocrResult = ocrService.performOCR(fileContent, document.getFilename());
-            document.setOcrResult(ocrResult);
-            
-            if (ocrResult != null && StringUtils.hasText(ocrResult.getText())) {
-                var metadata = ocrResult.getExtractedMetadata();
-                document.setMetadata(metadata);
-                
-                var validationResult = validationService.validateDocument(document);
-                
-                if (validationResult.isValid()) {
-                    document.markAsValidated();
-                } else {
-                    document.markAsFailed(String.join(", ", validationResult.getErrors()));
-                }
-            } else {
-                document.markAsFailed("OCR failed to extract text");
-            }
-            
-            document = repository.save(document);
-            
-            log.info("Document processing completed: id={}, status={}", 
-                    documentId, document.getStatus());
-                    
-            return CompletableFuture.completedFuture(null);
-            
-        } catch (Exception e) {
-            log.error("Document processing failed: {}", documentId, e);
-            
-            repository.findById(documentId).ifPresent(doc -> {
-                doc.markAsFailed(e.getMessage());
-                repository.save(doc);
-            });
-            
-            return CompletableFuture.failedFuture(e);
-        }
-    }
-    
-    
     private DocumentDTO convertToDTO(ProcessingDocument document) {
         return DocumentDTO.builder()
                 .id(document.getId())
                 .filename(document.getFilename())
+                .customerId(document.getCustomerId())
                 .uploadedAt(document.getUploadedAt())
                 .processedAt(document.getProcessedAt())
                 .status(document.getStatus())
@@ -257,57 +520,50 @@ public class DocumentServiceImpl {
                 .errors(document.getErrors())
                 .createdAt(document.getCreatedAt())
                 .updatedAt(document.getUpdatedAt())
-                .downloadUrl("/api/documents/" + document.getId() + "/download")
-                .fileSizeBytes(getFileSize(document.getFileId()))
+                .downloadUrl(downloadUrl(document.getId()))
+                .fileSizeBytes(document.getFileSizeBytes())
+                .contentType(document.getContentType())
                 .build();
     }
     
-    private Query buildQuery(ProcessingStatus status, String searchTerm) {
-        Query query = new Query();
-        List<Criteria> criteria = new ArrayList<>();
-        
-        if (status != null) {
-            criteria.add(Criteria.where("status").is(status));
-        }
-        
-        if (StringUtils.hasText(searchTerm)) {
-            criteria.add(new Criteria().orOperator(
-                    Criteria.where("filename").regex(searchTerm, "i"),
-                    Criteria.where("metadata.invoiceNumber").regex(searchTerm, "i")
-            ));
-        }
-        
-        if (!criteria.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
-        }
-        
-        return query;
+    private String downloadUrl(String documentId) {
+        return "/api/documents/" + documentId + "/download";
     }
     
-    private String sanitizeFilename(String filename) {
-        if (filename == null) return "unnamed";
-        return filename.replaceAll("[^a-zA-Z0-9._-]", "_")
-                      .replaceAll("\\.\\.", "");
+    private ProjectionOperation summaryProjection() {
+        return Aggregation.project("filename", "status", "uploadedAt", "processedAt", "fileSizeBytes", "contentType")
+                .and("metadata.invoiceNumber").as("invoiceNumber")
+                .and("metadata.vendorName").as("vendorName")
+                .and("metadata.totalAmount").as("totalAmount")
+                .and(ArrayOperators.Size.lengthOfArray(
+                        ConditionalOperators.ifNull("errors").then(Collections.emptyList()))).as("errorCount");
     }
     
-    private boolean isValidStatusTransition(ProcessingStatus from, ProcessingStatus to) {
-        return switch (from) {
-            case UPLOADED -> to == ProcessingStatus.PROCESSING || to == ProcessingStatus.FAILED;
-            case PROCESSING -> to == ProcessingStatus.VALIDATED || to == ProcessingStatus.FAILED;
-            case VALIDATED, FAILED -> to == ProcessingStatus.UPLOADED;
-        };
+    private Criteria buildListCriteria(ProcessingStatus status) {
+        return status != null ? Criteria.where("status").is(status) : new Criteria();
     }
     
-    private Long getFileSize(String fileId) {
-        try {
-            return storageService.getFileSize(fileId);
-        } catch (Exception e) {
-            log.warn("Failed to get file size for: {}", fileId);
+    /**
+     * Customer ids arrive in a request header; they key the scheduler's queues, so
+     * they are limited to a short, plain form. Blank means no customer.
+     */
+    static String normalizeCustomerId(String customerId) {
+        if (!StringUtils.hasText(customerId)) {
             return null;
         }
+        String trimmed = customerId.trim();
+        if (!CUSTOMER_ID.matcher(trimmed).matches()) {
+            throw new ValidationException("Invalid customer id: use up to 64 letters, digits, '.', '_' or '-'");
+        }
+        return trimmed;
+    }
+    
+    static String sanitizeFilename(String filename) {
+        if (filename == null) return "unnamed";
+        return filename.replaceAll("[^a-zA-Z0-9._-]", "_")
+                      .replaceAll("\\.\\.", "");
     }
     
-    @Transactional(readOnly = true)
     public Optional<ProcessingDocument> getDocumentEntityById(String documentId) {
         log.debug("Getting document entity: {}", documentId);
         return repository.findById(documentId);
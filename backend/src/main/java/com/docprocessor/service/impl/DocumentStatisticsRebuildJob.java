@@ -0,0 +1,143 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.entities.ProcessingStatsBucket;
+import com.docprocessor.domain.entities.StatusTotals;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.mongodb.client.MongoCollection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes the statistics rollups from the documents collection with aggregations,
+ * correcting any drift in the incrementally maintained counters. Runs shortly after
+ * startup and then periodically; this is the only place statistics scan the collection.
+ * <p>
+ * Increments flushed while a rebuild runs may be overwritten or counted twice; such
+ * small errors are corrected by the next run. Only complete minutes are rebuilt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stats.rebuild.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentStatisticsRebuildJob {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.stats.retention:P7D}")
+    private Duration retention;
+
+    @Scheduled(initialDelayString = "${app.stats.rebuild.initial-delay-ms:30000}",
+            fixedDelayString = "${app.stats.rebuild.interval-ms:21600000}")
+    public void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            rebuildTotals();
+            int buckets = rebuildBuckets();
+            log.info("Rebuilt processing statistics ({} minute buckets) in {} ms",
+                    buckets, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.warn("Processing statistics rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    void rebuildTotals() {
+        List<Document> groups = collection().aggregate(List.of(
+                new Document("$group", new Document("_id", "$status").append("count", new Document("$sum", 1)))))
+                .into(new ArrayList<>());
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : groups) {
+            if (group.getString("_id") != null) {
+                counts.put(group.getString("_id"), ((Number) group.get("count")).longValue());
+            }
+        }
+
+        mongoTemplate.save(StatusTotals.builder()
+                .id(StatusTotals.ID)
+                .counts(counts)
+                .rebuiltAt(LocalDateTime.now())
+                .build());
+    }
+
+    int rebuildBuckets() {
+        Instant until = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        Instant since = until.minus(retention);
+
+        Document isFailed = new Document("$eq", List.of("$status", ProcessingStatus.FAILED.name()));
+        List<Document> minutes = collection().aggregate(List.of(
+                new Document("$match", new Document("status", new Document("$in",
+                        List.of(ProcessingStatus.VALIDATED.name(), ProcessingStatus.FAILED.name())))
+                        .append("processedAt", new Document("$gte", Date.from(since)).append("$lt", Date.from(until)))),
+                new Document("$group", new Document("_id",
+                        new Document("$dateTrunc", new Document("date", "$processedAt").append("unit", "minute")))
+                        .append("completed", new Document("$sum", 1))
+                        .append("failed", new Document("$sum", new Document("$cond", List.of(isFailed, 1, 0))))
+                        .append("latencies", new Document("$push", new Document("$dateDiff",
+                                new Document("startDate", "$processingStartedAt")
+                                        .append("endDate", "$processedAt")
+                                        .append("unit", "millisecond"))))
+                        .append("errors", new Document("$push", new Document("$cond",
+                                List.of(isFailed, new Document("$last", "$errors"), "$$REMOVE")))))))
+                .allowDiskUse(true)
+                .into(new ArrayList<>());
+
+        List<Instant> rebuilt = new ArrayList<>(minutes.size());
+        for (Document group : minutes) {
+            Instant minute = group.getDate("_id").toInstant();
+            long completed = ((Number) group.get("completed")).longValue();
+            long failed = ((Number) group.get("failed")).longValue();
+
+            ProcessingStatsBucket bucket = ProcessingStatsBucket.builder()
+                    .minute(minute)
+                    .completed(completed)
+                    .validated(completed - failed)
+                    .failed(failed)
+                    .expireAt(minute.plus(retention))
+                    .build();
+            long latencySum = 0;
+            for (Object latency : group.getList("latencies", Object.class)) {
+                if (latency instanceof Number ms && ms.longValue() >= 0) {
+                    latencySum += ms.longValue();
+                    bucket.getLatencyHistogram().merge(DocumentStatisticsService.latencyBucket(ms.longValue()), 1L, Long::sum);
+                }
+            }
+            bucket.setLatencySumMs(latencySum);
+            for (Object error : group.getList("errors", Object.class)) {
+                for (String reason : DocumentStatisticsService.failureReasons(error instanceof String s ? s : null)) {
+                    bucket.getFailureReasons().merge(reason, 1L, Long::sum);
+                }
+            }
+
+            mongoTemplate.save(bucket);
+            rebuilt.add(minute);
+        }
+
+        // Minutes in which nothing completed according to the documents
+        mongoTemplate.remove(Query.query(Criteria.where("_id").gte(since).lt(until).nin(rebuilt)),
+                ProcessingStatsBucket.class);
+        return rebuilt.size();
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ProcessingDocument.class));
+    }
+}
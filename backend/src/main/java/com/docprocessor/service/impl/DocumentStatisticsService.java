@@ -0,0 +1,357 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.dto.ProcessingStatisticsDTO;
+import com.docprocessor.domain.entities.ProcessingStatsBucket;
+import com.docprocessor.domain.entities.StatusTotals;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Processing statistics kept as rollups, so that reading them never scans the
+ * documents collection: per-status totals in {@link StatusTotals} and per-minute
+ * completion buckets in {@link ProcessingStatsBucket}.
+ * <p>
+ * The pipeline reports each transition here. Changes are accumulated in memory and
+ * written as one {@code $inc} per rollup document every flush interval, which keeps
+ * the hot totals document from being updated once per transition. Anything lost
+ * (a crash before a flush, a result that was superseded) is corrected by
+ * {@link DocumentStatisticsRebuildJob}.
+ */
+@Slf4j
+@Service
+public class DocumentStatisticsService {
+
+    /** Upper bounds of the latency histogram in milliseconds; larger values go to the overflow bucket. */
+    static final long[] LATENCY_BOUNDS_MS = {
+            250, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000,
+            120_000, 300_000, 600_000, 1_800_000, 3_600_000};
+    static final String OVERFLOW_BUCKET = "+Inf";
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final int MAX_REASON_LENGTH = 120;
+
+    private final MongoTemplate mongoTemplate;
+    private final Object lock = new Object();
+    private PendingStats pending = new PendingStats();
+
+    @Value("${app.stats.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.stats.top-failure-reasons:10}")
+    private int topFailureReasons;
+
+    public DocumentStatisticsService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * A document moved from one status to another; {@code from} is null for a new
+     * document and {@code to} is null for a deleted one.
+     */
+    public void recordTransition(ProcessingStatus from, ProcessingStatus to) {
+        if (from == to) {
+            return;
+        }
+        synchronized (lock) {
+            if (from != null) {
+                pending.statusDeltas.merge(from, -1L, Long::sum);
+            }
+            if (to != null) {
+                pending.statusDeltas.merge(to, 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * A document reached VALIDATED or FAILED. Its latency runs from {@code processingStartedAt},
+     * which is null if it never started processing and then no latency is recorded.
+     * {@code failure} is the error that was recorded for it, if any; validation errors
+     * joined with ", " count separately.
+     */
+    public void recordCompletion(ProcessingStatus status, LocalDateTime processingStartedAt,
+                                 LocalDateTime processedAt, String failure) {
+        if (processedAt == null) {
+            return;
+        }
+        Instant minute = toInstant(processedAt).truncatedTo(ChronoUnit.MINUTES);
+        long latencyMs = processingStartedAt != null
+                ? Math.max(0, Duration.between(processingStartedAt, processedAt).toMillis())
+                : -1;
+
+        synchronized (lock) {
+            PendingBucket bucket = pending.buckets.computeIfAbsent(minute, m -> new PendingBucket());
+            bucket.completed++;
+            if (status == ProcessingStatus.VALIDATED) {
+                bucket.validated++;
+            } else if (status == ProcessingStatus.FAILED) {
+                bucket.failed++;
+                for (String reason : failureReasons(failure)) {
+                    bucket.reasons.merge(reason, 1L, Long::sum);
+                }
+            }
+            if (latencyMs >= 0) {
+                bucket.latencySumMs += latencyMs;
+                bucket.histogram.merge(latencyBucket(latencyMs), 1L, Long::sum);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:1000}")
+    public void flush() {
+        PendingStats batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new PendingStats();
+        }
+
+        PendingStats failed = new PendingStats();
+        try {
+            writeTotals(batch.statusDeltas);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update status totals, retrying with the next flush: {}", e.getMessage());
+            failed.statusDeltas.putAll(batch.statusDeltas);
+        }
+        batch.buckets.forEach((minute, bucket) -> {
+            try {
+                writeBucket(minute, bucket);
+            } catch (RuntimeException e) {
+                log.warn("Failed to update statistics of {}, retrying with the next flush: {}", minute, e.getMessage());
+                failed.buckets.put(minute, bucket);
+            }
+        });
+
+        if (!failed.isEmpty()) {
+            synchronized (lock) {
+                pending.addAll(failed);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush statistics on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the totals document and at most one bucket per minute of the window. The
+     * window is limited to the bucket retention.
+     */
+    public ProcessingStatisticsDTO getStatistics(Duration window) {
+        long windowMinutes = Math.max(1, Math.min(window.toMinutes(), retention.toMinutes()));
+        Instant from = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(windowMinutes - 1, ChronoUnit.MINUTES);
+
+        StatusTotals totals = mongoTemplate.findById(StatusTotals.ID, StatusTotals.class);
+        Map<String, Long> counts = totals != null && totals.getCounts() != null ? totals.getCounts() : Map.of();
+
+        List<ProcessingStatsBucket> buckets = mongoTemplate.find(
+                Query.query(Criteria.where("_id").gte(from)).with(Sort.by(Sort.Direction.ASC, "_id")),
+                ProcessingStatsBucket.class);
+
+        long completed = 0;
+        long latencySum = 0;
+        Map<String, Long> histogram = new HashMap<>();
+        Map<String, Long> reasons = new HashMap<>();
+        List<ProcessingStatisticsDTO.ThroughputPoint> throughput = new ArrayList<>(buckets.size());
+        for (ProcessingStatsBucket bucket : buckets) {
+            completed += bucket.getCompleted();
+            latencySum += bucket.getLatencySumMs();
+            if (bucket.getLatencyHistogram() != null) {
+                bucket.getLatencyHistogram().forEach((key, count) -> histogram.merge(key, count, Long::sum));
+            }
+            if (bucket.getFailureReasons() != null) {
+                bucket.getFailureReasons().forEach((key, count) -> reasons.merge(key, count, Long::sum));
+            }
+            throughput.add(new ProcessingStatisticsDTO.ThroughputPoint(
+                    bucket.getMinute(), bucket.getCompleted(), bucket.getFailed()));
+        }
+        long measured = histogram.values().stream().mapToLong(Long::longValue).sum();
+
+        long uploaded = count(counts, ProcessingStatus.UPLOADED);
+        long processing = count(counts, ProcessingStatus.PROCESSING);
+        long validated = count(counts, ProcessingStatus.VALIDATED);
+        long failed = count(counts, ProcessingStatus.FAILED);
+
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        if (measured > 0) {
+            percentiles.put("p50", percentile(histogram, 0.50));
+            percentiles.put("p90", percentile(histogram, 0.90));
+            percentiles.put("p95", percentile(histogram, 0.95));
+            percentiles.put("p99", percentile(histogram, 0.99));
+        }
+
+        Map<String, Long> topReasons = new LinkedHashMap<>();
+        reasons.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topFailureReasons)
+                .forEach(entry -> topReasons.put(entry.getKey(), entry.getValue()));
+
+        return ProcessingStatisticsDTO.builder()
+                .total(uploaded + processing + validated + failed)
+                .uploaded(uploaded)
+                .processing(processing)
+                .validated(validated)
+                .failed(failed)
+                .windowMinutes(windowMinutes)
+                .completedInWindow(completed)
+                .averageProcessingTime(measured > 0 ? (double) latencySum / measured : null)
+                .latencyPercentiles(percentiles)
+                .throughputPerMinute((double) completed / windowMinutes)
+                .throughput(throughput)
+                .failureReasons(topReasons)
+                .countsRebuiltAt(totals != null ? totals.getRebuiltAt() : null)
+                .build();
+    }
+
+    private void writeTotals(Map<ProcessingStatus, Long> deltas) {
+        Update update = new Update();
+        deltas.forEach((status, delta) -> {
+            if (delta != 0) {
+                update.inc("counts." + status.name(), delta);
+            }
+        });
+        if (!update.getUpdateObject().isEmpty()) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(StatusTotals.ID)), update, StatusTotals.class);
+        }
+    }
+
+    private void writeBucket(Instant minute, PendingBucket bucket) {
+        Update update = new Update()
+                .inc("completed", bucket.completed)
+                .inc("validated", bucket.validated)
+                .inc("failed", bucket.failed)
+                .inc("latencySumMs", bucket.latencySumMs)
+                .setOnInsert("expireAt", minute.plus(retention));
+        bucket.histogram.forEach((key, count) -> update.inc("latencyHistogram." + key, count));
+        bucket.reasons.forEach((reason, count) -> update.inc("failureReasons." + reason, count));
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(minute)), update, ProcessingStatsBucket.class);
+    }
+
+    private static long count(Map<String, Long> counts, ProcessingStatus status) {
+        Long count = counts.get(status.name());
+        // Counters drift below zero if a decrement is flushed before the matching increment was rebuilt
+        return count != null ? Math.max(0, count) : 0;
+    }
+
+    /** Histogram key of a latency: its upper bound in milliseconds, or the overflow bucket. */
+    static String latencyBucket(long latencyMs) {
+        for (long bound : LATENCY_BOUNDS_MS) {
+            if (latencyMs <= bound) {
+                return Long.toString(bound);
+            }
+        }
+        return OVERFLOW_BUCKET;
+    }
+
+    /**
+     * Estimates a percentile by interpolating within the histogram bucket it falls in.
+     * Values in the overflow bucket are reported as the largest bound.
+     */
+    static long percentile(Map<String, Long> histogram, double p) {
+        long total = histogram.values().stream().mapToLong(Long::longValue).sum();
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+
+        long seen = 0;
+        long lower = 0;
+        for (long bound : LATENCY_BOUNDS_MS) {
+            long count = histogram.getOrDefault(Long.toString(bound), 0L);
+            if (seen + count >= rank) {
+                return lower + (bound - lower) * (rank - seen) / count;
+            }
+            seen += count;
+            lower = bound;
+        }
+        return lower;
+    }
+
+    /**
+     * Failure reasons to count an error under. Joined validation errors are split, and
+     * details (text after a colon, numbers) are dropped so that equal causes group
+     * together; the result is safe to use as a field name.
+     */
+    static List<String> failureReasons(String error) {
+        if (error == null || error.isBlank()) {
+            return List.of("Unknown");
+        }
+        return Arrays.stream(error.split(", "))
+                .map(DocumentStatisticsService::reasonKey)
+                .filter(reason -> !reason.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static String reasonKey(String reason) {
+        int colon = reason.indexOf(':');
+        String key = colon > 0 ? reason.substring(0, colon) : reason;
+        key = DIGITS.matcher(key).replaceAll("#").replace('.', '_').replace('$', '_').trim();
+        return key.length() > MAX_REASON_LENGTH ? key.substring(0, MAX_REASON_LENGTH) : key;
+    }
+
+    static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static final class PendingStats {
+
+        final Map<ProcessingStatus, Long> statusDeltas = new EnumMap<>(ProcessingStatus.class);
+        final Map<Instant, PendingBucket> buckets = new HashMap<>();
+
+        boolean isEmpty() {
+            return statusDeltas.isEmpty() && buckets.isEmpty();
+        }
+
+        void addAll(PendingStats other) {
+            other.statusDeltas.forEach((status, delta) -> statusDeltas.merge(status, delta, Long::sum));
+            other.buckets.forEach((minute, bucket) ->
+                    buckets.computeIfAbsent(minute, m -> new PendingBucket()).addAll(bucket));
+        }
+    }
+
+    private static final class PendingBucket {
+
+        long completed;
+        long validated;
+        long failed;
+        long latencySumMs;
+        final Map<String, Long> histogram = new HashMap<>();
+        final Map<String, Long> reasons = new HashMap<>();
+
+        void addAll(PendingBucket other) {
+            completed += other.completed;
+            validated += other.validated;
+            failed += other.failed;
+            latencySumMs += other.latencySumMs;
+            other.histogram.forEach((key, count) -> histogram.merge(key, count, Long::sum));
+            other.reasons.forEach((key, count) -> reasons.merge(key, count, Long::sum));
+        }
+    }
+}
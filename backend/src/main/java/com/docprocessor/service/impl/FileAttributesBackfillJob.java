@@ -0,0 +1,86 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off backfill of file size, content type and content hash for documents
+ * uploaded before these attributes were recorded at upload time.
+ * Enabled with {@code app.storage.backfill.enabled=true}; walks the collection
+ * in {@code _id} order so missing files are skipped rather than retried.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backfill.enabled", havingValue = "true")
+public class FileAttributesBackfillJob implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final StorageServiceImpl storageService;
+
+    @Value("${app.storage.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Starting file attributes backfill");
+
+        String lastId = null;
+        int updated = 0;
+        int missing = 0;
+
+        while (true) {
+            Criteria criteria = Criteria.where("fileId").ne(null).and("fileSizeBytes").exists(false);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            query.fields().include("_id", "fileId", "filename");
+
+            List<ProcessingDocument> batch = mongoTemplate.find(query, ProcessingDocument.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ProcessingDocument document : batch) {
+                try {
+                    StorageServiceImpl.StoredFile file =
+                            storageService.describeFile(document.getFileId(), document.getFilename());
+
+                    mongoTemplate.updateFirst(
+                            Query.query(Criteria.where("_id").is(document.getId())),
+                            new Update()
+                                    .set("fileSizeBytes", file.getSizeBytes())
+                                    .set("contentType", file.getContentType())
+                                    .set("contentHash", file.getContentHash()),
+                            ProcessingDocument.class);
+                    updated++;
+                } catch (Exception e) {
+                    log.warn("Skipping backfill for document {}: {}", document.getId(), e.getMessage());
+                    missing++;
+                }
+            }
+
+            lastId = batch.get(batch.size() - 1).getId();
+            log.info("File attributes backfill progress: updated={}, skipped={}", updated, missing);
+        }
+
+        log.info("File attributes backfill completed: updated={}, skipped={}", updated, missing);
+    }
+}
@@ -0,0 +1,139 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.OCRResult;
+import com.docprocessor.domain.entities.OcrCacheEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of OCR results keyed by content hash and OCR engine version.
+ * <p>
+ * Only the recognition output is cached: text, confidence, language and engine.
+ * Extracted fields depend on the extraction rules, which can change at any time
+ * (see {@code ExtractionRuleRegistry}), so they are dropped on {@code put} and
+ * re-extracted by the caller on every hit. Every lookup returns a fresh copy, so
+ * documents never share a mutable result.
+ * <p>
+ * The first tier is an in-process Caffeine cache (W-TinyLFU eviction) bounded by
+ * the approximate size of the cached text; the second is the {@code ocr_cache}
+ * collection, shared by all instances and surviving restarts. Metrics are
+ * published as {@code cache.*{cache=ocrResults}} for the first tier and
+ * {@code ocr.cache.store.requests{result=hit|miss}} for the second.
+ * <p>
+ * The persistent tier is best effort: if Mongo fails, lookups miss and writes
+ * are dropped rather than failing the document.
+ */
+@Slf4j
+@Component
+public class OcrResultCache {
+
+    static final String CACHE_NAME = "ocrResults";
+
+    /** Rough per-entry overhead beyond the text: object headers, language, engine. */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, OCRResult> localCache;
+    private final Counter storeHits;
+    private final Counter storeMisses;
+
+    public OcrResultCache(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                          @Value("${app.ocr.cache.max-size-bytes:67108864}") long maxSizeBytes) {
+        this.mongoTemplate = mongoTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((String key, OCRResult result) -> weigh(result))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME);
+
+        this.storeHits = Counter.builder("ocr.cache.store.requests")
+                .description("Lookups in the persistent OCR result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.storeMisses = Counter.builder("ocr.cache.store.requests")
+                .description("Lookups in the persistent OCR result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Optional<OCRResult> get(String contentHash, String engine) {
+        String key = OcrCacheEntry.key(contentHash, engine);
+
+        OCRResult result = localCache.getIfPresent(key);
+        if (result != null) {
+            return Optional.of(recognitionOf(result));
+        }
+
+        OcrCacheEntry entry = findStored(key);
+        if (entry == null || entry.getResult() == null) {
+            storeMisses.increment();
+            return Optional.empty();
+        }
+
+        storeHits.increment();
+        // Entries written before extraction was left out still carry extracted fields
+        OCRResult recognition = recognitionOf(entry.getResult());
+        localCache.put(key, recognition);
+        return Optional.of(recognitionOf(recognition));
+    }
+
+    public void put(String contentHash, String engine, OCRResult result) {
+        String key = OcrCacheEntry.key(contentHash, engine);
+        OCRResult recognition = recognitionOf(result);
+        localCache.put(key, recognition);
+
+        try {
+            mongoTemplate.save(OcrCacheEntry.builder()
+                    .id(key)
+                    .contentHash(contentHash)
+                    .engine(engine)
+                    .result(recognition)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist OCR cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private OcrCacheEntry findStored(String key) {
+        try {
+            return mongoTemplate.findById(key, OcrCacheEntry.class);
+        } catch (DataAccessException e) {
+            log.warn("OCR cache lookup failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A copy of the recognition output, without extracted data or metadata.
+     */
+    static OCRResult recognitionOf(OCRResult result) {
+        return OCRResult.builder()
+                .text(result.getText())
+                .confidence(result.getConfidence())
+                .language(result.getLanguage())
+                .processedAt(result.getProcessedAt())
+                .processingEngine(result.getProcessingEngine())
+                .processingTimeMs(result.getProcessingTimeMs())
+                .extractedData(new HashMap<>())
+                .build();
+    }
+
+    private static int weigh(OCRResult result) {
+        String text = result.getText();
+        return ENTRY_OVERHEAD_BYTES + (text != null ? text.length() * 2 : 0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingLane;
+import com.docprocessor.messaging.DocumentProcessingPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands uploaded documents over to the processing pipeline.
+ * In {@code local} mode the document is queued with this node's {@link ProcessingScheduler};
+ * in {@code rabbitmq} mode a message is published so any replica can process it,
+ * with batch uploads on a queue of their own.
+ * A failed hand-off never fails the upload: the document simply stays UPLOADED.
+ * A refusal by a full customer queue is left to the caller to report, so that a
+ * large batch logs it once rather than for every document.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessingDispatcher {
+
+    private final ProcessingScheduler scheduler;
+    private final DocumentProcessingPublisher publisher;
+
+    @Value("${app.processing.dispatch-mode:local}")
+    private String dispatchMode;
+
+    /**
+     * Needs the document's {@code customerId} and {@code batchId}, which pick its
+     * customer queue and priority lane.
+     */
+    public boolean dispatch(ProcessingDocument document) {
+        ProcessingLane lane = ProcessingLane.forBatch(document.getBatchId());
+        if ("rabbitmq".equalsIgnoreCase(dispatchMode)) {
+            try {
+                publisher.publish(document.getId(), lane);
+                return true;
+            } catch (AmqpException e) {
+                log.warn("Failed to publish processing request, document {} stays UPLOADED: {}",
+                        document.getId(), e.getMessage());
+                return false;
+            }
+        }
+
+        if (!scheduler.submit(document.getId(), document.getCustomerId(), lane)) {
+            log.debug("Processing queue of customer {} is full, document {} stays UPLOADED until it is resubmitted",
+                    document.getCustomerId(), document.getId());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,255 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Recovers documents whose processing was abandoned, e.g. because the worker's JVM
+ * died or its queue message was lost. Runs on every replica; all changes are
+ * conditional on the document's version, so concurrent runs do not conflict.
+ * <ul>
+ *   <li>PROCESSING documents whose lease has expired go back to UPLOADED with an
+ *       exponential backoff on their attempt count, or to FAILED once
+ *       {@code max-attempts} claims have not completed.</li>
+ *   <li>UPLOADED documents whose {@code nextAttemptAt} has passed are dispatched
+ *       again, and their next attempt pushed back by the lease duration in case
+ *       this dispatch is lost as well. Once a customer's dispatch is refused, e.g.
+ *       because its processing queue is full, its other documents are left alone
+ *       until the next run.</li>
+ * </ul>
+ * Both scans are keyset-paginated over {@code _id} and project only the few
+ * fields needed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.processing.recovery.enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessingRecoveryJob {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProcessingDispatcher processingDispatcher;
+    private final DocumentStatusPublisher statusPublisher;
+    private final DocumentStatisticsService statistics;
+    private final Counter requeued;
+    private final Counter abandoned;
+    private final Counter redispatched;
+
+    @Value("${app.processing.lease-duration:PT5M}")
+    private Duration leaseDuration;
+
+    @Value("${app.processing.recovery.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.processing.recovery.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.processing.recovery.backoff-initial:PT30S}")
+    private Duration backoffInitial;
+
+    @Value("${app.processing.recovery.backoff-max:PT30M}")
+    private Duration backoffMax;
+
+    public ProcessingRecoveryJob(MongoTemplate mongoTemplate, ProcessingDispatcher processingDispatcher,
+                                 DocumentStatusPublisher statusPublisher, DocumentStatisticsService statistics,
+                                 MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.processingDispatcher = processingDispatcher;
+        this.statusPublisher = statusPublisher;
+        this.statistics = statistics;
+        this.requeued = recoveryCounter(meterRegistry, "requeued");
+        this.abandoned = recoveryCounter(meterRegistry, "failed");
+        this.redispatched = recoveryCounter(meterRegistry, "redispatched");
+    }
+
+    @Scheduled(initialDelayString = "${app.processing.recovery.interval-ms:60000}",
+            fixedDelayString = "${app.processing.recovery.interval-ms:60000}")
+    public void recover() {
+        try {
+            recoverExpiredLeases();
+            redispatchDueDocuments();
+        } catch (RuntimeException e) {
+            log.warn("Processing recovery run failed: {}", e.getMessage());
+        }
+    }
+
+    void recoverExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        // Documents claimed before leases were recorded have no leaseExpiresAt
+        Criteria expired = new Criteria().orOperator(
+                Criteria.where("leaseExpiresAt").lt(now),
+                new Criteria().andOperator(
+                        Criteria.where("leaseExpiresAt").exists(false),
+                        Criteria.where("updatedAt").lt(now.minus(leaseDuration))));
+
+        int recovered = scan(Criteria.where("status").is(ProcessingStatus.PROCESSING).andOperator(expired),
+                document -> {
+                    int attempts = document.getProcessingAttempts() != null ? document.getProcessingAttempts() : 1;
+                    if (attempts >= maxAttempts) {
+                        return abandon(document, attempts);
+                    }
+                    return requeue(document, attempts, now);
+                });
+
+        if (recovered > 0) {
+            log.info("Recovered {} document(s) with expired processing leases", recovered);
+        }
+    }
+
+    void redispatchDueDocuments() {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Documents uploaded before dispatch deadlines were recorded have no nextAttemptAt
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("nextAttemptAt").lte(now),
+                new Criteria().andOperator(
+                        Criteria.where("nextAttemptAt").exists(false),
+                        Criteria.where("updatedAt").lt(now.minus(leaseDuration))));
+
+        // Customers whose dispatch was refused this run, with the number of documents left waiting
+        Map<String, Integer> refused = new HashMap<>();
+        int dispatched = scan(Criteria.where("status").is(ProcessingStatus.UPLOADED).andOperator(due),
+                document -> {
+                    String customerId = document.getCustomerId();
+                    if (refused.containsKey(customerId)) {
+                        refused.merge(customerId, 1, Integer::sum);
+                        return false;
+                    }
+                    boolean postponed = updateIfUnchanged(document, new Update()
+                            .set("nextAttemptAt", now.plus(leaseDuration))
+                            .inc("version", 1));
+                    if (!postponed) {
+                        return false;
+                    }
+                    if (processingDispatcher.dispatch(document)) {
+                        redispatched.increment();
+                        return true;
+                    }
+                    refused.put(customerId, 1);
+                    return false;
+                });
+
+        if (dispatched > 0) {
+            log.info("Dispatched {} document(s) that were waiting for processing", dispatched);
+        }
+        refused.forEach((customerId, waiting) ->
+                log.warn("Dispatch refused for customer {}, {} due document(s) left waiting until the next run",
+                        customerId, waiting));
+    }
+
+    private boolean requeue(ProcessingDocument document, int attempts, LocalDateTime now) {
+        Duration backoff = backoff(attempts);
+        boolean updated = updateIfUnchanged(document, new Update()
+                .set("status", ProcessingStatus.UPLOADED)
+                .set("nextAttemptAt", now.plus(backoff))
+                .set("updatedAt", now)
+                .unset("processingOwner")
+                .unset("leaseExpiresAt")
+                .inc("version", 1));
+
+        if (updated) {
+            requeued.increment();
+            statistics.recordTransition(ProcessingStatus.PROCESSING, ProcessingStatus.UPLOADED);
+            statusPublisher.publish(document.getId(), ProcessingStatus.UPLOADED);
+            log.info("Processing lease of document {} expired after attempt {}, retrying in {}",
+                    document.getId(), attempts, backoff);
+        }
+        return updated;
+    }
+
+    private boolean abandon(ProcessingDocument document, int attempts) {
+        LocalDateTime now = LocalDateTime.now();
+        String reason = "Processing did not complete after " + attempts + " attempts";
+        boolean updated = updateIfUnchanged(document, new Update()
+                .set("status", ProcessingStatus.FAILED)
+                .set("processedAt", now)
+                .set("updatedAt", now)
+                .push("errors", reason)
+                .unset("processingOwner")
+                .unset("leaseExpiresAt")
+                .inc("version", 1));
+
+        if (updated) {
+            abandoned.increment();
+            statistics.recordTransition(ProcessingStatus.PROCESSING, ProcessingStatus.FAILED);
+            statistics.recordCompletion(ProcessingStatus.FAILED, document.getProcessingStartedAt(), now, reason);
+            statusPublisher.publish(document.getId(), ProcessingStatus.FAILED, reason);
+            log.warn("Giving up on document {} after {} processing attempts", document.getId(), attempts);
+        }
+        return updated;
+    }
+
+    /**
+     * Exponential in the number of attempts so far: initial, 2x initial, 4x initial, ...
+     * capped at {@code backoffMax}.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = backoffInitial.multipliedBy(1L << doublings);
+        return backoff.compareTo(backoffMax) > 0 ? backoffMax : backoff;
+    }
+
+    private boolean updateIfUnchanged(ProcessingDocument document, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(document.getId())
+                .and("status").is(document.getStatus())
+                .and("version").is(document.getVersion()));
+        return mongoTemplate.updateFirst(query, update, ProcessingDocument.class).getModifiedCount() > 0;
+    }
+
+    private int scan(Criteria filter, Predicate<ProcessingDocument> action) {
+        String lastId = null;
+        int handled = 0;
+
+        while (true) {
+            Query query = new Query(lastId != null
+                    ? new Criteria().andOperator(filter, Criteria.where("_id").gt(lastId))
+                    : filter)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            query.fields().include("_id", "status", "version", "processingAttempts", "uploadedAt",
+                    "processingStartedAt", "customerId", "batchId");
+
+            List<ProcessingDocument> batch = mongoTemplate.find(query, ProcessingDocument.class);
+            if (batch.isEmpty()) {
+                return handled;
+            }
+
+            for (ProcessingDocument document : batch) {
+                try {
+                    if (action.test(document)) {
+                        handled++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to recover document {}: {}", document.getId(), e.getMessage());
+                }
+            }
+
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private static Counter recoveryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("processing.recovery")
+                .description("Documents acted on by the processing recovery job")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
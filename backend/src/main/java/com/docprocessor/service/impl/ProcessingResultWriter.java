@@ -0,0 +1,203 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the final update of concurrently processed documents into unordered
+ * bulk writes, flushed once {@code max-size} updates are pending or the oldest
+ * has waited {@code max-delay}.
+ * <p>
+ * Callers get a future completed when their own update has been written, so a
+ * result is durable before processing is acknowledged (group commit). It carries
+ * the number of documents the update matched: 0 if its version guard was outdated.
+ * After shutdown, updates are written one by one on the caller's thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessingResultWriter {
+
+    private static final long IDLE_POLL_MILLIS = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.processing.result-batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${app.processing.result-batch.max-delay:PT0.02S}")
+    private Duration maxDelay;
+
+    private final BlockingQueue<PendingUpdate> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    private record PendingUpdate(Query filter, Update update, Query applied, CompletableFuture<Long> written) {
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("result-writer").daemon().start(this::flushLoop);
+        log.info("Processing result writer started: maxBatchSize={}, maxDelay={}", maxBatchSize, maxDelay);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues {@code update} for the first document matching {@code filter}. A filter
+     * that matches nothing, e.g. because its version guard is outdated, is not an error.
+     * <p>
+     * A bulk write only reports how many of its updates matched in total. When some
+     * but not all of them did, {@code applied} is looked up for each update to tell
+     * which: it must match the document once this update, and no later one, is applied.
+     *
+     * @return completed with the matched count (0 or 1) once the update is written;
+     *         completed exceptionally if the write failed
+     */
+    public CompletableFuture<Long> submit(Query filter, Update update, Query applied) {
+        PendingUpdate pending = new PendingUpdate(filter, update, applied, new CompletableFuture<>());
+        if (!running) {
+            writeSingly(List.of(pending));
+            return pending.written();
+        }
+
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            // Stopped after the check above and the flusher may already be gone
+            writeSingly(List.of(pending));
+        }
+        return pending.written();
+    }
+
+    private void flushLoop() {
+        List<PendingUpdate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                queue.drainTo(batch);
+                writeSingly(batch);
+                return;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first update, then for more until the batch is full or the first
+     * update has waited {@code maxDelay}.
+     */
+    private void collectBatch(List<PendingUpdate> batch) throws InterruptedException {
+        PendingUpdate first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+
+            PendingUpdate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingUpdate> batch) {
+        BulkWriteResult result;
+        try {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProcessingDocument.class);
+            for (PendingUpdate pending : batch) {
+                operations.updateOne(pending.filter(), pending.update());
+            }
+            result = operations.execute();
+        } catch (RuntimeException e) {
+            log.warn("Bulk write of {} processing result(s) failed, retrying individually: {}",
+                    batch.size(), e.getMessage());
+            writeSingly(batch);
+            return;
+        }
+
+        if (!result.wasAcknowledged() || result.getMatchedCount() == batch.size()) {
+            batch.forEach(pending -> pending.written().complete(1L));
+            log.debug("Flushed {} processing result(s)", batch.size());
+            return;
+        }
+
+        log.info("Flushed {} processing result(s), {} superseded", batch.size(),
+                batch.size() - result.getMatchedCount());
+        if (result.getMatchedCount() == 0) {
+            batch.forEach(pending -> pending.written().complete(0L));
+            return;
+        }
+        for (PendingUpdate pending : batch) {
+            pending.written().complete(wasApplied(pending) ? 1L : 0L);
+        }
+    }
+
+    private boolean wasApplied(PendingUpdate pending) {
+        try {
+            return mongoTemplate.exists(pending.applied(), ProcessingDocument.class);
+        } catch (RuntimeException e) {
+            log.warn("Failed to check whether a processing result was superseded, assuming it was written: {}",
+                    e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Writes updates one at a time, e.g. after a failed bulk write. That bulk write may
+     * have applied some of them already, so an update that no longer matches is
+     * checked against {@code applied} before it is reported as superseded.
+     */
+    private void writeSingly(List<PendingUpdate> updates) {
+        for (PendingUpdate pending : updates) {
+            try {
+                UpdateResult result = mongoTemplate.updateFirst(pending.filter(), pending.update(), ProcessingDocument.class);
+                boolean written = !result.wasAcknowledged() || result.getMatchedCount() > 0 || wasApplied(pending);
+                pending.written().complete(written ? 1L : 0L);
+            } catch (RuntimeException e) {
+                pending.written().completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.enums.ProcessingLane;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which uploaded document the processing workers take on next, in
+ * {@code local} dispatch mode.
+ * <ul>
+ *   <li>Interactive documents go ahead of batch uploads, and batch uploads never
+ *       occupy the last {@code reserved-interactive-slots} workers, so a single
+ *       upload starts right away even while a large batch is being worked off.</li>
+ *   <li>Within a lane, customers share the workers by weighted fair queuing
+ *       (start-time fair queuing, one unit of cost per document): a customer with
+ *       weight 2 gets twice the throughput of one with weight 1 while both have
+ *       documents waiting, however many each has queued.</li>
+ *   <li>No customer runs more than {@code max-concurrency-per-customer} documents at
+ *       once, and at most {@code max-queued-per-customer} of its documents wait here.
+ *       Documents beyond that are refused and stay UPLOADED until the recovery job
+ *       dispatches them again.</li>
+ * </ul>
+ * The queue is in memory only; documents queued when the node stops are recovered
+ * the same way.
+ */
+@Slf4j
+@Component
+public class ProcessingScheduler {
+
+    private static final String NO_CUSTOMER = "";
+
+    private final DocumentProcessingService processingService;
+
+    @Value("${app.processing.scheduler.concurrency:${app.processing.workers.core-size:4}}")
+    private int concurrency;
+
+    @Value("${app.processing.scheduler.reserved-interactive-slots:1}")
+    private int reservedInteractiveSlots;
+
+    @Value("${app.processing.scheduler.max-concurrency-per-customer:3}")
+    private int maxConcurrencyPerCustomer;
+
+    @Value("${app.processing.scheduler.max-queued-per-customer:1000}")
+    private int maxQueuedPerCustomer;
+
+    /** Entries of the form {@code customerId:weight}; other customers have weight 1. */
+    @Value("${app.processing.scheduler.customer-weights:}")
+    private String[] customerWeights;
+
+    private final Map<String, Double> weights = new HashMap<>();
+    private final Map<ProcessingLane, Lane> lanes = new EnumMap<>(ProcessingLane.class);
+    private final Map<String, Customer> customers = new HashMap<>();
+    private final Set<String> queued = new HashSet<>();
+    private int running;
+    private long sequence;
+
+    public ProcessingScheduler(DocumentProcessingService processingService, MeterRegistry meterRegistry) {
+        this.processingService = processingService;
+        for (ProcessingLane lane : ProcessingLane.values()) {
+            lanes.put(lane, new Lane());
+        }
+        Gauge.builder("processing.scheduler.queued", this, ProcessingScheduler::queuedCount)
+                .description("Documents waiting for a processing worker")
+                .register(meterRegistry);
+        Gauge.builder("processing.scheduler.running", this, ProcessingScheduler::runningCount)
+                .description("Documents being processed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String entry : customerWeights) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(':');
+            double weight = separator > 0 ? Double.parseDouble(entry.substring(separator + 1).trim()) : 0;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Invalid customer weight, expected customerId:weight: " + entry);
+            }
+            weights.put(entry.substring(0, separator).trim(), weight);
+        }
+        reservedInteractiveSlots = Math.max(0, Math.min(reservedInteractiveSlots, concurrency - 1));
+        log.info("Processing scheduler initialized: concurrency={}, reservedInteractive={}, perCustomer={}, weights={}",
+                concurrency, reservedInteractiveSlots, maxConcurrencyPerCustomer, weights);
+    }
+
+    /**
+     * Queues a document for processing.
+     *
+     * @return false if the customer already has {@code max-queued-per-customer}
+     *         documents waiting
+     */
+    public boolean submit(String documentId, String customerId, ProcessingLane lane) {
+        List<Task> ready;
+        synchronized (this) {
+            if (queued.contains(documentId)) {
+                return true;
+            }
+            String key = customerId != null ? customerId : NO_CUSTOMER;
+            Customer customer = customers.computeIfAbsent(key, k -> new Customer());
+            if (customer.queued >= maxQueuedPerCustomer) {
+                return false;
+            }
+
+            Lane queue = lanes.get(lane);
+            Flow flow = queue.flows.computeIfAbsent(key, k -> new Flow());
+            double start = Math.max(queue.virtualTime, flow.lastFinish);
+            flow.lastFinish = start + 1.0 / weights.getOrDefault(key, 1.0);
+            flow.pending.add(new Task(documentId, key, start, flow.lastFinish, sequence++));
+            customer.queued++;
+            queued.add(documentId);
+
+            ready = takeRunnable();
+        }
+        start(ready);
+        return true;
+    }
+
+    synchronized int queuedCount() {
+        return queued.size();
+    }
+
+    synchronized int runningCount() {
+        return running;
+    }
+
+    private void start(List<Task> ready) {
+        Deque<Task> toStart = new ArrayDeque<>(ready);
+        while (!toStart.isEmpty()) {
+            Task task = toStart.poll();
+            try {
+                processingService.processDocumentAsync(task.documentId())
+                        .whenComplete((result, error) -> start(release(task)));
+            } catch (TaskRejectedException e) {
+                log.warn("Processing pool rejected document {}, it stays UPLOADED until it is resubmitted",
+                        task.documentId());
+                toStart.addAll(release(task));
+            }
+        }
+    }
+
+    private synchronized List<Task> release(Task task) {
+        running--;
+        Customer customer = customers.get(task.customer());
+        customer.running--;
+        if (customer.running == 0 && customer.queued == 0) {
+            customers.remove(task.customer());
+        }
+        return takeRunnable();
+    }
+
+    /**
+     * Takes as many tasks as there are free workers. Must hold the monitor.
+     */
+    private List<Task> takeRunnable() {
+        List<Task> ready = new ArrayList<>();
+        Task task;
+        while (running < concurrency && (task = next()) != null) {
+            Customer customer = customers.get(task.customer());
+            customer.queued--;
+            customer.running++;
+            queued.remove(task.documentId());
+            running++;
+            ready.add(task);
+        }
+        return ready;
+    }
+
+    private Task next() {
+        Task task = lanes.get(ProcessingLane.INTERACTIVE).poll();
+        if (task == null && running < concurrency - reservedInteractiveSlots) {
+            task = lanes.get(ProcessingLane.BULK).poll();
+        }
+        return task;
+    }
+
+    private record Task(String documentId, String customer, double start, double finish, long sequence) {
+
+        boolean isBefore(Task other) {
+            return finish < other.finish || (finish == other.finish && sequence < other.sequence);
+        }
+    }
+
+    /**
+     * The documents of one customer waiting in one lane. Kept after it empties
+     * until virtual time passes its last finish tag, so that a customer cannot
+     * reset its share by submitting one document at a time.
+     */
+    private static final class Flow {
+        private final Deque<Task> pending = new ArrayDeque<>();
+        private double lastFinish;
+    }
+
+    private static final class Customer {
+        private int queued;
+        private int running;
+    }
+
+    private final class Lane {
+        private final Map<String, Flow> flows = new HashMap<>();
+        private double virtualTime;
+
+        /**
+         * Removes the waiting task with the earliest finish tag among customers
+         * below their concurrency cap, the earliest submitted on a tie, and advances
+         * virtual time to its start tag.
+         */
+        Task poll() {
+            Flow earliest = null;
+            Iterator<Map.Entry<String, Flow>> iterator = flows.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Flow> entry = iterator.next();
+                Flow flow = entry.getValue();
+                if (flow.pending.isEmpty()) {
+                    if (flow.lastFinish <= virtualTime) {
+                        iterator.remove();
+                    }
+                    continue;
+                }
+                if (customers.get(entry.getKey()).running >= maxConcurrencyPerCustomer) {
+                    continue;
+                }
+                if (earliest == null || flow.pending.peek().isBefore(earliest.pending.peek())) {
+                    earliest = flow;
+                }
+            }
+            if (earliest == null) {
+                return null;
+            }
+
+            Task task = earliest.pending.poll();
+            virtualTime = Math.max(virtualTime, task.start());
+            return task;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ensures the {@code document_text} index behind document search exists, in the
+ * background so that startup does not wait for Mongo (or for the first build of the
+ * index on a large collection).
+ * <p>
+ * Invoice numbers weigh most, then filenames, then OCR text. Invoices mix Portuguese
+ * and English, so no language-specific stemming or stop words are applied, and the
+ * language override points at a field that is never set: otherwise the OCR result's
+ * {@code language} (e.g. {@code en-US}) would be read as the index language and
+ * rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.create-index", havingValue = "true", matchIfMissing = true)
+public class SearchIndexInitializer implements ApplicationRunner {
+
+    public static final String TEXT_INDEX = "document_text";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("search-index").start(this::ensureIndex);
+    }
+
+    void ensureIndex() {
+        try {
+            mongoTemplate.indexOps(ProcessingDocument.class).createIndex(textIndex());
+            log.info("Search index {} is in place", TEXT_INDEX);
+        } catch (RuntimeException e) {
+            log.warn("Failed to create search index {}, text search is unavailable until it exists: {}",
+                    TEXT_INDEX, e.getMessage());
+        }
+    }
+
+    static TextIndexDefinition textIndex() {
+        return TextIndexDefinition.builder()
+                .named(TEXT_INDEX)
+                .onField("metadata.invoiceNumber", 10F)
+                .onField("filename", 5F)
+                .onField("ocrResult.text", 1F)
+                .withDefaultLanguage("none")
+                .withLanguageOverride("searchLanguage")
+                .build();
+    }
+}
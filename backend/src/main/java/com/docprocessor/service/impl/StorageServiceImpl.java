@@ -2,119 +2,331 @@ package com.docprocessor.service.impl;
 
 import com.docprocessor.exception.ErrorCode;
 import com.docprocessor.exception.DocumentProcessingException;
+import com.docprocessor.exception.ValidationException;
+import com.docprocessor.storage.StorageBackend;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.annotation.PostConstruct;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Implementation of StorageService using local file system.
+ * Implementation of StorageService on top of the configured {@link StorageBackend}.
+ * <p>
+ * Files are content addressed: the storage id is the hex SHA-256 of the bytes,
+ * so identical uploads share one file, reference counted in {@link BlobReferenceCounter}.
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class StorageServiceImpl {
     
-    @Value("${app.storage.upload-dir:uploads}")
-    private String uploadDir;
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
     
-    @Value("${app.storage.create-dirs:true}")
-    private boolean createDirs;
+    private static final String PART_SUFFIX = ".part";
     
-    @PostConstruct
-    public void init() {
-        if (createDirs) {
-            try {
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                    log.info("Created upload directory: {}", uploadPath.toAbsolutePath());
-                }
-            } catch (IOException e) {
-                log.error("Failed to create upload directory", e);
-                throw new DocumentProcessingException("Failed to initialize storage", e);
+    private static final String TRASH_SUFFIX = ".trash";
+    
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    @Data
+    @Builder
+    public static class StoredFile {
+        
+        private final String fileId;
+        
+        private final long sizeBytes;
+        
+        private final String contentType;
+        
+        /** Hex-encoded SHA-256 of the stored bytes. */
+        private final String contentHash;
+    }
+    
+    /**
+     * Read-only view of a stored file's bytes, memory-mapped so that they are paged in
+     * by the OS on access instead of being copied onto the heap.
+     * Close it once done to release a locally staged copy of a remote file.
+     */
+    public static final class MappedContent implements Closeable {
+        
+        private final ByteBuffer content;
+        
+        private final Path stagedCopy;
+        
+        private MappedContent(ByteBuffer content, Path stagedCopy) {
+            this.content = content;
+            this.stagedCopy = stagedCopy;
+        }
+        
+        /**
+         * A new read-only buffer positioned at the start of the content on every call,
+         * so consumers cannot disturb each other's position.
+         */
+        public ByteBuffer getContent() {
+            return content.duplicate();
+        }
+        
+        public long getSize() {
+            return content.capacity();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (stagedCopy != null) {
+                // The mapping stays valid after the file is unlinked
+                Files.deleteIfExists(stagedCopy);
             }
         }
     }
     
-    public String storeFile(MultipartFile file) throws IOException {
+    private final StorageBackend backend;
+    
+    private final BlobReferenceCounter blobReferences;
+    
+    public StoredFile storeFile(MultipartFile file) throws IOException {
         try {
             if (file.isEmpty()) {
                 throw new DocumentProcessingException(ErrorCode.FILE_EMPTY);
             }
             
-            String filename = sanitizeFilename(file.getOriginalFilename());
-            String extension = getFileExtension(filename);
-            String uniqueFilename = generateUniqueFilename(extension);
-            
-            Path uploadPath = Paths.get(uploadDir);
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            
-            Files.createDirectories(uploadPath);
-            
-            Path tempFile = Files.createTempFile(uploadPath, "upload_", extension);
             try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
-                Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
-            } catch (IOException e) {
-                Files.deleteIfExists(tempFile);
-                throw e;
+                return writeToStorage(inputStream, file.getOriginalFilename(), file.getContentType(), Long.MAX_VALUE);
             }
             
-            log.info("File stored successfully: {} -> {}", filename, uniqueFilename);
-            return uniqueFilename;
-            
         } catch (IOException e) {
             log.error("Failed to store file: {}", file.getOriginalFilename(), e);
             throw new DocumentProcessingException("Failed to store file", e);
         }
     }
     
-    public byte[] getFileContent(String fileId) throws IOException {
+    /**
+     * Streams {@code content} straight into storage without buffering it in memory.
+     * Heap use is one fixed-size buffer regardless of the content size.
+     *
+     * @throws ValidationException if the content is empty or longer than {@code maxSizeBytes}
+     */
+    public StoredFile storeStream(InputStream content, String originalFilename,
+                                  String declaredContentType, long maxSizeBytes) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileId);
+            return writeToStorage(content, originalFilename, declaredContentType, maxSizeBytes);
+        } catch (IOException e) {
+            log.error("Failed to store stream: {}", originalFilename, e);
+            throw new DocumentProcessingException("Failed to store file", e);
+        }
+    }
+    
+    /**
+     * Writes to a {@code .part} file in the backend's staging directory through a
+     * {@link FileChannel}, hashing on the fly, then stores it under its content hash.
+     * A stored file is never seen half-written.
+     * <p>
+     * Identical content maps to the same file: the reference is counted before the
+     * file is stored, which simply replaces an existing copy with the same bytes.
+     */
+    private StoredFile writeToStorage(InputStream content, String originalFilename,
+                                      String declaredContentType, long maxSizeBytes) throws IOException {
+        String filename = sanitizeFilename(originalFilename);
+        
+        Path partFile = backend.getStagingDirectory().resolve("upload_" + UUID.randomUUID() + PART_SUFFIX);
+        
+        MessageDigest digest = newContentDigest();
+        byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        long size = 0;
+        
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSizeBytes) {
+                    throw new ValidationException(ErrorCode.FILE_TOO_LARGE, maxSizeBytes / (1024 * 1024));
+                }
+                
+                digest.update(buffer, 0, read);
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+            }
             
-            if (!Files.exists(filePath)) {
-                throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
+            if (size == 0) {
+                throw new ValidationException(ErrorCode.FILE_EMPTY);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        long references;
+        try {
+            references = blobReferences.acquire(contentHash, size);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        
+        try {
+            backend.store(contentHash, partFile);
+        } catch (IOException e) {
+            Files.deleteIfExists(partFile);
+            blobReferences.release(contentHash);
+            throw e;
+        }
+        
+        if (references > 1) {
+            log.info("File deduplicated: {} -> {} ({} references)", filename, contentHash, references);
+        } else {
+            log.info("File stored successfully: {} -> {} ({} bytes)", filename, contentHash, size);
+        }
+        return StoredFile.builder()
+                .fileId(contentHash)
+                .sizeBytes(size)
+                .contentType(resolveContentType(declaredContentType, filename))
+                .contentHash(contentHash)
+                .build();
+    }
+    
+    /**
+     * Computes size, content type and hash of an already stored file.
+     * Only meant for backfilling records created before these attributes were persisted.
+     */
+    public StoredFile describeFile(String fileId, String originalFilename) throws IOException {
+        MessageDigest digest = newContentDigest();
+        long size;
+        try (InputStream inputStream = new DigestInputStream(backend.openStream(fileId), digest)) {
+            size = inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (NoSuchFileException e) {
+            throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
+        }
+        
+        return StoredFile.builder()
+                .fileId(fileId)
+                .sizeBytes(size)
+                .contentType(resolveContentType(null, originalFilename != null ? originalFilename : fileId))
+                .contentHash(HexFormat.of().formatHex(digest.digest()))
+                .build();
+    }
+    
+    /**
+     * Maps a stored file into memory for reading. Files in local storage are mapped
+     * in place; others are first streamed to the staging directory in fixed-size chunks.
+     * Either way the heap cost is independent of the file size.
+     */
+    public MappedContent openMappedContent(String fileId) {
+        Path stagedCopy = null;
+        try {
+            Optional<Path> localPath = backend.getLocalPath(fileId);
+            Path file;
+            if (localPath.isPresent()) {
+                file = localPath.get();
+            } else {
+                stagedCopy = backend.getStagingDirectory().resolve("read_" + UUID.randomUUID() + PART_SUFFIX);
+                try (InputStream inputStream = backend.openStream(fileId)) {
+                    Files.copy(inputStream, stagedCopy);
+                }
+                file = stagedCopy;
             }
             
-            return Files.readAllBytes(filePath);
+            return new MappedContent(map(file, fileId), stagedCopy);
             
+        } catch (NoSuchFileException e) {
+            deleteQuietly(stagedCopy);
+            throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
         } catch (IOException e) {
-            log.error("Failed to read file: {}", fileId, e);
+            deleteQuietly(stagedCopy);
+            log.error("Failed to map file: {}", fileId, e);
             throw new DocumentProcessingException("Failed to read file", e);
         }
     }
     
+    private static ByteBuffer map(Path file, String fileId) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + fileId + " (" + size + " bytes)");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return mapped.asReadOnlyBuffer();
+        }
+    }
+    
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged copy {}: {}", file, e.getMessage());
+        }
+    }
+    
     public InputStream getFileStream(String fileId) throws IOException {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileId);
-            
-            if (!Files.exists(filePath)) {
-                throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
-            }
-            
-            return new BufferedInputStream(Files.newInputStream(filePath));
+            return new BufferedInputStream(backend.openStream(fileId));
             
+        } catch (NoSuchFileException e) {
+            throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
         } catch (IOException e) {
             log.error("Failed to open file stream: {}", fileId, e);
             throw new DocumentProcessingException("Failed to open file stream", e);
         }
     }
     
+    /**
+     * A stored file as a resource, for callers that serve it directly. Files in local
+     * storage resolve to a file system resource, which allows zero-copy downloads.
+     */
+    public Resource getFileResource(String fileId) {
+        try {
+            return backend.getResource(fileId);
+            
+        } catch (NoSuchFileException e) {
+            throw new DocumentProcessingException(ErrorCode.STORAGE_NOT_FOUND, fileId);
+        } catch (IOException e) {
+            log.error("Failed to open file: {}", fileId, e);
+            throw new DocumentProcessingException("Failed to open file", e);
+        }
+    }
+    
+    /**
+     * Drops one reference to the file and deletes it once nothing references it.
+     * Files stored before content addressing are not reference counted and are
+     * deleted right away.
+     */
     public void deleteFile(String fileId) throws IOException {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileId);
-            boolean deleted = Files.deleteIfExists(filePath);
+            long remaining = blobReferences.release(fileId);
+            
+            if (remaining > 0) {
+                log.info("File still referenced by {} document(s), keeping: {}", remaining, fileId);
+                return;
+            }
+            
+            boolean deleted = remaining == BlobReferenceCounter.UNTRACKED
+                    ? backend.delete(fileId)
+                    : deleteUnreferencedBlob(fileId);
             
             if (deleted) {
                 log.info("File deleted: {}", fileId);
@@ -128,16 +340,35 @@ public class StorageServiceImpl {
         }
     }
     
+    /**
+     * Moves the file aside before dropping its record, and puts it back if an
+     * upload of the same content took a new reference in the meantime. An upload
+     * always renames its own copy into place after taking its reference, so the
+     * file survives either ordering.
+     */
+    private boolean deleteUnreferencedBlob(String fileId) throws IOException {
+        String trashId = fileId + "." + UUID.randomUUID() + TRASH_SUFFIX;
+        if (!backend.move(fileId, trashId)) {
+            blobReferences.removeIfUnreferenced(fileId);
+            return false;
+        }
+        
+        if (blobReferences.removeIfUnreferenced(fileId)) {
+            backend.delete(trashId);
+            return true;
+        }
+        
+        backend.move(trashId, fileId);
+        log.info("File referenced again during deletion, kept: {}", fileId);
+        return false;
+    }
+    
     public long getFileSize(String fileId) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileId);
-            
-            if (!Files.exists(filePath)) {
-                return 0;
-            }
-            
-            return Files.size(filePath);
+            return backend.size(fileId);
             
+        } catch (NoSuchFileException e) {
+            return 0;
         } catch (IOException e) {
             log.error("Failed to get file size: {}", fileId, e);
             return 0;
@@ -145,23 +376,25 @@ public class StorageServiceImpl {
     }
     
     public boolean fileExists(String fileId) {
-        Path filePath = Paths.get(uploadDir).resolve(fileId);
-        return Files.exists(filePath);
+        return backend.exists(fileId);
     }
     
-    private String generateUniqueFilename(String extension) {
-        String timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String uuid = UUID.randomUUID().toString().substring(0, 8);
-        return String.format("%s_%s%s", timestamp, uuid, extension);
+    private MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " is not available", e);
+        }
     }
     
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.isEmpty()) {
-            return "";
+    private String resolveContentType(String declaredType, String filename) {
+        if (declaredType != null && !declaredType.isBlank()
+                && !MediaType.APPLICATION_OCTET_STREAM_VALUE.equals(declaredType)) {
+            return declaredType;
         }
-        int lastDotIndex = filename.lastIndexOf('.');
-        return lastDotIndex > 0 ? filename.substring(lastDotIndex) : "";
+        return MediaTypeFactory.getMediaType(filename)
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
     }
     
     private String sanitizeFilename(String filename) {
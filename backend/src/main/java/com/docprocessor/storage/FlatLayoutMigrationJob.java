@@ -0,0 +1,87 @@
+package com.docprocessor.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * One-off move of files from the flat upload directory into the sharded layout of
+ * {@link LocalStorageBackend}. Enabled with {@code app.storage.migration.enabled=true}.
+ * <p>
+ * Runs in the background while the application serves requests: the backend finds
+ * files in either layout, and each file is moved with a single atomic rename. Once it
+ * has completed, {@code app.storage.local.flat-fallback} can be turned off.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.migration.enabled", havingValue = "true")
+public class FlatLayoutMigrationJob implements ApplicationRunner {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final StorageBackend backend;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(backend instanceof LocalStorageBackend localBackend)) {
+            log.warn("Flat layout migration skipped: storage backend is not local");
+            return;
+        }
+
+        Thread.ofVirtual().name("storage-migration").start(() -> migrate(localBackend));
+    }
+
+    void migrate(LocalStorageBackend localBackend) {
+        log.info("Starting flat layout migration in {}", localBackend.getRoot());
+
+        int moved = 0;
+        int failed = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(localBackend.getRoot(), this::isFlatFile)) {
+            for (Path file : files) {
+                String fileId = file.getFileName().toString();
+                try {
+                    Path target = localBackend.shardedPath(fileId);
+                    Files.createDirectories(target.getParent());
+                    // A content-addressed file uploaded again since the switch to the sharded
+                    // layout is already there, with the same bytes; replacing it is harmless
+                    Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    moved++;
+                } catch (NoSuchFileException e) {
+                    // Deleted or moved concurrently
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Skipping migration of {}: {}", fileId, e.getMessage());
+                    failed++;
+                }
+
+                if (moved > 0 && moved % 1000 == 0) {
+                    log.info("Flat layout migration progress: moved={}, failed={}", moved, failed);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Flat layout migration aborted", e);
+            return;
+        }
+
+        log.info("Flat layout migration completed: moved={}, failed={}", moved, failed);
+    }
+
+    /**
+     * Stored files only: not the shard and staging directories, nor leftover partial uploads.
+     */
+    private boolean isFlatFile(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path) && !name.startsWith(".") && !name.endsWith(PART_SUFFIX);
+    }
+}
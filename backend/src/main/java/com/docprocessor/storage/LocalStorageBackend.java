@@ -0,0 +1,175 @@
+package com.docprocessor.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local file system storage sharded by hash prefix: {@code <root>/ab/cd/<fileId>}.
+ * <p>
+ * Content-addressed ids (hex SHA-256) are sharded by their own first four
+ * characters; other ids by those of the SHA-1 of the id. Two directory levels of
+ * 256 entries keep every directory small, so lookups cost the same regardless of
+ * the number of stored files.
+ * <p>
+ * With {@code flatFallback} enabled, files not yet moved out of the previous flat
+ * layout ({@code <root>/<fileId>}) are still found; see {@link FlatLayoutMigrationJob}.
+ */
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    static final String STAGING_DIRECTORY = ".staging";
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path stagingDirectory;
+    private final boolean flatFallback;
+
+    public LocalStorageBackend(Path root, boolean flatFallback) {
+        this.root = root.toAbsolutePath().normalize();
+        this.stagingDirectory = this.root.resolve(STAGING_DIRECTORY);
+        this.flatFallback = flatFallback;
+
+        try {
+            Files.createDirectories(stagingDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize storage directory " + this.root, e);
+        }
+        log.info("Local storage initialized: root={}, flatFallback={}", this.root, flatFallback);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public Path getStagingDirectory() {
+        return stagingDirectory;
+    }
+
+    @Override
+    public void store(String fileId, Path stagedFile) throws IOException {
+        Path target = shardedPath(fileId);
+        Files.createDirectories(target.getParent());
+        Files.move(stagedFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public InputStream openStream(String fileId) throws IOException {
+        return Files.newInputStream(locate(fileId));
+    }
+
+    @Override
+    public Resource getResource(String fileId) throws IOException {
+        return new FileSystemResource(locate(fileId));
+    }
+
+    @Override
+    public Optional<Path> getLocalPath(String fileId) {
+        try {
+            return Optional.of(locate(fileId));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean exists(String fileId) {
+        return getLocalPath(fileId).isPresent();
+    }
+
+    @Override
+    public long size(String fileId) throws IOException {
+        return Files.size(locate(fileId));
+    }
+
+    @Override
+    public boolean move(String sourceId, String targetId) throws IOException {
+        Path source;
+        try {
+            source = locate(sourceId);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+
+        Path target = shardedPath(targetId);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean delete(String fileId) throws IOException {
+        boolean deleted = Files.deleteIfExists(shardedPath(fileId));
+        if (flatFallback) {
+            deleted |= Files.deleteIfExists(flatPath(fileId));
+        }
+        return deleted;
+    }
+
+    Path shardedPath(String fileId) {
+        String prefix = CONTENT_HASH.matcher(fileId).matches() ? fileId : sha1Hex(fileId);
+        return root.resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)).resolve(checkedName(fileId));
+    }
+
+    Path flatPath(String fileId) {
+        return root.resolve(checkedName(fileId));
+    }
+
+    /**
+     * Sharded location first, then the flat one. The sharded path is checked again
+     * last in case the migration moved the file between the first two checks.
+     */
+    private Path locate(String fileId) throws NoSuchFileException {
+        Path sharded = shardedPath(fileId);
+        if (Files.isRegularFile(sharded)) {
+            return sharded;
+        }
+        if (flatFallback) {
+            Path flat = flatPath(fileId);
+            if (Files.isRegularFile(flat)) {
+                return flat;
+            }
+            if (Files.isRegularFile(sharded)) {
+                return sharded;
+            }
+        }
+        throw new NoSuchFileException(fileId);
+    }
+
+    private static String checkedName(String fileId) {
+        if (fileId == null || fileId.isEmpty() || fileId.contains("/") || fileId.contains("\\")
+                || fileId.equals(".") || fileId.equals("..") || fileId.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid file id: " + fileId);
+        }
+        return fileId;
+    }
+
+    private static String sha1Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
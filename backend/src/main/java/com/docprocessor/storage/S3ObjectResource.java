@@ -0,0 +1,54 @@
+package com.docprocessor.storage;
+
+import org.springframework.core.io.AbstractResource;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An object in {@link S3StorageBackend}. Length and modification time come from the
+ * HEAD request made when the resource was created; the content is fetched on demand.
+ */
+class S3ObjectResource extends AbstractResource {
+
+    private final S3StorageBackend backend;
+    private final String fileId;
+    private final HeadObjectResponse head;
+
+    S3ObjectResource(S3StorageBackend backend, String fileId, HeadObjectResponse head) {
+        this.backend = backend;
+        this.fileId = fileId;
+        this.head = head;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return backend.openStream(fileId);
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return head.contentLength();
+    }
+
+    @Override
+    public long lastModified() {
+        return head.lastModified() != null ? head.lastModified().toEpochMilli() : 0;
+    }
+
+    @Override
+    public String getFilename() {
+        return fileId;
+    }
+
+    @Override
+    public String getDescription() {
+        return "S3 object [" + fileId + "]";
+    }
+}
@@ -0,0 +1,158 @@
+package com.docprocessor.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage in an S3-compatible object store (AWS S3, MinIO, ...). Each file is one
+ * object under {@code <keyPrefix><fileId>}.
+ * <p>
+ * Object keys are hashed by the store itself, so no directory sharding is needed.
+ * Renames are a copy followed by a delete; callers must not rely on them being atomic.
+ */
+@Slf4j
+public class S3StorageBackend implements StorageBackend {
+
+    private static final int NOT_FOUND = 404;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String keyPrefix;
+    private final Path stagingDirectory;
+
+    public S3StorageBackend(S3Client client, String bucket, String keyPrefix, Path stagingDirectory) {
+        this.client = client;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix != null ? keyPrefix : "";
+        this.stagingDirectory = stagingDirectory.toAbsolutePath().normalize();
+
+        try {
+            Files.createDirectories(this.stagingDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize staging directory " + this.stagingDirectory, e);
+        }
+        log.info("S3 storage initialized: bucket={}, keyPrefix='{}', staging={}",
+                bucket, this.keyPrefix, this.stagingDirectory);
+    }
+
+    @Override
+    public Path getStagingDirectory() {
+        return stagingDirectory;
+    }
+
+    @Override
+    public void store(String fileId, Path stagedFile) throws IOException {
+        try {
+            client.putObject(request -> request.bucket(bucket).key(key(fileId)), RequestBody.fromFile(stagedFile));
+        } catch (S3Exception e) {
+            throw new IOException("Failed to upload " + fileId + " to bucket " + bucket, e);
+        }
+        Files.deleteIfExists(stagedFile);
+    }
+
+    @Override
+    public InputStream openStream(String fileId) throws IOException {
+        try {
+            return client.getObject(request -> request.bucket(bucket).key(key(fileId)));
+        } catch (S3Exception e) {
+            throw translate(fileId, e);
+        }
+    }
+
+    @Override
+    public Resource getResource(String fileId) throws IOException {
+        return new S3ObjectResource(this, fileId, head(fileId)
+                .orElseThrow(() -> new NoSuchFileException(fileId)));
+    }
+
+    @Override
+    public Optional<Path> getLocalPath(String fileId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String fileId) {
+        try {
+            return head(fileId).isPresent();
+        } catch (IOException e) {
+            log.warn("Failed to check existence of {}: {}", fileId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String fileId) throws IOException {
+        return head(fileId)
+                .orElseThrow(() -> new NoSuchFileException(fileId))
+                .contentLength();
+    }
+
+    @Override
+    public boolean move(String sourceId, String targetId) throws IOException {
+        try {
+            client.copyObject(request -> request
+                    .sourceBucket(bucket).sourceKey(key(sourceId))
+                    .destinationBucket(bucket).destinationKey(key(targetId)));
+        } catch (S3Exception e) {
+            if (isNotFound(e)) {
+                return false;
+            }
+            throw translate(sourceId, e);
+        }
+        delete(sourceId);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String fileId) throws IOException {
+        // DeleteObject succeeds for missing keys, so check first to report whether it existed
+        if (head(fileId).isEmpty()) {
+            return false;
+        }
+        try {
+            client.deleteObject(request -> request.bucket(bucket).key(key(fileId)));
+            return true;
+        } catch (S3Exception e) {
+            throw translate(fileId, e);
+        }
+    }
+
+    private Optional<HeadObjectResponse> head(String fileId) throws IOException {
+        try {
+            return Optional.of(client.headObject(request -> request.bucket(bucket).key(key(fileId))));
+        } catch (S3Exception e) {
+            if (isNotFound(e)) {
+                return Optional.empty();
+            }
+            throw translate(fileId, e);
+        }
+    }
+
+    private String key(String fileId) {
+        return keyPrefix + fileId;
+    }
+
+    private static boolean isNotFound(S3Exception e) {
+        return e instanceof NoSuchKeyException || e.statusCode() == NOT_FOUND;
+    }
+
+    private IOException translate(String fileId, S3Exception e) {
+        if (isNotFound(e)) {
+            return new NoSuchFileException(fileId);
+        }
+        return new IOException("S3 request for " + fileId + " in bucket " + bucket + " failed", e);
+    }
+}
@@ -0,0 +1,66 @@
+package com.docprocessor.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where stored document files live. Files are immutable once stored and are
+ * addressed by their storage id.
+ * <p>
+ * New content is written to a local staging file first (see
+ * {@link #getStagingDirectory()}) and then handed over with {@link #store}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Local directory for files being written. For backends on the local file
+     * system it is on the same volume, so {@link #store} is a rename.
+     */
+    Path getStagingDirectory();
+
+    /**
+     * Moves a fully written staging file into storage under {@code fileId},
+     * replacing any existing file with that id. The staging file is gone afterwards.
+     */
+    void store(String fileId, Path stagedFile) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException if there is no such file
+     */
+    InputStream openStream(String fileId) throws IOException;
+
+    /**
+     * The file as a Spring resource for serving downloads.
+     *
+     * @throws java.nio.file.NoSuchFileException if there is no such file
+     */
+    Resource getResource(String fileId) throws IOException;
+
+    /**
+     * The file's location on the local file system, if the backend has one.
+     */
+    Optional<Path> getLocalPath(String fileId);
+
+    boolean exists(String fileId);
+
+    /**
+     * @throws java.nio.file.NoSuchFileException if there is no such file
+     */
+    long size(String fileId) throws IOException;
+
+    /**
+     * Renames a file, replacing the target.
+     *
+     * @return {@code false} if the source does not exist
+     */
+    boolean move(String sourceId, String targetId) throws IOException;
+
+    /**
+     * @return whether a file was deleted
+     */
+    boolean delete(String fileId) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.docprocessor.websocket;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+
+import java.time.Instant;
+
+/**
+ * Status push sent to WebSocket clients; matches the frontend's {@code WebSocketMessage}.
+ */
+public record DocumentStatusMessage(String type, String documentId, ProcessingStatus status,
+                                    String message, Instant timestamp) {
+
+    public static DocumentStatusMessage from(DocumentStatusEvent event) {
+        boolean finished = event.getStatus() == ProcessingStatus.VALIDATED
+                || event.getStatus() == ProcessingStatus.FAILED;
+        return new DocumentStatusMessage(finished ? "COMPLETED" : "STATUS_UPDATE",
+                event.getDocumentId(), event.getStatus(), event.getMessage(), event.getTimestamp());
+    }
+}
@@ -0,0 +1,132 @@
+package com.docprocessor.websocket;
+
+import com.docprocessor.messaging.DocumentStatusEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes document status changes to WebSocket clients so they do not have to poll.
+ * <p>
+ * Clients choose what they receive by sending
+ * {@code {"type":"SUBSCRIBE","documentId":"..."}} / {@code UNSUBSCRIBE}, or
+ * {@code {"type":"SUBSCRIBE_ALL"}} / {@code UNSUBSCRIBE_ALL} for every document.
+ * Each change is serialized once and queued per session; see {@link StatusSubscription}
+ * for how slow clients are handled.
+ */
+@Slf4j
+@Component
+public class DocumentStatusWebSocketHandler extends TextWebSocketHandler {
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int maxPending;
+    private final int maxDocuments;
+
+    private final Map<String, StatusSubscription> subscriptions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DocumentStatusWebSocketHandler(ObjectMapper objectMapper,
+                                          @Value("${app.websocket.max-pending-per-session:256}") int maxPending,
+                                          @Value("${app.websocket.max-subscriptions-per-session:1000}") int maxDocuments) {
+        this(objectMapper, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-status-", 0).factory()),
+                maxPending, maxDocuments);
+    }
+
+    DocumentStatusWebSocketHandler(ObjectMapper objectMapper, ExecutorService sender, int maxPending, int maxDocuments) {
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.maxPending = maxPending;
+        this.maxDocuments = maxDocuments;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        subscriptions.put(session.getId(), new StatusSubscription(session, sender, maxPending, maxDocuments));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        StatusSubscription subscription = subscriptions.get(session.getId());
+        if (subscription == null) {
+            return;
+        }
+
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring malformed WebSocket message from session {}", session.getId());
+            return;
+        }
+
+        String type = request.path("type").asText();
+        String documentId = request.path("documentId").asText(null);
+        switch (type) {
+            case "SUBSCRIBE" -> {
+                if (documentId != null && !subscription.subscribe(documentId)) {
+                    log.debug("WebSocket session {} reached its subscription limit", session.getId());
+                }
+            }
+            case "UNSUBSCRIBE" -> {
+                if (documentId != null) {
+                    subscription.unsubscribe(documentId);
+                }
+            }
+            case "SUBSCRIBE_ALL" -> subscription.setAllDocuments(true);
+            case "UNSUBSCRIBE_ALL" -> subscription.setAllDocuments(false);
+            default -> log.debug("Ignoring WebSocket message of type '{}' from session {}", type, session.getId());
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        subscriptions.remove(session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        subscriptions.remove(session.getId());
+    }
+
+    @EventListener
+    public void onStatusChanged(DocumentStatusEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(DocumentStatusMessage.from(event)));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize status of document {}: {}", event.getDocumentId(), e.getMessage());
+            return;
+        }
+
+        for (StatusSubscription subscription : subscriptions.values()) {
+            if (subscription.isSubscribedTo(event.getDocumentId())) {
+                subscription.offer(event.getDocumentId(), message);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+}
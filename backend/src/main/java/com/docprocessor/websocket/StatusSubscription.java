@@ -0,0 +1,138 @@
+package com.docprocessor.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * One client session: what it is subscribed to, and an outbox of pushes not yet sent.
+ * <p>
+ * The outbox holds at most one message per document, the latest, so a client that
+ * reads slowly receives fewer, newer updates instead of an ever-growing backlog. At
+ * most one task drains it at a time, which also keeps sends on the session serial.
+ * A client that falls behind on more than {@code maxPending} documents is
+ * disconnected; it reconnects and reloads the list. The session is closed on the
+ * sender executor, never by the producer: closing waits for a send in progress, which
+ * can block for the whole send timeout.
+ */
+@Slf4j
+class StatusSubscription {
+
+    private final WebSocketSession session;
+    private final Executor sender;
+    private final int maxPending;
+    private final int maxDocuments;
+
+    private final Set<String> documentIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean allDocuments;
+
+    private final Map<String, TextMessage> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private boolean closed;
+
+    StatusSubscription(WebSocketSession session, Executor sender, int maxPending, int maxDocuments) {
+        this.session = session;
+        this.sender = sender;
+        this.maxPending = maxPending;
+        this.maxDocuments = maxDocuments;
+    }
+
+    boolean subscribe(String documentId) {
+        if (documentIds.size() >= maxDocuments) {
+            return false;
+        }
+        documentIds.add(documentId);
+        return true;
+    }
+
+    void unsubscribe(String documentId) {
+        documentIds.remove(documentId);
+    }
+
+    void setAllDocuments(boolean allDocuments) {
+        this.allDocuments = allDocuments;
+    }
+
+    boolean isSubscribedTo(String documentId) {
+        return allDocuments || documentIds.contains(documentId);
+    }
+
+    void offer(String documentId, TextMessage message) {
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            pending.put(documentId, message);
+            if (pending.size() > maxPending) {
+                log.warn("WebSocket session {} is {} updates behind, disconnecting it", session.getId(), pending.size());
+                markClosed();
+            } else if (draining) {
+                return;
+            } else {
+                draining = true;
+                sender.execute(this::drain);
+                return;
+            }
+        }
+        closeLater(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void drain() {
+        while (true) {
+            TextMessage next;
+            synchronized (pending) {
+                Iterator<TextMessage> it = pending.values().iterator();
+                if (closed || !it.hasNext()) {
+                    draining = false;
+                    return;
+                }
+                next = it.next();
+                it.remove();
+            }
+
+            try {
+                session.sendMessage(next);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Failed to push status to WebSocket session {}: {}", session.getId(), e.getMessage());
+                synchronized (pending) {
+                    markClosed();
+                    draining = false;
+                }
+                closeSession(CloseStatus.SERVER_ERROR);
+                return;
+            }
+        }
+    }
+
+    /** Called with the outbox lock held. */
+    private void markClosed() {
+        closed = true;
+        pending.clear();
+    }
+
+    private void closeLater(CloseStatus status) {
+        try {
+            sender.execute(() -> closeSession(status));
+        } catch (RejectedExecutionException e) {
+            log.debug("WebSocket sender stopped, not closing session {}", session.getId());
+        }
+    }
+
+    private void closeSession(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.docprocessor.api.controllers;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.events.DocumentEventStream;
+import com.docprocessor.service.impl.BatchIngestService;
+import com.docprocessor.service.impl.DocumentExportService;
+import com.docprocessor.service.impl.DocumentServiceImpl;
+import com.docprocessor.service.impl.DocumentStatisticsService;
+import com.docprocessor.service.impl.StorageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs downloads through Spring MVC's return value handling, which unit tests of
+ * {@link FileDownloadResponder} bypass.
+ */
+class DocumentDownloadMvcTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DocumentServiceImpl documentService = mock(DocumentServiceImpl.class);
+        StorageServiceImpl storageService = mock(StorageServiceImpl.class);
+        FileDownloadResponder responder = new FileDownloadResponder();
+        ReflectionTestUtils.setField(responder, "cacheMaxAge", Duration.ofHours(1));
+        ReflectionTestUtils.setField(responder, "sendfileMinSize", 49152L);
+
+        ProcessingDocument document = new ProcessingDocument("invoice.pdf");
+        document.setId("507f1f77bcf86cd799439011");
+        document.setFileId("file-1");
+        document.setContentType("application/pdf");
+        document.setContentHash("abc123");
+        when(documentService.getDocumentEntityById(document.getId())).thenReturn(Optional.of(document));
+        when(storageService.getFileResource("file-1"))
+                .thenAnswer(invocation -> new ByteArrayResource(CONTENT.getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new DocumentController(documentService, storageService, responder,
+                mock(DocumentEventStream.class), mock(DocumentStatisticsService.class),
+                mock(DocumentExportService.class), mock(BatchIngestService.class))).build();
+    }
+
+    @Test
+    void testFullDownload() throws Exception {
+        MockHttpServletResponse response = download(null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("\"abc123\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testSingleRange() throws Exception {
+        MockHttpServletResponse response = download("bytes=0-9");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-9/36", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void testMultipleRanges() throws Exception {
+        MockHttpServletResponse response = download("bytes=0-9,20-29");
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-9/36"));
+        assertTrue(body.contains("0123456789"));
+        assertTrue(body.contains("Content-Range: bytes 20-29/36"));
+        assertTrue(body.contains("klmnopqrst"));
+    }
+
+    private MockHttpServletResponse download(String range) throws Exception {
+        var request = get("/documents/507f1f77bcf86cd799439011/download");
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,123 @@
+package com.docprocessor.api.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadResponderTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private FileDownloadResponder responder;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.write(tempDir.resolve("doc.pdf"), new byte[100_000]);
+        responder = new FileDownloadResponder();
+        ReflectionTestUtils.setField(responder, "cacheMaxAge", Duration.ofHours(1));
+        ReflectionTestUtils.setField(responder, "sendfileMinSize", 49152L);
+        request = new MockHttpServletRequest("GET", "/documents/1/download");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testFullResponseWithValidators() throws Exception {
+        ResponseEntity<?> entity = respond();
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertInstanceOf(FileSystemResource.class, entity.getBody());
+        assertEquals(ETAG, entity.getHeaders().getETag());
+        assertEquals("bytes", entity.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("max-age=3600, private", entity.getHeaders().getCacheControl());
+        assertEquals(100_000, entity.getHeaders().getContentLength());
+    }
+
+    @Test
+    void testNotModifiedWhenEtagMatches() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        assertNull(respond());
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void testSingleRangeAndIfRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+
+        assertNull(respond());
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, response.getContentAsByteArray().length);
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        assertEquals(HttpStatus.OK, respond().getStatusCode());
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=200000-");
+
+        ResponseEntity<?> entity = respond();
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, entity.getStatusCode());
+        assertEquals("bytes */100000", entity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testSendfileWhenContainerSupportsIt() throws Exception {
+        request.setAttribute(FileDownloadResponder.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-59999");
+
+        ResponseEntity<?> entity = respond();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, entity.getStatusCode());
+        assertNull(entity.getBody());
+        assertEquals("bytes 0-59999/100000", entity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(60_000, entity.getHeaders().getContentLength());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(FileDownloadResponder.SENDFILE_FILENAME_ATTR));
+        assertEquals(0L, request.getAttribute(FileDownloadResponder.SENDFILE_START_ATTR));
+        assertEquals(60_000L, request.getAttribute(FileDownloadResponder.SENDFILE_END_ATTR));
+    }
+
+    @Test
+    void testRemoteResourceIsNotSentWithSendfile() throws Exception {
+        request.setAttribute(FileDownloadResponder.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE);
+        Resource remote = new ByteArrayResource(new byte[100_000]);
+
+        ResponseEntity<?> entity = responder.respond(remote, MediaType.APPLICATION_PDF, ETAG, new HttpHeaders(),
+                new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertSame(remote, entity.getBody());
+        assertNull(request.getAttribute(FileDownloadResponder.SENDFILE_FILENAME_ATTR));
+    }
+
+    private ResponseEntity<?> respond() throws Exception {
+        return responder.respond(new FileSystemResource(file), MediaType.APPLICATION_PDF, ETAG, new HttpHeaders(),
+                new ServletWebRequest(request, response));
+    }
+}
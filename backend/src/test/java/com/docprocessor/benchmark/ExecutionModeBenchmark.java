@@ -0,0 +1,73 @@
+package com.docprocessor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform-thread and virtual-thread throughput for a burst of blocking
+ * tasks shaped like the processing pipeline (a sleep standing in for simulated OCR,
+ * file and Mongo I/O).
+ * <p>
+ * The platform pool defaults to Tomcat's 200 request threads. One operation is a
+ * whole burst, so multiply the score by {@code burst} for tasks per second.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ExecutionModeBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"1000"})
+    private int burst;
+
+    @Param({"50"})
+    private long blockingMillis;
+
+    @Param({"200"})
+    private int platformThreads;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void blockingBurst(Blackhole blackhole) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            int task = i;
+            futures.add(executor.submit(() -> {
+                Thread.sleep(blockingMillis);
+                return task;
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            blackhole.consume(future.get());
+        }
+    }
+}
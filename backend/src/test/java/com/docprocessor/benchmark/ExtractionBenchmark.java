@@ -0,0 +1,225 @@
+package com.docprocessor.benchmark;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.extraction.AmountFieldExtractorFactory;
+import com.docprocessor.extraction.DateFieldExtractorFactory;
+import com.docprocessor.extraction.ExtractionRuleRegistry;
+import com.docprocessor.extraction.InvoiceExtractionEngine;
+import com.docprocessor.extraction.KeywordFieldExtractorFactory;
+import com.docprocessor.extraction.LineItemFieldExtractorFactory;
+import com.docprocessor.extraction.TextFieldExtractorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-document cost of metadata and structured-data extraction, comparing
+ * {@link InvoiceExtractionEngine} (rule file compiled by {@link ExtractionRuleRegistry})
+ * with the original per-call pattern compilation kept in {@link LegacyExtraction}.
+ * <p>
+ * The benchmark profile runs with the GC profiler, so {@code gc.alloc.rate.norm}
+ * is the allocation per document in bytes:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ExtractionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    static final List<String> SAMPLE_TEXTS = List.of(
+            "INVOICE\nCompany: ACME Corporation\nInvoice #: INV-2024-001\nDate: 2024-07-10\nAmount: $1,250.00\nDescription: Software License\nQuantity: 1\nUnit Price: $1,250.00",
+            "INVOICE\nCompany: Tech Solutions Ltd\nNumber: INV-2024-045\nDate: 07/10/2024\nTotal Amount: $2,850.50\nConsulting Services\n15 hours x $190.03",
+            "INVOICE\nCompany Name: Digital Innovations\nInvoice: 000123456\nIssue Date: 2024-07-10\nAmount: $4,750.25\nProduct: Software Development\nQty: 1 unit\nUnit Price: $4,750.25",
+            "INVOICE\nBill To: Enterprise Holdings\nInvoice Number: 2024-INV-789\nIssue Date: July 10, 2024\nTotal Due: $3,199.99\nCloud Services - Monthly Subscription\n1 month @ $3,199.99"
+    );
+
+    @Param({"0", "1", "2", "3"})
+    private int sample;
+
+    private String text;
+    private InvoiceExtractionEngine engine;
+    private LegacyExtraction legacy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = SAMPLE_TEXTS.get(sample);
+        engine = new InvoiceExtractionEngine(new ExtractionRuleRegistry(
+                new ClassPathResource("extraction-rules.yml"),
+                List.of(new TextFieldExtractorFactory(), new DateFieldExtractorFactory(),
+                        new AmountFieldExtractorFactory(), new LineItemFieldExtractorFactory(),
+                        new KeywordFieldExtractorFactory())));
+        legacy = new LegacyExtraction();
+    }
+
+    @Benchmark
+    public void engine(Blackhole blackhole) {
+        blackhole.consume(engine.extractStructuredData(text));
+        blackhole.consume(engine.extractMetadata(text));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        blackhole.consume(legacy.extractStructuredData(text));
+        blackhole.consume(legacy.extractMetadata(text));
+    }
+
+    /**
+     * The extraction code as it was in {@code OCRService} before the engine.
+     */
+    static class LegacyExtraction {
+
+        Map<String, Object> extractStructuredData(String text) {
+            Map<String, Object> data = new HashMap<>();
+
+            data.put("hasInvoiceNumber", text.matches("(?i).*invoice\\s*#?\\s*:?\\s*[A-Z0-9-]+.*"));
+            data.put("hasAmount", text.matches("(?i).*(amount|total)\\s*:?\\s*\\$[0-9,.].*"));
+            data.put("hasDate", text.matches("(?i).*date\\s*:?\\s*[0-9/-]+.*"));
+
+            data.put("wordCount", text.split("\\s+").length);
+            data.put("lineCount", text.split("\n").length);
+            data.put("characterCount", text.length());
+
+            return data;
+        }
+
+        DocumentMetadata extractMetadata(String ocrText) {
+            DocumentMetadata metadata = new DocumentMetadata();
+            metadata.setInvoiceNumber(extractInvoiceNumber(ocrText));
+            metadata.setInvoiceDate(extractInvoiceDate(ocrText));
+
+            BigDecimal totalAmount = extractTotalAmount(ocrText);
+            metadata.setTotalAmount(totalAmount);
+            metadata.setItems(extractLineItems(ocrText, totalAmount));
+
+            Map<String, Object> additionalFields = new HashMap<>();
+            additionalFields.put("extractionMethod", "OCR");
+            additionalFields.put("documentType", "invoice");
+            additionalFields.put("processingTimestamp", LocalDate.now().toString());
+            metadata.setAdditionalFields(additionalFields);
+            return metadata;
+        }
+
+        private String extractInvoiceNumber(String text) {
+            Pattern[] patterns = {
+                    Pattern.compile("(?i)invoice\\s*#?\\s*:?\\s*([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE),
+                    Pattern.compile("(?i)number\\s*:?\\s*([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE),
+                    Pattern.compile("(?i)invoice number\\s*:?\\s*([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE)
+            };
+
+            for (Pattern pattern : patterns) {
+                Matcher matcher = pattern.matcher(text);
+                if (matcher.find()) {
+                    return matcher.group(1).trim();
+                }
+            }
+
+            return "INV-2024-" + String.format("%03d", ThreadLocalRandom.current().nextInt(1, 999));
+        }
+
+        private LocalDate extractInvoiceDate(String text) {
+            Pattern[] patterns = {
+                    Pattern.compile("(?i)date\\s*:?\\s*(\\d{4}-\\d{2}-\\d{2})"),
+                    Pattern.compile("(?i)issue date\\s*:?\\s*(\\d{2}/\\d{2}/\\d{4})"),
+                    Pattern.compile("(?i)(\\d{2}/\\d{2}/\\d{4})"),
+                    Pattern.compile("(?i)(\\d{4}-\\d{2}-\\d{2})")
+            };
+
+            for (Pattern pattern : patterns) {
+                Matcher matcher = pattern.matcher(text);
+                if (matcher.find()) {
+                    String dateStr = matcher.group(1);
+                    try {
+                        if (dateStr.contains("/")) {
+                            String[] parts = dateStr.split("/");
+                            if (parts.length == 3) {
+                                return LocalDate.of(Integer.parseInt(parts[2]),
+                                        Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
+                            }
+                        } else if (dateStr.contains("-")) {
+                            return LocalDate.parse(dateStr);
+                        }
+                    } catch (Exception ignored) {
+                        // fall through to the next pattern
+                    }
+                }
+            }
+
+            return LocalDate.now();
+        }
+
+        private BigDecimal extractTotalAmount(String text) {
+            Pattern[] patterns = {
+                    Pattern.compile("(?i)total.*?[\\$R]?\\s*([0-9,]+\\.\\d{2})"),
+                    Pattern.compile("(?i)amount.*?[\\$R]?\\s*([0-9,]+\\.\\d{2})"),
+                    Pattern.compile("(?i)total due.*?\\$\\s*([0-9,]+\\.\\d{2})"),
+                    Pattern.compile("\\$\\s*([0-9,]+\\.\\d{2})")
+            };
+
+            for (Pattern pattern : patterns) {
+                Matcher matcher = pattern.matcher(text);
+                if (matcher.find()) {
+                    String amountStr = matcher.group(1).replace(",", "").replace("R", "");
+                    try {
+                        return new BigDecimal(amountStr);
+                    } catch (NumberFormatException ignored) {
+                        // fall through to the next pattern
+                    }
+                }
+            }
+
+            double randomAmount = 100.0 + (ThreadLocalRandom.current().nextDouble() * 4900.0);
+            return BigDecimal.valueOf(Math.round(randomAmount * 100.0) / 100.0);
+        }
+
+        private List<DocumentMetadata.InvoiceItem> extractLineItems(String text, BigDecimal totalAmount) {
+            List<DocumentMetadata.InvoiceItem> items = new ArrayList<>();
+
+            Pattern itemPattern = Pattern.compile("(?i)(\\d+)\\s*(hours?|unit?|month)\\s*[@x]?\\s*\\$\\s*([0-9,]+\\.\\d{2})");
+            Matcher matcher = itemPattern.matcher(text);
+
+            if (matcher.find()) {
+                try {
+                    BigDecimal quantity = new BigDecimal(matcher.group(1));
+                    BigDecimal unitPrice = new BigDecimal(matcher.group(3).replace(",", ""));
+                    items.add(new DocumentMetadata.InvoiceItem(extractItemDescription(text), quantity, unitPrice));
+                } catch (NumberFormatException ignored) {
+                    // handled below
+                }
+            }
+
+            if (items.isEmpty()) {
+                items.add(new DocumentMetadata.InvoiceItem(extractItemDescription(text), BigDecimal.ONE, totalAmount));
+            }
+            return items;
+        }
+
+        private String extractItemDescription(String text) {
+            if (text.contains("Software") || text.contains("License")) {
+                return "Software License";
+            } else if (text.contains("Consulting")) {
+                return "Consulting Services";
+            } else if (text.contains("Development")) {
+                return "Software Development";
+            } else if (text.contains("Cloud")) {
+                return "Cloud Services";
+            }
+            return "Professional Services";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.docprocessor.benchmark;
+
+import com.docprocessor.service.impl.StorageServiceImpl;
+import com.docprocessor.storage.LocalStorageBackend;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of handing a stored file to OCR under concurrent large-file processing:
+ * {@code heap} reads the whole file onto the heap, the baseline the service no longer
+ * offers, {@code mapped} uses {@link StorageServiceImpl#openMappedContent}. Each operation touches every
+ * 4 KB page of the file, as an OCR engine scanning the document would.
+ * <p>
+ * Runs on four threads, like the default OCR pool. The benchmark profile adds the GC
+ * profiler: {@code gc.alloc.rate} and {@code gc.alloc.rate.norm} show the allocation
+ * rate and bytes per document, {@code gc.count} and {@code gc.time} the collections
+ * and the time spent in them:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=OcrInputBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:+UseG1GC"})
+public class OcrInputBenchmark {
+
+    private static final int PAGE_SIZE = 4096;
+
+    @Param({"heap", "mapped"})
+    private String mode;
+
+    @Param({"50"})
+    private int fileSizeMb;
+
+    private Path root;
+    private StorageServiceImpl storageService;
+    private String fileId;
+    private Path storedFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("ocr-input-benchmark");
+        LocalStorageBackend backend = new LocalStorageBackend(root, false);
+        // Reads do not touch reference counts
+        storageService = new StorageServiceImpl(backend, null);
+
+        fileId = "benchmark-" + fileSizeMb + "mb.pdf";
+        Path staged = backend.getStagingDirectory().resolve(fileId);
+        byte[] chunk = new byte[1024 * 1024];
+        Random random = new Random(42);
+        try (OutputStream out = Files.newOutputStream(staged)) {
+            for (int i = 0; i < fileSizeMb; i++) {
+                random.nextBytes(chunk);
+                out.write(chunk);
+            }
+        }
+        backend.store(fileId, staged);
+        storedFile = backend.getLocalPath(fileId).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long readForOcr() throws IOException {
+        if ("heap".equals(mode)) {
+            return scanPages(ByteBuffer.wrap(Files.readAllBytes(storedFile)));
+        }
+        try (StorageServiceImpl.MappedContent content = storageService.openMappedContent(fileId)) {
+            return scanPages(content.getContent());
+        }
+    }
+
+    private static long scanPages(ByteBuffer content) {
+        long checksum = 0;
+        for (int position = 0; position < content.limit(); position += PAGE_SIZE) {
+            checksum += content.get(position);
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,34 @@
+package com.docprocessor.domain.dto;
+
+import com.docprocessor.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        DocumentCursor cursor = new DocumentCursor(
+                LocalDateTime.of(2024, 7, 10, 14, 30, 15, 123_000_000),
+                "66a1f0c2e4b0a1b2c3d4e5f6");
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("="));
+        assertFalse(token.contains("/"));
+        assertEquals(cursor, DocumentCursor.decode(token));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedTokens() {
+        assertThrows(ValidationException.class, () -> DocumentCursor.decode("not base64!"));
+        assertThrows(ValidationException.class, () -> DocumentCursor.decode(
+                Base64.getUrlEncoder().encodeToString("no-separator".getBytes())));
+        assertThrows(ValidationException.class, () -> DocumentCursor.decode(
+                Base64.getUrlEncoder().encodeToString("yesterday|abc".getBytes())));
+    }
+}
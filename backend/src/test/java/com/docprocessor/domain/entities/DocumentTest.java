@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,6 +97,18 @@ class DocumentTest {
         assertFalse(document.getStatus().canBeProcessed());
     }
 
+    @Test
+    void testStatusTransitions() {
+        assertTrue(ProcessingStatus.UPLOADED.canTransitionTo(ProcessingStatus.PROCESSING));
+        assertTrue(ProcessingStatus.FAILED.canTransitionTo(ProcessingStatus.UPLOADED));
+        assertFalse(ProcessingStatus.VALIDATED.canTransitionTo(ProcessingStatus.PROCESSING));
+        assertFalse(ProcessingStatus.UPLOADED.canTransitionTo(ProcessingStatus.VALIDATED));
+
+        assertEquals(List.of(ProcessingStatus.UPLOADED, ProcessingStatus.PROCESSING),
+                ProcessingStatus.sourcesOf(ProcessingStatus.FAILED));
+        assertEquals(List.of(ProcessingStatus.PROCESSING), ProcessingStatus.sourcesOf(ProcessingStatus.VALIDATED));
+    }
+
     @Test
     void testToString() {
         String toString = document.toString();
@@ -0,0 +1,164 @@
+package com.docprocessor.events;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DocumentChangeFeedTest {
+
+    private MongoTemplate mongoTemplate;
+    private DocumentChangeFeed feed;
+    private StatusEventRing ring;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        feed = new DocumentChangeFeed(mongoTemplate, 16);
+        ring = feed.getRing();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void testLocalEventsAreBufferedWhileNotStreaming() throws Exception {
+        ReflectionTestUtils.setField(feed, "changeStreamEnabled", false);
+        feed.start();
+        long start = ring.head();
+
+        feed.onStatusChanged(event("a", ProcessingStatus.PROCESSING));
+        feed.onStatusChanged(event("a", ProcessingStatus.VALIDATED));
+
+        StatusEventRing.Batch batch = ring.read(start, 10, Duration.ZERO);
+        assertEquals(2, batch.entries().size());
+        String first = batch.entries().get(0).id();
+        assertTrue(first.startsWith("local-"));
+        assertNotEquals(first, batch.entries().get(1).id());
+        assertEquals(ProcessingStatus.VALIDATED, batch.entries().get(1).event().getStatus());
+    }
+
+    @Test
+    void testStreamReplacesLocalEventsAndFailuresFallBackToThem() throws Exception {
+        BlockingQueue<Object> changes = new LinkedBlockingQueue<>();
+        ChangeStreamIterable<Document> stream = watchReturning(changes);
+        ReflectionTestUtils.setField(feed, "changeStreamEnabled", true);
+        long start = ring.head();
+
+        feed.start();
+        changes.add(change("doc-1", ProcessingStatus.PROCESSING, "token-1"));
+
+        StatusEventRing.Batch streamed = ring.read(start, 10, Duration.ofSeconds(5));
+        assertEquals(1, streamed.entries().size());
+        assertEquals("token-1", streamed.entries().get(0).id());
+        assertEquals("doc-1", streamed.entries().get(0).event().getDocumentId());
+
+        // The change stream already carries this node's transitions
+        feed.onStatusChanged(event("doc-1", ProcessingStatus.VALIDATED));
+        assertTrue(ring.read(streamed.next(), 10, Duration.ZERO).entries().isEmpty());
+
+        changes.add(new MongoException(91, "shutdown in progress"));
+        StatusEventRing.Batch local = awaitLocalEvent(streamed.next(), event("doc-1", ProcessingStatus.VALIDATED));
+        assertTrue(local.entries().get(0).id().startsWith("local-"));
+
+        verify(stream, timeout(5000)).resumeAfter(new BsonDocument("_data", new BsonString("token-1")));
+    }
+
+    @Test
+    void testLostHistoryIsMarkedAsGap() throws Exception {
+        BlockingQueue<Object> changes = new LinkedBlockingQueue<>();
+        watchReturning(changes);
+        ReflectionTestUtils.setField(feed, "changeStreamEnabled", true);
+        long start = ring.head();
+
+        feed.start();
+        changes.add(new MongoException(286, "resume point no longer in the oplog"));
+
+        StatusEventRing.Batch batch = ring.read(start, 10, Duration.ofSeconds(5));
+        assertEquals(1, batch.entries().size());
+        assertNull(batch.entries().get(0).event());
+    }
+
+    /** Publishes until the watcher has noticed the failure and the event is buffered locally. */
+    private StatusEventRing.Batch awaitLocalEvent(long from, DocumentStatusEvent event) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            feed.onStatusChanged(event);
+            StatusEventRing.Batch batch = ring.read(from, 1, Duration.ofMillis(20));
+            if (!batch.entries().isEmpty()) {
+                return batch;
+            }
+        }
+        return fail("event was not buffered after the stream failed");
+    }
+
+    /**
+     * Makes the collection's change stream hand out {@code changes} one at a time; a
+     * queued {@link MongoException} is thrown instead.
+     */
+    @SuppressWarnings("unchecked")
+    private ChangeStreamIterable<Document> watchReturning(BlockingQueue<Object> changes) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        BsonDocument[] resumeToken = new BsonDocument[1];
+
+        when(mongoTemplate.getCollectionName(ProcessingDocument.class)).thenReturn("documents");
+        when(mongoTemplate.getCollection("documents")).thenReturn(collection);
+        when(collection.watch(anyList())).thenReturn(stream);
+        when(stream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(stream);
+        when(stream.resumeAfter(any(BsonDocument.class))).thenReturn(stream);
+        when(stream.cursor()).thenReturn(cursor);
+        when(cursor.getResumeToken()).thenAnswer(invocation -> resumeToken[0]);
+        when(cursor.tryNext()).thenAnswer(invocation -> {
+            Object next = changes.poll(10, TimeUnit.MILLISECONDS);
+            if (next instanceof MongoException error) {
+                throw error;
+            }
+            ChangeStreamDocument<Document> change = (ChangeStreamDocument<Document>) next;
+            if (change != null) {
+                resumeToken[0] = change.getResumeToken();
+            }
+            return change;
+        });
+        return stream;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(String documentId, ProcessingStatus status, String token) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getFullDocument()).thenReturn(new Document("status", status.name()));
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(documentId)));
+        when(change.getResumeToken()).thenReturn(new BsonDocument("_data", new BsonString(token)));
+        return change;
+    }
+
+    private static DocumentStatusEvent event(String documentId, ProcessingStatus status) {
+        return DocumentStatusEvent.of(documentId, status, null);
+    }
+}
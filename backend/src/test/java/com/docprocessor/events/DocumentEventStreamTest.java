@@ -0,0 +1,101 @@
+package com.docprocessor.events;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentEventStreamTest {
+
+    private StatusEventRing ring;
+    private DocumentEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        ring = new StatusEventRing(4);
+        DocumentChangeFeed feed = mock(DocumentChangeFeed.class);
+        when(feed.getRing()).thenReturn(ring);
+        eventStream = new DocumentEventStream(feed, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStream.shutdown();
+    }
+
+    @Test
+    void testChangesAfterTheLastEventIdAreReplayed() throws Exception {
+        ring.append("t1", event("a", ProcessingStatus.UPLOADED));
+        ring.append("t2", event("a", ProcessingStatus.PROCESSING));
+        ring.append("t3", event("a", ProcessingStatus.VALIDATED));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventStream.subscribe(emitter, "t1");
+
+        assertTrue(emitter.next().contains("id:t2\n"));
+        assertTrue(emitter.next().contains("id:t3\n"));
+        assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testUnknownLastEventIdGetsAResetAndOnlyNewChanges() throws Exception {
+        ring.append("t1", event("a", ProcessingStatus.UPLOADED));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventStream.subscribe(emitter, "local-other-node-7");
+
+        assertTrue(emitter.next().contains("event:" + DocumentEventStream.RESET_EVENT + "\n"));
+        ring.append("t2", event("b", ProcessingStatus.UPLOADED));
+        String status = emitter.next();
+        assertTrue(status.contains("id:t2\n"));
+        assertTrue(status.contains("event:" + DocumentEventStream.STATUS_EVENT + "\n"));
+    }
+
+    @Test
+    void testGapInTheFeedIsSentAsReset() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        eventStream.subscribe(emitter, null);
+
+        ring.append(null, null);
+        ring.append("t1", event("a", ProcessingStatus.PROCESSING));
+
+        assertTrue(emitter.next().contains("event:" + DocumentEventStream.RESET_EVENT + "\n"));
+        assertTrue(emitter.next().contains("id:t1\n"));
+    }
+
+    private static DocumentStatusEvent event(String documentId, ProcessingStatus status) {
+        return DocumentStatusEvent.of(documentId, status, null);
+    }
+
+    /** Collects each sent event as its wire text instead of writing to a response. */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            events.add(text.toString());
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event sent");
+            return event;
+        }
+    }
+}
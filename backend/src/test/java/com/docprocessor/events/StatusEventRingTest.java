@@ -0,0 +1,78 @@
+package com.docprocessor.events;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusEventRingTest {
+
+    @Test
+    void testReadersResumeFromTheirOwnPosition() throws Exception {
+        StatusEventRing ring = new StatusEventRing(4);
+        long start = ring.head();
+        ring.append("t1", event("a", ProcessingStatus.UPLOADED));
+        ring.append("t2", event("a", ProcessingStatus.PROCESSING));
+        ring.append("t3", event("b", ProcessingStatus.UPLOADED));
+
+        StatusEventRing.Batch first = ring.read(start, 2, Duration.ZERO);
+        assertEquals(2, first.entries().size());
+        assertEquals("t1", first.entries().get(0).id());
+        assertFalse(first.missed());
+
+        StatusEventRing.Batch second = ring.read(first.next(), 10, Duration.ZERO);
+        assertEquals(1, second.entries().size());
+        assertEquals("t3", second.entries().get(0).id());
+
+        assertEquals(OptionalLong.of(second.next()), ring.positionAfter("t3"));
+        assertEquals(OptionalLong.of(start + 1), ring.positionAfter("t1"));
+        assertTrue(ring.positionAfter("unknown").isEmpty());
+    }
+
+    @Test
+    void testReaderThatFellBehindIsToldAndMovedToTheHead() throws Exception {
+        StatusEventRing ring = new StatusEventRing(2);
+        long start = ring.head();
+        for (int i = 1; i <= 5; i++) {
+            ring.append("t" + i, event("a", ProcessingStatus.PROCESSING));
+        }
+
+        StatusEventRing.Batch batch = ring.read(start, 10, Duration.ZERO);
+        assertTrue(batch.missed());
+        assertTrue(batch.entries().isEmpty());
+        assertEquals(ring.head(), batch.next());
+        assertTrue(ring.positionAfter("t1").isEmpty());
+        assertTrue(ring.positionAfter("t4").isPresent());
+    }
+
+    @Test
+    void testReadWaitsForTheNextAppend() throws Exception {
+        StatusEventRing ring = new StatusEventRing(4);
+        long start = ring.head();
+
+        assertTrue(ring.read(start, 10, Duration.ofMillis(10)).entries().isEmpty());
+
+        CompletableFuture<StatusEventRing.Batch> pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ring.read(start, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        ring.append("t1", event("a", ProcessingStatus.VALIDATED));
+
+        StatusEventRing.Batch batch = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(1, batch.entries().size());
+        assertEquals(ProcessingStatus.VALIDATED, batch.entries().get(0).event().getStatus());
+    }
+
+    private static DocumentStatusEvent event(String documentId, ProcessingStatus status) {
+        return DocumentStatusEvent.of(documentId, status, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.docprocessor.extraction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionRuleRegistryTest {
+
+    private static final String RULES = """
+            document-types:
+              invoice:
+                detect-keywords: [invoice]
+                fields:
+                  - field: invoiceNumber
+                    type: text
+                    patterns:
+                      - regex: '%s\\s*:\\s*([A-Z0-9-]+)'
+                        keyword: %s
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReloadsModifiedRulesAndKeepsPreviousOnError() throws Exception {
+        Path file = tempDir.resolve("rules.yml");
+        Files.writeString(file, RULES.formatted("Ref", "Ref"));
+        ExtractionRuleRegistry registry = new ExtractionRuleRegistry(
+                new FileSystemResource(file), InvoiceExtractionEngineTest.FACTORIES);
+
+        assertEquals("A-1", registry.getRules().extract("Ref: A-1").get("invoiceNumber", String.class));
+
+        Files.writeString(file, RULES.formatted("Order", "Order"));
+        touch(file, 1);
+        registry.reloadIfModified();
+
+        assertNull(registry.getRules().extract("Ref: A-1").get("invoiceNumber", String.class));
+        assertEquals("B-2", registry.getRules().extract("Order: B-2").get("invoiceNumber", String.class));
+
+        Files.writeString(file, RULES.formatted("Order", "Order").replace("type: text", "type: unknown"));
+        touch(file, 2);
+        registry.reloadIfModified();
+
+        assertEquals("B-2", registry.getRules().extract("Order: B-2").get("invoiceNumber", String.class));
+    }
+
+    private static void touch(Path file, int minutes) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60L * minutes)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.docprocessor.extraction;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoiceExtractionEngineTest {
+
+    static final List<FieldExtractorFactory> FACTORIES = List.of(
+            new TextFieldExtractorFactory(),
+            new DateFieldExtractorFactory(),
+            new AmountFieldExtractorFactory(),
+            new LineItemFieldExtractorFactory(),
+            new KeywordFieldExtractorFactory());
+
+    private final InvoiceExtractionEngine engine = new InvoiceExtractionEngine(
+            new ExtractionRuleRegistry(new ClassPathResource("extraction-rules.yml"), FACTORIES));
+
+    @Test
+    void testCountsMatchSplitSemantics() {
+        List<String> texts = List.of(
+                "", " ", "\n", "\n\n", "one", " one two ", "one\ntwo\n\n", "\none\n two\t\tthree\r\n",
+                "INVOICE\nCompany: Tech Solutions Ltd\nNumber: INV-2024-045\nDate: 07/10/2024");
+
+        for (String text : texts) {
+            Map<String, Object> data = engine.extractStructuredData(text);
+
+            assertEquals(text.split("\\s+").length, data.get("wordCount"), "wordCount for [" + text + "]");
+            assertEquals(text.split("\n").length, data.get("lineCount"), "lineCount for [" + text + "]");
+            assertEquals(text.length(), data.get("characterCount"));
+        }
+    }
+
+    @Test
+    void testExtractMetadata() {
+        DocumentMetadata metadata = engine.extractMetadata(
+                "Invoice #: INV-2024-045\nDate: 07/10/2024\nTotal Amount: $2,850.50\nConsulting Services\n15 hours x $190.03");
+
+        assertEquals("INV-2024-045", metadata.getInvoiceNumber());
+        assertEquals(LocalDate.of(2024, 10, 7), metadata.getInvoiceDate());
+        assertEquals(new BigDecimal("2850.50"), metadata.getTotalAmount());
+        assertEquals(1, metadata.getItems().size());
+        assertEquals("Consulting Services", metadata.getItems().get(0).getDescription());
+        assertEquals(new BigDecimal("15"), metadata.getItems().get(0).getQuantity());
+        assertEquals(new BigDecimal("190.03"), metadata.getItems().get(0).getUnitPrice());
+    }
+
+    @Test
+    void testExtractVendorName() {
+        assertEquals("Digital Innovations", engine.extractMetadata(
+                "INVOICE\nCompany Name: Digital Innovations\nInvoice: 000123456").getVendorName());
+        assertEquals("Northwind Traders", engine.extractMetadata(
+                "INVOICE\nSupplier: Northwind Traders\nBill To: Enterprise Holdings").getVendorName());
+        assertNull(engine.extractMetadata(
+                "INVOICE\nBill To: Enterprise Holdings\nInvoice Number: 2024-INV-789").getVendorName());
+    }
+
+    @Test
+    void testExtractCustomerName() {
+        assertEquals("Enterprise Holdings", engine.extractMetadata(
+                "INVOICE\nBill To: Enterprise Holdings\nInvoice Number: 2024-INV-789").getCustomerName());
+        assertNull(engine.extractMetadata(
+                "INVOICE\nCompany Name: Digital Innovations\nInvoice: 000123456").getCustomerName());
+    }
+
+    @Test
+    void testExtractMetadataFallsBackWhenFieldsAreMissing() {
+        DocumentMetadata metadata = engine.extractMetadata("nothing to see here");
+
+        assertTrue(metadata.getInvoiceNumber().startsWith("INV-2024-"));
+        assertNull(metadata.getVendorName());
+        assertNull(metadata.getCustomerName());
+        assertEquals(LocalDate.now(), metadata.getInvoiceDate());
+        assertNotNull(metadata.getTotalAmount());
+        assertEquals("Professional Services", metadata.getItems().get(0).getDescription());
+        assertEquals(metadata.getTotalAmount(), metadata.getItems().get(0).getUnitPrice());
+    }
+}
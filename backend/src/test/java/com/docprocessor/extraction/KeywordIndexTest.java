@@ -0,0 +1,39 @@
+package com.docprocessor.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordIndexTest {
+
+    @Test
+    void testScanFindsOverlappingKeywordsIgnoringCase() {
+        KeywordIndex.Builder builder = KeywordIndex.builder();
+        int he = builder.add("he");
+        int she = builder.add("She");
+        int his = builder.add("his");
+        int hers = builder.add("hers");
+        int total = builder.add("total due");
+        KeywordIndex index = builder.build();
+
+        BitSet hits = index.scan("USHERS");
+
+        assertTrue(hits.get(he));
+        assertTrue(hits.get(she));
+        assertTrue(hits.get(hers));
+        assertFalse(hits.get(his));
+        assertFalse(hits.get(total));
+        assertTrue(index.scan("Total Due: $3,199.99").get(total));
+        assertTrue(index.scan("Total  Due").isEmpty());
+    }
+
+    @Test
+    void testSameKeywordGetsSameId() {
+        KeywordIndex.Builder builder = KeywordIndex.builder();
+
+        assertEquals(builder.add("Invoice"), builder.add("INVOICE"));
+        assertEquals(1, builder.build().size());
+    }
+}
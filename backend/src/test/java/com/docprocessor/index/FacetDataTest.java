@@ -0,0 +1,65 @@
+package com.docprocessor.index;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetDataTest {
+
+    private FacetData data;
+
+    @BeforeEach
+    void setUp() {
+        data = new FacetData();
+        data.load("a", ProcessingStatus.VALIDATED, "ACME Corp", new BigDecimal("100.00"), LocalDate.of(2024, 1, 10));
+        data.load("b", ProcessingStatus.VALIDATED, "acme  corp", new BigDecimal("250.50"), LocalDate.of(2024, 2, 1));
+        data.load("c", ProcessingStatus.FAILED, "Tech Solutions", new BigDecimal("999.99"), LocalDate.of(2024, 3, 5));
+        data.load("d", ProcessingStatus.UPLOADED, null, null, null);
+        data.compact();
+    }
+
+    @Test
+    void testCountsExcludeTheFacetsOwnSelection() {
+        FacetResult result = data.query(new FacetQuery(Set.of(ProcessingStatus.VALIDATED), Set.of(),
+                null, null, null, null), 0, 10, 20);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of("b", "a"), result.documentIds());
+        assertEquals(Map.of(ProcessingStatus.VALIDATED, 2L, ProcessingStatus.FAILED, 1L, ProcessingStatus.UPLOADED, 1L),
+                result.statusCounts());
+        assertEquals(Map.of("ACME Corp", 2L), result.vendorCounts());
+    }
+
+    @Test
+    void testCombinesRangesAndVendors() {
+        FacetResult result = data.query(new FacetQuery(Set.of(), Set.of("ACME CORP"),
+                new BigDecimal("200"), null, null, LocalDate.of(2024, 12, 31)), 0, 10, 20);
+
+        assertEquals(List.of("b"), result.documentIds());
+        assertEquals(Map.of(ProcessingStatus.VALIDATED, 1L), result.statusCounts());
+        assertEquals(Map.of("ACME Corp", 1L, "Tech Solutions", 1L), result.vendorCounts());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void testUpsertAndRemoveMoveDocumentsBetweenFacets() {
+        data.upsert("d", ProcessingStatus.VALIDATED, "Tech Solutions", new BigDecimal("50.00"), LocalDate.of(2024, 4, 1));
+        data.remove("c");
+
+        FacetResult result = data.query(new FacetQuery(Set.of(), Set.of("tech solutions"),
+                null, new BigDecimal("100.00"), null, null), 0, 1, 20);
+
+        assertEquals(List.of("d"), result.documentIds());
+        assertNull(result.statusCounts().get(ProcessingStatus.FAILED));
+        assertNull(result.statusCounts().get(ProcessingStatus.UPLOADED));
+        assertEquals(3, data.size());
+    }
+}
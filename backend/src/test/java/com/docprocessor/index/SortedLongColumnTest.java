@@ -0,0 +1,57 @@
+package com.docprocessor.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedLongColumnTest {
+
+    @Test
+    void testRangeIgnoresReplacedAndClearedValues() {
+        SortedLongColumn column = new SortedLongColumn();
+        column.set(0, 100);
+        column.set(1, 200);
+        column.set(2, 300);
+        column.compact();
+
+        column.set(1, 500);
+        column.clear(2);
+
+        assertArrayEquals(new int[]{0}, column.range(0, 400).toArray());
+        assertArrayEquals(new int[]{1}, column.range(400, 600).toArray());
+
+        column.compact();
+        assertArrayEquals(new int[]{0, 1}, column.range(Long.MIN_VALUE, Long.MAX_VALUE).toArray());
+    }
+
+    @Test
+    void testRangeMatchesLinearScanAcrossMerges() {
+        SortedLongColumn column = new SortedLongColumn();
+        long[] expected = new long[2000];
+        boolean[] present = new boolean[expected.length];
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            int ordinal = random.nextInt(expected.length);
+            if (random.nextInt(10) == 0) {
+                column.clear(ordinal);
+                present[ordinal] = false;
+            } else {
+                expected[ordinal] = random.nextInt(1000) - 500;
+                present[ordinal] = true;
+                column.set(ordinal, expected[ordinal]);
+            }
+        }
+
+        for (int from = -500; from < 500; from += 37) {
+            int to = from + random.nextInt(200);
+            int finalFrom = from;
+            int[] scan = java.util.stream.IntStream.range(0, expected.length)
+                    .filter(o -> present[o] && expected[o] >= finalFrom && expected[o] <= to)
+                    .toArray();
+            assertArrayEquals(scan, column.range(from, to).toArray(), "range " + from + ".." + to);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.docprocessor.messaging;
+
+import com.docprocessor.config.RabbitMQConfig;
+import com.docprocessor.exception.DocumentProcessingException;
+import com.docprocessor.exception.ErrorCode;
+import com.docprocessor.service.impl.DocumentProcessingService;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.test.TestRabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+@TestPropertySource(properties = {
+        "app.processing.dispatch-mode=rabbitmq",
+        "app.messaging.processing-queue=document.processing"
+})
+class DocumentProcessingListenerTest {
+
+    @Autowired
+    private TestRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private DocumentProcessingService processingService;
+
+    @BeforeEach
+    void setUp() {
+        reset(processingService);
+    }
+
+    @Test
+    void testProcessingRequestRunsPipeline() throws Exception {
+        rabbitTemplate.convertAndSend("document.processing", DocumentProcessingMessage.of("doc-1"));
+
+        verify(processingService).processDocument("doc-1");
+    }
+
+    @Test
+    void testMissingDocumentIsDropped() throws Exception {
+        doThrow(new DocumentProcessingException(ErrorCode.DOCUMENT_NOT_FOUND, "doc-2"))
+                .when(processingService).processDocument("doc-2");
+
+        rabbitTemplate.convertAndSend("document.processing", DocumentProcessingMessage.of("doc-2"));
+
+        verify(processingService).processDocument("doc-2");
+        verify(processingService, never()).markAsFailed(anyString(), anyString());
+    }
+
+    @Configuration
+    @EnableRabbit
+    @Import({DocumentProcessingListener.class, RabbitMQConfig.class})
+    static class Config {
+
+        @Bean
+        ConnectionFactory connectionFactory() throws Exception {
+            ConnectionFactory factory = mock(ConnectionFactory.class);
+            Connection connection = mock(Connection.class);
+            Channel channel = mock(Channel.class);
+            when(factory.createConnection()).thenReturn(connection);
+            when(connection.createChannel(anyBoolean())).thenReturn(channel);
+            when(channel.isOpen()).thenReturn(true);
+            return factory;
+        }
+
+        @Bean
+        TestRabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
+            TestRabbitTemplate template = new TestRabbitTemplate(connectionFactory);
+            template.setMessageConverter(jsonMessageConverter);
+            return template;
+        }
+
+        @Bean
+        SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                           MessageConverter jsonMessageConverter) {
+            SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+            factory.setConnectionFactory(connectionFactory);
+            factory.setMessageConverter(jsonMessageConverter);
+            factory.setAutoStartup(false);
+            return factory;
+        }
+
+        // Boot's conversions for @Value fields (e.g. Durations) of the mocked service
+        @Bean
+        static ConversionService conversionService() {
+            return new ApplicationConversionService();
+        }
+
+        @Bean
+        DocumentProcessingService documentProcessingService() {
+            return mock(DocumentProcessingService.class);
+        }
+    }
+}
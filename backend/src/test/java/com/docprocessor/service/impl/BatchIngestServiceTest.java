@@ -0,0 +1,124 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.dto.BatchItemResult;
+import com.docprocessor.domain.dto.BatchUploadResponse;
+import com.docprocessor.domain.entities.IngestBatch;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BatchIngestServiceTest {
+
+    private StorageServiceImpl storageService;
+    private MongoTemplate mongoTemplate;
+    private ProcessingDispatcher dispatcher;
+    private BatchIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageServiceImpl.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        dispatcher = mock(ProcessingDispatcher.class);
+        service = new BatchIngestService(storageService, mongoTemplate, dispatcher,
+                mock(DocumentStatusPublisher.class), mock(DocumentStatisticsService.class));
+        ReflectionTestUtils.setField(service, "maxFileSize", 1024L * 1024);
+        ReflectionTestUtils.setField(service, "allowedTypes", new String[]{"application/pdf", "image/png"});
+        ReflectionTestUtils.setField(service, "dispatchTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "maxItems", 100);
+        ReflectionTestUtils.setField(service, "insertChunkSize", 2);
+
+        when(mongoTemplate.insert(any(IngestBatch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(storageService.storeStream(any(InputStream.class), anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    byte[] content = invocation.getArgument(0, InputStream.class).readAllBytes();
+                    String hash = "hash-" + new String(content, StandardCharsets.UTF_8);
+                    return StorageServiceImpl.StoredFile.builder()
+                            .fileId(hash).contentHash(hash).sizeBytes(content.length)
+                            .contentType(invocation.getArgument(2)).build();
+                });
+    }
+
+    @Test
+    void testZipEntriesAreStoredInsertedInChunksAndDispatched() throws IOException {
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BatchUploadResponse response = service.ingestZip(zip(
+                "scans/", null,
+                "scans/a.pdf", "a",
+                "__MACOSX/scans/._a.pdf", "fork",
+                "scans/notes.txt", "notes",
+                "b.png", "b",
+                "c.pdf", "c"), "acme");
+
+        assertEquals(3, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertEquals(List.of("a.pdf", "notes.txt", "b.png", "c.pdf"),
+                response.getItems().stream().map(BatchItemResult::getFilename).toList());
+        assertTrue(response.getItems().get(1).getError().startsWith("Unsupported file type"));
+        assertEquals(1L, response.getItems().get(0).getFileSizeBytes());
+
+        verify(mongoTemplate, times(2)).insertAll(anyCollection());
+        ArgumentCaptor<ProcessingDocument> dispatched = ArgumentCaptor.forClass(ProcessingDocument.class);
+        verify(dispatcher, times(3)).dispatch(dispatched.capture());
+        assertTrue(dispatched.getAllValues().stream().allMatch(document ->
+                "acme".equals(document.getCustomerId()) && response.getBatchId().equals(document.getBatchId())));
+        verify(storageService, never()).storeStream(any(), eq("notes.txt"), any(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedInsertReleasesOnlyFilesOfDocumentsThatWereNotInserted() throws IOException {
+        ReflectionTestUtils.setField(service, "insertChunkSize", 10);
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<ProcessingDocument> documents = invocation.getArgument(0);
+            ProcessingDocument first = documents.iterator().next();
+            when(mongoTemplate.find(any(Query.class), eq(ProcessingDocument.class))).thenReturn(List.of(first));
+            throw new DataAccessResourceFailureException("connection reset");
+        });
+
+        BatchUploadResponse response = service.ingestZip(zip("a.pdf", "a", "b.pdf", "b"), null);
+
+        assertEquals(1, response.getAccepted());
+        assertNotNull(response.getItems().get(0).getDocumentId());
+        assertEquals("Failed to register document", response.getItems().get(1).getError());
+        verify(storageService).deleteFile("hash-b");
+        verify(storageService, never()).deleteFile("hash-a");
+        verify(dispatcher, times(1)).dispatch(argThat(document ->
+                document.getId().equals(response.getItems().get(0).getDocumentId())));
+    }
+
+    private static InputStream zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                if (namesAndContents[i + 1] != null) {
+                    zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,50 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.FileBlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlobReferenceCounterTest {
+
+    private MongoTemplate mongoTemplate;
+    private BlobReferenceCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        counter = new BlobReferenceCounter(mongoTemplate);
+    }
+
+    @Test
+    void testReleaseOnlyDecrementsPositiveCounts() {
+        FileBlob blob = new FileBlob();
+        blob.setRefCount(1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(FileBlob.class))).thenReturn(blob);
+
+        assertEquals(1, counter.release("hash"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(FileBlob.class));
+        assertEquals(new org.bson.Document("$gt", 0), query.getValue().getQueryObject().get("refCount"));
+    }
+
+    @Test
+    void testReleaseTellsUnreferencedFromUntracked() {
+        when(mongoTemplate.exists(any(Query.class), eq(FileBlob.class))).thenReturn(true, false);
+
+        assertEquals(0, counter.release("unreferenced"));
+        assertEquals(BlobReferenceCounter.UNTRACKED, counter.release("legacy"));
+    }
+}
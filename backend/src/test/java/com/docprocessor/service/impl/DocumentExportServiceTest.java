@@ -0,0 +1,116 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ExportFormat;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DocumentExportServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ObjectMapper objectMapper;
+    private DocumentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new DocumentExportService(mongoTemplate, objectMapper);
+
+        when(mongoTemplate.stream(any(Query.class), eq(ProcessingDocument.class)))
+                .thenAnswer(invocation -> Stream.of(
+                        document("507f1f77bcf86cd799439011", "invoice, march.pdf", "ACME Corp"),
+                        document("507f1f77bcf86cd799439012", "=cmd.pdf", null)));
+    }
+
+    @Test
+    void testExportsGzippedNdjsonOneDocumentPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(ExportFormat.NDJSON, null, null, null, true, out);
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = text.lines().toList();
+        assertEquals(2, count);
+        assertEquals(2, lines.size());
+        assertTrue(text.endsWith("\n"));
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("507f1f77bcf86cd799439011", first.get("id").asText());
+        assertEquals("Globex Supplies", first.get("metadata").get("vendorName").asText());
+        assertEquals("ACME Corp", first.get("metadata").get("customerName").asText());
+        assertEquals("2024-03-01", first.get("metadata").get("invoiceDate").asText());
+        assertFalse(first.has("ocrResult"));
+    }
+
+    @Test
+    void testExportsCsvWithHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ExportFormat.CSV, ProcessingStatus.VALIDATED, null, null, false, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals(DocumentExportService.CSV_HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith("507f1f77bcf86cd799439011,\"invoice, march.pdf\",VALIDATED,"));
+        assertTrue(lines.get(1).contains(",INV-1,Globex Supplies,ACME Corp,2024-03-01,1250.50,0,application/pdf,1024,"));
+    }
+
+    @Test
+    void testCsvTextIsQuotedAndFormulasAreNeutralised() throws IOException {
+        assertEquals("plain", csv("plain"));
+        assertEquals("\"a,b\"", csv("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", csv("say \"hi\""));
+        assertEquals("\"line\nbreak\"", csv("line\nbreak"));
+        assertEquals("\"'=SUM(A1:A2)\"", csv("=SUM(A1:A2)"));
+        assertEquals("", csv(null));
+    }
+
+    private static String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        DocumentExportService.writeCsvText(writer, value);
+        return writer.toString();
+    }
+
+    private static ProcessingDocument document(String id, String filename, String customerName) {
+        ProcessingDocument document = new ProcessingDocument();
+        document.setId(id);
+        document.setFilename(filename);
+        document.setStatus(ProcessingStatus.VALIDATED);
+        document.setContentType("application/pdf");
+        document.setFileSizeBytes(1024L);
+        document.setUploadedAt(LocalDateTime.of(2024, 3, 1, 10, 0));
+        DocumentMetadata metadata = new DocumentMetadata(customerName, "INV-1", LocalDate.of(2024, 3, 1), new BigDecimal("1250.50"));
+        metadata.setVendorName("Globex Supplies");
+        document.setMetadata(metadata);
+        return document;
+    }
+}
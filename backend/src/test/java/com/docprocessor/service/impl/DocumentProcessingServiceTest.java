@@ -0,0 +1,99 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.OCRResult;
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DocumentProcessingServiceTest {
+
+    private static final String DOCUMENT_ID = "507f1f77bcf86cd799439011";
+
+    private MongoTemplate mongoTemplate;
+    private ProcessingResultWriter resultWriter;
+    private DocumentStatusPublisher statusPublisher;
+    private DocumentStatisticsService statistics;
+    private DocumentProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        resultWriter = mock(ProcessingResultWriter.class);
+        statusPublisher = mock(DocumentStatusPublisher.class);
+        statistics = mock(DocumentStatisticsService.class);
+        OCRService ocrService = mock(OCRService.class);
+        ValidationServiceImpl validationService = mock(ValidationServiceImpl.class);
+        OcrResultCache ocrResultCache = mock(OcrResultCache.class);
+
+        service = new DocumentProcessingService(mongoTemplate, resultWriter, mock(StorageServiceImpl.class),
+                ocrService, validationService, ocrResultCache, mock(AsyncTaskExecutor.class),
+                statusPublisher, statistics);
+        ReflectionTestUtils.setField(service, "nodeId", "node-1");
+        ReflectionTestUtils.setField(service, "leaseDuration", Duration.ofMinutes(5));
+
+        ProcessingDocument uploaded = ProcessingDocument.builder()
+                .id(DOCUMENT_ID)
+                .filename("invoice.pdf")
+                .contentHash("abc")
+                .status(ProcessingStatus.UPLOADED)
+                .uploadedAt(LocalDateTime.now().minusHours(1))
+                .version(3L)
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ProcessingDocument.class))).thenReturn(uploaded);
+
+        OCRResult recognized = new OCRResult("INVOICE 42", 0.9, "en-US");
+        when(ocrResultCache.get(eq("abc"), anyString())).thenReturn(Optional.of(recognized));
+        when(ocrService.extract(recognized)).thenReturn(recognized);
+        when(validationService.validateDocument(any(ProcessingDocument.class)))
+                .thenReturn(ValidationServiceImpl.ValidationResult.valid());
+    }
+
+    @Test
+    void testWrittenResultIsRecordedAndPublished() throws Exception {
+        when(resultWriter.submit(any(Query.class), any(Update.class), any(Query.class)))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+
+        service.processDocument(DOCUMENT_ID);
+
+        verify(statistics).recordTransition(ProcessingStatus.PROCESSING, ProcessingStatus.VALIDATED);
+        // Latency is measured from the start of this run, not from the upload an hour ago
+        ArgumentCaptor<LocalDateTime> startedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(statistics).recordCompletion(eq(ProcessingStatus.VALIDATED), startedAt.capture(), any(), any());
+        assertTrue(startedAt.getValue().isAfter(LocalDateTime.now().minusMinutes(1)));
+        verify(statusPublisher).publish(DOCUMENT_ID, ProcessingStatus.VALIDATED, null);
+    }
+
+    @Test
+    void testSupersededResultIsNeitherRecordedNorPublished() throws Exception {
+        when(resultWriter.submit(any(Query.class), any(Update.class), any(Query.class)))
+                .thenReturn(CompletableFuture.completedFuture(0L));
+
+        service.processDocument(DOCUMENT_ID);
+
+        verify(statistics, never()).recordTransition(eq(ProcessingStatus.PROCESSING), eq(ProcessingStatus.VALIDATED));
+        verify(statistics, never()).recordCompletion(any(), any(), any(), any());
+        verify(statusPublisher, never()).publish(eq(DOCUMENT_ID), eq(ProcessingStatus.VALIDATED), any());
+        verify(statusPublisher).publish(DOCUMENT_ID, ProcessingStatus.PROCESSING);
+    }
+}
@@ -0,0 +1,116 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingStatsBucket;
+import com.docprocessor.domain.entities.StatusTotals;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DocumentStatisticsServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private DocumentStatisticsService statistics;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        statistics = new DocumentStatisticsService(mongoTemplate);
+        ReflectionTestUtils.setField(statistics, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(statistics, "topFailureReasons", 10);
+    }
+
+    @Test
+    void testFlushWritesOneIncrementPerRollup() {
+        LocalDateTime processedAt = LocalDateTime.of(2026, 1, 5, 10, 15, 30);
+        statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+        statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+        statistics.recordTransition(ProcessingStatus.UPLOADED, ProcessingStatus.PROCESSING);
+        statistics.recordTransition(ProcessingStatus.PROCESSING, ProcessingStatus.FAILED);
+        statistics.recordCompletion(ProcessingStatus.FAILED, processedAt.minusSeconds(3), processedAt,
+                "OCR confidence too low: 41.20% (minimum: 60%), Invoice number is required");
+
+        statistics.flush();
+        statistics.flush();
+
+        ArgumentCaptor<Update> totals = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), totals.capture(), eq(StatusTotals.class));
+        Document inc = (Document) totals.getValue().getUpdateObject().get("$inc");
+        assertEquals(Map.of("counts.UPLOADED", 1L, "counts.FAILED", 1L), inc);
+
+        ArgumentCaptor<Update> bucket = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), bucket.capture(), eq(ProcessingStatsBucket.class));
+        Document bucketInc = (Document) bucket.getValue().getUpdateObject().get("$inc");
+        assertEquals(1L, bucketInc.get("failed"));
+        assertEquals(3000L, bucketInc.get("latencySumMs"));
+        assertEquals(1L, bucketInc.get("latencyHistogram.5000"));
+        assertEquals(1L, bucketInc.get("failureReasons.OCR confidence too low"));
+        assertEquals(1L, bucketInc.get("failureReasons.Invoice number is required"));
+    }
+
+    @Test
+    void testCompletionThatNeverStartedProcessingHasNoLatency() {
+        LocalDateTime processedAt = LocalDateTime.of(2026, 1, 5, 10, 15, 30);
+        statistics.recordCompletion(ProcessingStatus.FAILED, null, processedAt, "Manual status update");
+
+        statistics.flush();
+
+        ArgumentCaptor<Update> bucket = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), bucket.capture(), eq(ProcessingStatsBucket.class));
+        Document bucketInc = (Document) bucket.getValue().getUpdateObject().get("$inc");
+        assertEquals(1L, bucketInc.get("completed"));
+        assertEquals(0L, bucketInc.get("latencySumMs"));
+        assertFalse(bucketInc.keySet().stream().anyMatch(key -> key.startsWith("latencyHistogram.")));
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(StatusTotals.class)))
+                .thenThrow(new IllegalStateException("unavailable"))
+                .thenReturn(null);
+        statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+
+        statistics.flush();
+        statistics.recordTransition(null, ProcessingStatus.UPLOADED);
+        statistics.flush();
+
+        ArgumentCaptor<Update> totals = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), totals.capture(), eq(StatusTotals.class));
+        assertEquals(2L, ((Document) totals.getValue().getUpdateObject().get("$inc")).get("counts.UPLOADED"));
+    }
+
+    @Test
+    void testPercentilesAreInterpolatedWithinBuckets() {
+        Map<String, Long> histogram = Map.of("250", 50L, "1000", 40L, "5000", 10L);
+
+        assertEquals(250, DocumentStatisticsService.percentile(histogram, 0.50));
+        assertEquals(1000, DocumentStatisticsService.percentile(histogram, 0.90));
+        assertEquals(4700, DocumentStatisticsService.percentile(histogram, 0.99));
+        assertEquals(3_600_000, DocumentStatisticsService.percentile(Map.of("+Inf", 3L), 0.5));
+        assertEquals("+Inf", DocumentStatisticsService.latencyBucket(5_000_000));
+    }
+
+    @Test
+    void testFailureReasonsAreNormalized() {
+        assertEquals(List.of("Processing did not complete after # attempts"),
+                DocumentStatisticsService.failureReasons("Processing did not complete after 5 attempts"));
+        assertEquals(List.of("Total amount exceeds maximum allowed"),
+                DocumentStatisticsService.failureReasons("Total amount exceeds maximum allowed: 1000000.00"));
+        assertEquals(List.of("Unknown"), DocumentStatisticsService.failureReasons(null));
+    }
+}
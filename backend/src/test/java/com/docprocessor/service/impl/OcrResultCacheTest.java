@@ -0,0 +1,96 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.DocumentMetadata;
+import com.docprocessor.domain.entities.OCRResult;
+import com.docprocessor.domain.entities.OcrCacheEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OcrResultCacheTest {
+
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OcrResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OcrResultCache(mongoTemplate, meterRegistry, 1024 * 1024);
+    }
+
+    @Test
+    void testPersistentHitIsPromotedToLocalTier() {
+        OCRResult result = new OCRResult("INVOICE 42", 0.9, "en-US");
+        when(mongoTemplate.findById("abc:engine-1", OcrCacheEntry.class))
+                .thenReturn(OcrCacheEntry.builder().id("abc:engine-1").result(result).build());
+
+        assertEquals("INVOICE 42", cache.get("abc", "engine-1").orElseThrow().getText());
+        assertEquals("INVOICE 42", cache.get("abc", "engine-1").orElseThrow().getText());
+
+        verify(mongoTemplate, times(1)).findById("abc:engine-1", OcrCacheEntry.class);
+        assertEquals(1.0, meterRegistry.get("ocr.cache.store.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "ocrResults").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testEngineVersionIsPartOfTheKey() {
+        OCRResult result = new OCRResult("INVOICE 42", 0.9, "en-US");
+
+        cache.put("abc", "engine-1", result);
+
+        verify(mongoTemplate).save(any(OcrCacheEntry.class));
+        assertTrue(cache.get("abc", "engine-1").isPresent());
+        assertTrue(cache.get("abc", "engine-2").isEmpty());
+        assertEquals(1.0, meterRegistry.get("ocr.cache.store.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testOnlyRecognitionOutputIsCached() {
+        OCRResult result = new OCRResult("INVOICE 42", 0.9, "en-US");
+        result.setProcessingEngine("engine-1");
+        result.setExtractedData(new HashMap<>(Map.of("invoiceNumber", "42")));
+        result.setExtractedMetadata(new DocumentMetadata("42", null, null));
+
+        cache.put("abc", "engine-1", result);
+
+        ArgumentCaptor<OcrCacheEntry> saved = ArgumentCaptor.forClass(OcrCacheEntry.class);
+        verify(mongoTemplate).save(saved.capture());
+        assertNull(saved.getValue().getResult().getExtractedMetadata());
+        assertTrue(saved.getValue().getResult().getExtractedData().isEmpty());
+
+        OCRResult first = cache.get("abc", "engine-1").orElseThrow();
+        assertEquals("INVOICE 42", first.getText());
+        assertEquals(0.9, first.getConfidence());
+        assertEquals("engine-1", first.getProcessingEngine());
+        assertNull(first.getExtractedMetadata());
+        assertTrue(first.getExtractedData().isEmpty());
+
+        first.setExtractedMetadata(new DocumentMetadata("7", null, null));
+        OCRResult second = cache.get("abc", "engine-1").orElseThrow();
+        assertNotSame(first, second);
+        assertNull(second.getExtractedMetadata());
+    }
+
+    @Test
+    void testPersistedExtractionIsDroppedOnRead() {
+        OCRResult legacy = new OCRResult("INVOICE 42", 0.9, "en-US");
+        legacy.setExtractedMetadata(new DocumentMetadata("42", null, null));
+        when(mongoTemplate.findById("abc:engine-1", OcrCacheEntry.class))
+                .thenReturn(OcrCacheEntry.builder().id("abc:engine-1").result(legacy).build());
+
+        assertNull(cache.get("abc", "engine-1").orElseThrow().getExtractedMetadata());
+        assertNull(cache.get("abc", "engine-1").orElseThrow().getExtractedMetadata());
+    }
+}
@@ -0,0 +1,125 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusPublisher;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProcessingRecoveryJobTest {
+
+    private MongoTemplate mongoTemplate;
+    private ProcessingDispatcher dispatcher;
+    private ProcessingRecoveryJob job;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        dispatcher = mock(ProcessingDispatcher.class);
+        job = new ProcessingRecoveryJob(mongoTemplate, dispatcher, mock(DocumentStatusPublisher.class),
+                mock(DocumentStatisticsService.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "leaseDuration", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "maxAttempts", 3);
+        ReflectionTestUtils.setField(job, "backoffInitial", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(job, "backoffMax", Duration.ofMinutes(2));
+
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(30), job.backoff(1));
+        assertEquals(Duration.ofSeconds(60), job.backoff(2));
+        assertEquals(Duration.ofMinutes(2), job.backoff(3));
+        assertEquals(Duration.ofMinutes(2), job.backoff(40));
+    }
+
+    @Test
+    void testExpiredLeasesAreRequeuedOrFailedByAttempts() {
+        when(mongoTemplate.find(any(Query.class), eq(ProcessingDocument.class)))
+                .thenReturn(List.of(processing("507f1f77bcf86cd799439011", 1), processing("507f1f77bcf86cd799439012", 3)))
+                .thenReturn(List.of());
+
+        job.recoverExpiredLeases();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq(ProcessingDocument.class));
+        assertEquals(ProcessingStatus.UPLOADED, set(updates.getAllValues().get(0)).get("status"));
+        assertEquals(ProcessingStatus.FAILED, set(updates.getAllValues().get(1)).get("status"));
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(ProcessingDocument.class));
+    }
+
+    @Test
+    void testDueDocumentsAreRedispatchedOnce() {
+        ProcessingDocument due = processing("507f1f77bcf86cd799439013", 1);
+        due.setStatus(ProcessingStatus.UPLOADED);
+        when(mongoTemplate.find(any(Query.class), eq(ProcessingDocument.class)))
+                .thenReturn(List.of(due))
+                .thenReturn(List.of());
+        when(dispatcher.dispatch(due)).thenReturn(true);
+
+        job.redispatchDueDocuments();
+
+        verify(dispatcher).dispatch(due);
+    }
+
+    @Test
+    void testCustomerIsSkippedForTheRestOfTheRunOnceRefused() {
+        ProcessingDocument first = uploaded("507f1f77bcf86cd799439013", "acme");
+        ProcessingDocument second = uploaded("507f1f77bcf86cd799439014", "acme");
+        ProcessingDocument other = uploaded("507f1f77bcf86cd799439015", "globex");
+        ProcessingDocument third = uploaded("507f1f77bcf86cd799439016", "acme");
+        when(mongoTemplate.find(any(Query.class), eq(ProcessingDocument.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(other, third))
+                .thenReturn(List.of());
+        when(dispatcher.dispatch(first)).thenReturn(false);
+        when(dispatcher.dispatch(other)).thenReturn(true);
+
+        job.redispatchDueDocuments();
+
+        verify(dispatcher).dispatch(first);
+        verify(dispatcher).dispatch(other);
+        verify(dispatcher, never()).dispatch(second);
+        verify(dispatcher, never()).dispatch(third);
+        // Only the documents that were dispatched, or tried, have their next attempt pushed back
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class));
+    }
+
+    private static ProcessingDocument processing(String id, int attempts) {
+        ProcessingDocument document = new ProcessingDocument("invoice.pdf");
+        document.setId(id);
+        document.setStatus(ProcessingStatus.PROCESSING);
+        document.setVersion(4L);
+        document.setProcessingAttempts(attempts);
+        return document;
+    }
+
+    private static ProcessingDocument uploaded(String id, String customerId) {
+        ProcessingDocument document = processing(id, 1);
+        document.setStatus(ProcessingStatus.UPLOADED);
+        document.setCustomerId(customerId);
+        return document;
+    }
+
+    private static org.bson.Document set(Update update) {
+        return (org.bson.Document) update.getUpdateObject().get("$set");
+    }
+}
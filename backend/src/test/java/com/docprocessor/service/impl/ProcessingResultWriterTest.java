@@ -0,0 +1,139 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.entities.ProcessingDocument;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProcessingResultWriterTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private ProcessingResultWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProcessingDocument.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 10, 0, 10, List.of(), List.of()));
+
+        writer = new ProcessingResultWriter(mongoTemplate);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(writer, "maxDelay", Duration.ofMillis(200));
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.stop();
+    }
+
+    @Test
+    void testConcurrentResultsAreCoalescedIntoOneBulkWrite() throws Exception {
+        List<CompletableFuture<Long>> written = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            written.add(writer.submit(byId("doc-" + i), new Update().set("status", "VALIDATED"), byId("doc-" + i)));
+        }
+
+        CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Long> matched : written) {
+            assertEquals(1L, matched.join());
+        }
+
+        verify(bulkOperations, times(10)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class));
+    }
+
+    @Test
+    void testFailedBulkWriteFallsBackToSingleUpdates() throws Exception {
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("bulk write failed"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1L, writer.submit(byId("doc-1"), new Update().set("status", "VALIDATED"), byId("doc-1"))
+                .get(5, TimeUnit.SECONDS));
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class));
+    }
+
+    @Test
+    void testUpdatesAppliedByAPartlyFailedBulkWriteAreNotReportedAsSuperseded() throws Exception {
+        MongoBulkWriteException partial = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "write failed", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed", partial));
+        // doc-1 was applied by the bulk write, so its version guard no longer matches
+        when(mongoTemplate.updateFirst(eq(byId("doc-1")), any(Update.class), eq(ProcessingDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mongoTemplate.updateFirst(eq(byId("doc-2")), any(Update.class), eq(ProcessingDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.exists(byId("applied-1"), ProcessingDocument.class)).thenReturn(true);
+
+        CompletableFuture<Long> first = writer.submit(byId("doc-1"), new Update().set("status", "VALIDATED"), byId("applied-1"));
+        CompletableFuture<Long> second = writer.submit(byId("doc-2"), new Update().set("status", "VALIDATED"), byId("applied-2"));
+
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, second.get(5, TimeUnit.SECONDS));
+        verify(mongoTemplate, never()).exists(byId("applied-2"), ProcessingDocument.class);
+    }
+
+    @Test
+    void testUpdatesAreWrittenDirectlyAfterShutdown() throws Exception {
+        writer.stop();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        CompletableFuture<Long> written = writer.submit(byId("doc-1"), new Update().set("status", "FAILED"), byId("doc-1"));
+
+        assertTrue(written.isDone());
+        assertEquals(0L, written.join());
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(ProcessingDocument.class));
+    }
+
+    @Test
+    void testSupersededUpdatesOfAPartialBatchAreReportedIndividually() throws Exception {
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+        when(mongoTemplate.exists(byId("applied"), ProcessingDocument.class)).thenReturn(true);
+        when(mongoTemplate.exists(byId("superseded"), ProcessingDocument.class)).thenReturn(false);
+
+        CompletableFuture<Long> applied = writer.submit(byId("doc-1"), new Update().set("status", "VALIDATED"), byId("applied"));
+        CompletableFuture<Long> superseded = writer.submit(byId("doc-2"), new Update().set("status", "VALIDATED"), byId("superseded"));
+
+        assertEquals(1L, applied.get(5, TimeUnit.SECONDS));
+        assertEquals(0L, superseded.get(5, TimeUnit.SECONDS));
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    private static Query byId(String documentId) {
+        return Query.query(Criteria.where("_id").is(documentId));
+    }
+}
@@ -0,0 +1,112 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.domain.enums.ProcessingLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProcessingSchedulerTest {
+
+    private final List<String> started = new ArrayList<>();
+    private final Map<String, CompletableFuture<Void>> running = new HashMap<>();
+    private ProcessingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        DocumentProcessingService processingService = mock(DocumentProcessingService.class);
+        when(processingService.processDocumentAsync(anyString())).thenAnswer(invocation -> {
+            String documentId = invocation.getArgument(0);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            started.add(documentId);
+            running.put(documentId, future);
+            return future;
+        });
+        scheduler = new ProcessingScheduler(processingService, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testInteractiveUploadsGoAheadOfBulkAndKeepAReservedWorker() {
+        configure(2, 1, 3, 100);
+
+        scheduler.submit("bulk-1", "acme", ProcessingLane.BULK);
+        scheduler.submit("bulk-2", "acme", ProcessingLane.BULK);
+        assertEquals(List.of("bulk-1"), started);
+
+        scheduler.submit("single-1", "globex", ProcessingLane.INTERACTIVE);
+        assertEquals(List.of("bulk-1", "single-1"), started);
+
+        scheduler.submit("single-2", "globex", ProcessingLane.INTERACTIVE);
+        complete("bulk-1");
+        assertEquals(List.of("bulk-1", "single-1", "single-2"), started);
+
+        complete("single-1");
+        assertEquals(3, started.size());
+        complete("single-2");
+        assertEquals(List.of("bulk-1", "single-1", "single-2", "bulk-2"), started);
+    }
+
+    @Test
+    void testCustomersShareWorkersByWeight() {
+        configure(1, 0, 1, 100, "small:2");
+
+        for (int i = 1; i <= 4; i++) {
+            scheduler.submit("big-" + i, "big", ProcessingLane.BULK);
+        }
+        for (int i = 1; i <= 4; i++) {
+            scheduler.submit("small-" + i, "small", ProcessingLane.BULK);
+        }
+        while (started.size() < 8) {
+            complete(started.get(started.size() - 1));
+        }
+
+        assertEquals(List.of("big-1", "small-1", "small-2", "small-3", "big-2", "small-4", "big-3", "big-4"), started);
+        assertEquals(0, scheduler.queuedCount());
+    }
+
+    @Test
+    void testCustomerConcurrencyAndQueueAreCapped() {
+        configure(3, 0, 2, 2);
+
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(scheduler.submit("acme-" + i, "acme", ProcessingLane.INTERACTIVE));
+        }
+        assertFalse(scheduler.submit("acme-5", "acme", ProcessingLane.INTERACTIVE));
+        assertTrue(scheduler.submit("acme-3", "acme", ProcessingLane.INTERACTIVE));
+        assertEquals(List.of("acme-1", "acme-2"), started);
+
+        scheduler.submit("globex-1", "globex", ProcessingLane.INTERACTIVE);
+        assertEquals(List.of("acme-1", "acme-2", "globex-1"), started);
+        assertEquals(2, scheduler.queuedCount());
+        assertEquals(3, scheduler.runningCount());
+
+        running.get("globex-1").completeExceptionally(new IllegalStateException("OCR failed"));
+        assertEquals(3, started.size());
+        complete("acme-1");
+        assertEquals(List.of("acme-1", "acme-2", "globex-1", "acme-3"), started);
+    }
+
+    private void configure(int concurrency, int reservedInteractive, int perCustomer, int queuedPerCustomer,
+                           String... weights) {
+        ReflectionTestUtils.setField(scheduler, "concurrency", concurrency);
+        ReflectionTestUtils.setField(scheduler, "reservedInteractiveSlots", reservedInteractive);
+        ReflectionTestUtils.setField(scheduler, "maxConcurrencyPerCustomer", perCustomer);
+        ReflectionTestUtils.setField(scheduler, "maxQueuedPerCustomer", queuedPerCustomer);
+        ReflectionTestUtils.setField(scheduler, "customerWeights", weights);
+        scheduler.init();
+    }
+
+    private void complete(String documentId) {
+        running.get(documentId).complete(null);
+    }
+}
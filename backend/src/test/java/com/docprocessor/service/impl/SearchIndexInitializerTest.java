@@ -0,0 +1,32 @@
+package com.docprocessor.service.impl;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexInitializerTest {
+
+    @Test
+    void testTextIndexWeightsInvoiceNumberAboveFilenameAboveOcrText() {
+        Document options = SearchIndexInitializer.textIndex().getIndexOptions();
+        Document weights = (Document) options.get("weights");
+
+        assertEquals(SearchIndexInitializer.TEXT_INDEX, options.get("name"));
+        assertTrue(weight(weights, "metadata.invoiceNumber") > weight(weights, "filename"));
+        assertTrue(weight(weights, "filename") > weight(weights, "ocrResult.text"));
+    }
+
+    // Fields at the default weight of 1 are left out of the options
+    private static float weight(Document weights, String field) {
+        return ((Number) weights.getOrDefault(field, 1)).floatValue();
+    }
+
+    @Test
+    void testTextIndexIgnoresOcrLanguageField() {
+        Document options = SearchIndexInitializer.textIndex().getIndexOptions();
+
+        assertEquals("none", options.get("default_language"));
+        assertNotEquals("language", options.get("language_override"));
+    }
+}
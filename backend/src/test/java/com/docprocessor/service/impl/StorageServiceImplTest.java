@@ -0,0 +1,142 @@
+package com.docprocessor.service.impl;
+
+import com.docprocessor.exception.ValidationException;
+import com.docprocessor.storage.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageServiceImplTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private StorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new StorageServiceImpl(new LocalStorageBackend(uploadDir, true),
+                new InMemoryBlobReferenceCounter());
+    }
+
+    @Test
+    void testStoreStreamWritesContentWithSizeAndHash() throws Exception {
+        byte[] content = new byte[300_000];
+        new Random(42).nextBytes(content);
+
+        StorageServiceImpl.StoredFile stored = storageService.storeStream(
+                new ByteArrayInputStream(content), "invoice 1.pdf", null, Long.MAX_VALUE);
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expectedHash, stored.getContentHash());
+        assertEquals(expectedHash, stored.getFileId());
+        assertEquals(content.length, stored.getSizeBytes());
+        assertEquals("application/pdf", stored.getContentType());
+        try (StorageServiceImpl.MappedContent mapped = storageService.openMappedContent(stored.getFileId())) {
+            byte[] read = new byte[content.length];
+            mapped.getContent().get(read);
+            assertArrayEquals(content, read);
+        }
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void testStoreStreamRejectsOversizedAndEmptyContent() throws Exception {
+        assertThrows(ValidationException.class, () -> storageService.storeStream(
+                new ByteArrayInputStream(new byte[2048]), "big.pdf", "application/pdf", 1024));
+        assertThrows(ValidationException.class, () -> storageService.storeStream(
+                new ByteArrayInputStream(new byte[0]), "empty.pdf", "application/pdf", 1024));
+
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void testIdenticalContentIsStoredOnceAndDeletedWithLastReference() throws Exception {
+        byte[] content = "same invoice".getBytes();
+
+        StorageServiceImpl.StoredFile first = storageService.storeStream(
+                new ByteArrayInputStream(content), "a.pdf", "application/pdf", Long.MAX_VALUE);
+        StorageServiceImpl.StoredFile second = storageService.storeStream(
+                new ByteArrayInputStream(content), "b.pdf", "application/pdf", Long.MAX_VALUE);
+
+        assertEquals(first.getFileId(), second.getFileId());
+        assertEquals(1, countFiles());
+
+        storageService.deleteFile(first.getFileId());
+        assertTrue(storageService.fileExists(first.getFileId()));
+
+        storageService.deleteFile(second.getFileId());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void testMappedContentForLocalAndRemoteFiles() throws Exception {
+        byte[] content = "mapped invoice".getBytes();
+        String fileId = storageService.storeStream(
+                new ByteArrayInputStream(content), "a.pdf", "application/pdf", Long.MAX_VALUE).getFileId();
+
+        try (StorageServiceImpl.MappedContent mapped = storageService.openMappedContent(fileId)) {
+            assertEquals(content.length, mapped.getSize());
+            assertTrue(mapped.getContent().isReadOnly());
+            assertEquals(ByteBuffer.wrap(content), mapped.getContent());
+        }
+
+        LocalStorageBackend remote = new LocalStorageBackend(uploadDir, true) {
+            @Override
+            public Optional<Path> getLocalPath(String id) {
+                return Optional.empty();
+            }
+        };
+        StorageServiceImpl remoteStorage = new StorageServiceImpl(remote, new InMemoryBlobReferenceCounter());
+        try (StorageServiceImpl.MappedContent mapped = remoteStorage.openMappedContent(fileId)) {
+            assertEquals(ByteBuffer.wrap(content), mapped.getContent());
+            assertEquals(2, countFiles());
+        }
+        assertEquals(1, countFiles());
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static class InMemoryBlobReferenceCounter extends BlobReferenceCounter {
+
+        private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+        InMemoryBlobReferenceCounter() {
+            super(null);
+        }
+
+        @Override
+        public long acquire(String hash, long sizeBytes) {
+            return counts.merge(hash, 1L, Long::sum);
+        }
+
+        @Override
+        public long release(String hash) {
+            Long remaining = counts.computeIfPresent(hash, (k, v) -> Math.max(v - 1, 0));
+            return remaining != null ? remaining : UNTRACKED;
+        }
+
+        @Override
+        public boolean removeIfUnreferenced(String hash) {
+            return counts.remove(hash, 0L);
+        }
+    }
+}
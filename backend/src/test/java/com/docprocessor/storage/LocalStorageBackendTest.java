@@ -0,0 +1,91 @@
+package com.docprocessor.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageBackendTest {
+
+    private static final String HASH = "abcdef0123456789abcdef0123456789abcdef0123456789abcdef0123456789";
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new LocalStorageBackend(root, true);
+    }
+
+    @Test
+    void testContentHashIsShardedByItsPrefix() throws Exception {
+        backend.store(HASH, stage("invoice"));
+
+        assertTrue(Files.isRegularFile(root.resolve("ab").resolve("cd").resolve(HASH)));
+        assertTrue(backend.exists(HASH));
+        assertEquals(7, backend.size(HASH));
+        assertEquals(root.resolve("ab/cd/" + HASH).toAbsolutePath(), backend.getLocalPath(HASH).orElseThrow());
+        try (InputStream in = backend.openStream(HASH)) {
+            assertEquals("invoice", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void testOtherIdsAreShardedByTheirHash() throws Exception {
+        backend.store("legacy_invoice.pdf", stage("legacy"));
+
+        Path stored = backend.getLocalPath("legacy_invoice.pdf").orElseThrow();
+        assertEquals(root.toAbsolutePath(), stored.getParent().getParent().getParent());
+        assertEquals(2, stored.getParent().getFileName().toString().length());
+    }
+
+    @Test
+    void testFlatLayoutFilesAreFoundMovedAndDeleted() throws Exception {
+        Files.writeString(root.resolve("old_upload.pdf"), "old");
+
+        assertTrue(backend.exists("old_upload.pdf"));
+        assertTrue(backend.move("old_upload.pdf", "old_upload.pdf.trash"));
+        assertFalse(Files.exists(root.resolve("old_upload.pdf")));
+        assertTrue(backend.delete("old_upload.pdf.trash"));
+        assertFalse(backend.exists("old_upload.pdf.trash"));
+        assertFalse(backend.move("old_upload.pdf", "anything"));
+        assertThrows(NoSuchFileException.class, () -> backend.size("old_upload.pdf"));
+
+        Files.writeString(root.resolve("other.pdf"), "other");
+        assertFalse(new LocalStorageBackend(root, false).exists("other.pdf"));
+    }
+
+    @Test
+    void testMigrationMovesFlatFilesIntoShards() throws Exception {
+        Files.writeString(root.resolve(HASH), "invoice");
+        Files.writeString(root.resolve("old_upload.pdf"), "old");
+        Files.writeString(root.resolve("upload_1.part"), "partial");
+
+        new FlatLayoutMigrationJob(backend).migrate(backend);
+
+        assertFalse(Files.exists(root.resolve(HASH)));
+        assertFalse(Files.exists(root.resolve("old_upload.pdf")));
+        assertTrue(Files.exists(root.resolve("upload_1.part")));
+        assertEquals(backend.shardedPath(HASH), backend.getLocalPath(HASH).orElseThrow());
+        assertEquals(backend.shardedPath("old_upload.pdf"), backend.getLocalPath("old_upload.pdf").orElseThrow());
+        assertTrue(new LocalStorageBackend(root, false).exists("old_upload.pdf"));
+    }
+
+    @Test
+    void testRejectsIdsEscapingTheRoot() {
+        assertThrows(IllegalArgumentException.class, () -> backend.exists("../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> backend.exists(".staging"));
+    }
+
+    private Path stage(String content) throws Exception {
+        return Files.writeString(Files.createTempFile(backend.getStagingDirectory(), "test", ".part"), content);
+    }
+}
@@ -0,0 +1,110 @@
+package com.docprocessor.storage;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link S3StorageBackend} against a MinIO container. Needs Docker and is
+ * only run with the {@code minio} profile: {@code mvn -Pminio verify}.
+ */
+@Tag("minio")
+@Testcontainers(disabledWithoutDocker = true)
+class S3StorageBackendIT {
+
+    private static final String ACCESS_KEY = "minioadmin";
+    private static final String SECRET_KEY = "minioadmin";
+    private static final String BUCKET = "documents";
+
+    @Container
+    static final GenericContainer<?> MINIO = new GenericContainer<>("minio/minio:RELEASE.2024-06-13T22-53-53Z")
+            .withEnv("MINIO_ROOT_USER", ACCESS_KEY)
+            .withEnv("MINIO_ROOT_PASSWORD", SECRET_KEY)
+            .withCommand("server", "/data")
+            .withExposedPorts(9000)
+            .waitingFor(Wait.forHttp("/minio/health/live").forPort(9000));
+
+    @TempDir
+    static Path staging;
+
+    private static S3Client client;
+    private static S3StorageBackend backend;
+
+    @BeforeAll
+    static void setUp() {
+        client = S3Client.builder()
+                .endpointOverride(URI.create("http://" + MINIO.getHost() + ":" + MINIO.getMappedPort(9000)))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+                .build();
+        client.createBucket(request -> request.bucket(BUCKET));
+        backend = new S3StorageBackend(client, BUCKET, "files/", staging);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void testStoreReadAndDelete() throws Exception {
+        backend.store("stored", stage("invoice"));
+
+        assertTrue(backend.exists("stored"));
+        assertEquals(7, backend.size("stored"));
+        Resource resource = backend.getResource("stored");
+        assertEquals(7, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertEquals("invoice", new String(in.readAllBytes()));
+        }
+
+        assertTrue(backend.delete("stored"));
+        assertFalse(backend.delete("stored"));
+        assertFalse(backend.exists("stored"));
+    }
+
+    @Test
+    void testMissingObjectIsReportedAsNoSuchFile() {
+        assertThrows(NoSuchFileException.class, () -> backend.openStream("missing"));
+        assertThrows(NoSuchFileException.class, () -> backend.getResource("missing"));
+        assertThrows(NoSuchFileException.class, () -> backend.size("missing"));
+    }
+
+    @Test
+    void testMove() throws Exception {
+        backend.store("source", stage("moved"));
+
+        assertTrue(backend.move("source", "target"));
+        assertFalse(backend.exists("source"));
+        try (InputStream in = backend.openStream("target")) {
+            assertEquals("moved", new String(in.readAllBytes()));
+        }
+        assertFalse(backend.move("source", "other"));
+    }
+
+    private static Path stage(String content) throws Exception {
+        return Files.writeString(Files.createTempFile(staging, "upload", ".tmp"), content);
+    }
+}
@@ -0,0 +1,144 @@
+package com.docprocessor.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against a mocked {@link S3Client}. The request-builder overloads are default
+ * methods of the client, so they are left real and the request-object overloads stubbed.
+ */
+class S3StorageBackendTest {
+
+    private static final String BUCKET = "documents";
+
+    @TempDir
+    Path staging;
+
+    private S3Client client;
+    private S3StorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(S3Client.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        backend = new S3StorageBackend(client, BUCKET, "files/", staging);
+    }
+
+    @Test
+    void testStoreUploadsUnderThePrefixAndRemovesTheStagedFile() throws Exception {
+        doReturn(null).when(client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        Path staged = Files.writeString(staging.resolve("upload.tmp"), "invoice");
+
+        backend.store("abc", staged);
+
+        verify(client).putObject(eq(PutObjectRequest.builder().bucket(BUCKET).key("files/abc").build()),
+                any(RequestBody.class));
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void testMissingObjectIsTranslatedToNoSuchFile() throws Exception {
+        doThrow(NoSuchKeyException.builder().statusCode(404).build())
+                .when(client).getObject(any(GetObjectRequest.class));
+        doThrow(notFound()).when(client).headObject(any(HeadObjectRequest.class));
+
+        assertThrows(NoSuchFileException.class, () -> backend.openStream("abc"));
+        assertThrows(NoSuchFileException.class, () -> backend.getResource("abc"));
+        assertThrows(NoSuchFileException.class, () -> backend.size("abc"));
+        assertFalse(backend.exists("abc"));
+    }
+
+    @Test
+    void testOtherFailuresAreNotReportedAsMissing() {
+        doThrow(S3Exception.builder().statusCode(403).message("Access Denied").build())
+                .when(client).headObject(any(HeadObjectRequest.class));
+
+        IOException error = assertThrows(IOException.class, () -> backend.size("abc"));
+        assertFalse(error instanceof NoSuchFileException);
+        assertFalse(backend.exists("abc"));
+    }
+
+    @Test
+    void testDeleteReportsWhetherTheObjectExisted() throws Exception {
+        doThrow(notFound()).when(client).headObject(head("missing"));
+        doReturn(HeadObjectResponse.builder().contentLength(7L).build()).when(client).headObject(head("abc"));
+        doReturn(null).when(client).deleteObject(any(DeleteObjectRequest.class));
+
+        assertFalse(backend.delete("missing"));
+        assertTrue(backend.delete("abc"));
+
+        verify(client).deleteObject(DeleteObjectRequest.builder().bucket(BUCKET).key("files/abc").build());
+        verify(client, never()).deleteObject(DeleteObjectRequest.builder().bucket(BUCKET).key("files/missing").build());
+    }
+
+    @Test
+    void testMoveCopiesThenDeletesTheSource() throws Exception {
+        doReturn(HeadObjectResponse.builder().contentLength(7L).build()).when(client).headObject(head("source"));
+        doReturn(null).when(client).copyObject(any(CopyObjectRequest.class));
+        doReturn(null).when(client).deleteObject(any(DeleteObjectRequest.class));
+
+        assertTrue(backend.move("source", "target"));
+
+        verify(client).copyObject(CopyObjectRequest.builder()
+                .sourceBucket(BUCKET).sourceKey("files/source")
+                .destinationBucket(BUCKET).destinationKey("files/target")
+                .build());
+        verify(client).deleteObject(DeleteObjectRequest.builder().bucket(BUCKET).key("files/source").build());
+    }
+
+    @Test
+    void testMoveOfMissingSourceReturnsFalse() throws Exception {
+        doThrow(NoSuchKeyException.builder().statusCode(404).build())
+                .when(client).copyObject(any(CopyObjectRequest.class));
+
+        assertFalse(backend.move("source", "target"));
+
+        verify(client, never()).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void testResourceTakesLengthAndModificationTimeFromHead() throws Exception {
+        Instant modified = Instant.parse("2024-03-01T10:15:30Z");
+        doReturn(HeadObjectResponse.builder().contentLength(100_000L).lastModified(modified).build())
+                .when(client).headObject(head("abc"));
+
+        Resource resource = backend.getResource("abc");
+
+        assertEquals(100_000L, resource.contentLength());
+        assertEquals(modified.toEpochMilli(), resource.lastModified());
+        assertEquals("abc", resource.getFilename());
+        assertTrue(resource.exists());
+        verify(client, times(1)).headObject(any(HeadObjectRequest.class));
+        verify(client, never()).getObject(any(GetObjectRequest.class));
+    }
+
+    private static HeadObjectRequest head(String fileId) {
+        return HeadObjectRequest.builder().bucket(BUCKET).key("files/" + fileId).build();
+    }
+
+    private static S3Exception notFound() {
+        // HEAD responses have no body, so a missing key arrives as a plain 404
+        return (S3Exception) S3Exception.builder().statusCode(404).build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.docprocessor.websocket;
+
+import com.docprocessor.domain.enums.ProcessingStatus;
+import com.docprocessor.messaging.DocumentStatusEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentStatusWebSocketHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ManualExecutor sender;
+    private DocumentStatusWebSocketHandler handler;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sender = new ManualExecutor();
+        handler = new DocumentStatusWebSocketHandler(objectMapper, sender, 2, 10);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+    }
+
+    @Test
+    void testOnlySubscribedDocumentsArePushed() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"SUBSCRIBE\",\"documentId\":\"a\"}"));
+
+        handler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.PROCESSING, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("b", ProcessingStatus.PROCESSING, null));
+        sender.runAll();
+
+        List<JsonNode> sent = sentMessages(1);
+        assertEquals("STATUS_UPDATE", sent.get(0).get("type").asText());
+        assertEquals("a", sent.get(0).get("documentId").asText());
+        assertEquals("PROCESSING", sent.get(0).get("status").asText());
+    }
+
+    @Test
+    void testPendingUpdatesAreCoalescedPerDocument() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"SUBSCRIBE_ALL\"}"));
+
+        handler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.UPLOADED, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.PROCESSING, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("b", ProcessingStatus.PROCESSING, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.FAILED, "OCR failed to extract text"));
+        assertEquals(1, sender.tasks.size());
+        sender.runAll();
+
+        List<JsonNode> sent = sentMessages(2);
+        assertEquals("a", sent.get(0).get("documentId").asText());
+        assertEquals("COMPLETED", sent.get(0).get("type").asText());
+        assertEquals("FAILED", sent.get(0).get("status").asText());
+        assertEquals("OCR failed to extract text", sent.get(0).get("message").asText());
+        assertEquals("b", sent.get(1).get("documentId").asText());
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void testSlowSessionIsClosedOnceTooFarBehind() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"SUBSCRIBE_ALL\"}"));
+
+        handler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.PROCESSING, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("b", ProcessingStatus.PROCESSING, null));
+        handler.onStatusChanged(DocumentStatusEvent.of("c", ProcessingStatus.PROCESSING, null));
+        sender.runAll();
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testStalledSendDoesNotBlockTheProducer() throws Exception {
+        ExecutorService realSender = Executors.newCachedThreadPool();
+        try {
+            DocumentStatusWebSocketHandler blockingHandler = new DocumentStatusWebSocketHandler(objectMapper, realSender, 2, 10);
+            WebSocketSession stalled = mock(WebSocketSession.class);
+            when(stalled.getId()).thenReturn("s2");
+            when(stalled.isOpen()).thenReturn(true);
+            CountDownLatch sendStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                sendStarted.countDown();
+                release.await();
+                return null;
+            }).when(stalled).sendMessage(any());
+            // Like Tomcat, closing waits for the send in progress
+            doAnswer(invocation -> {
+                release.await();
+                return null;
+            }).when(stalled).close(any());
+            blockingHandler.afterConnectionEstablished(stalled);
+            blockingHandler.handleTextMessage(stalled, new TextMessage("{\"type\":\"SUBSCRIBE_ALL\"}"));
+
+            blockingHandler.onStatusChanged(DocumentStatusEvent.of("a", ProcessingStatus.PROCESSING, null));
+            assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                for (String documentId : List.of("b", "c", "d", "e")) {
+                    blockingHandler.onStatusChanged(DocumentStatusEvent.of(documentId, ProcessingStatus.PROCESSING, null));
+                }
+            });
+
+            verify(stalled, timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            release.countDown();
+        } finally {
+            realSender.shutdownNow();
+        }
+    }
+
+    private List<JsonNode> sentMessages(int expected) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(expected)).sendMessage(captor.capture());
+        return captor.getAllValues().stream().map(message -> {
+            try {
+                return objectMapper.readTree(message.getPayload());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    /** Runs submitted tasks only when asked, standing in for a client that is slow to read. */
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+}
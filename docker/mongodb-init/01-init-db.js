@@ -60,14 +60,45 @@ db.createCollection('documents', {
 
 // Create indexes for better performance
 db.documents.createIndex({ 'status': 1 });
-db.documents.createIndex({ 'uploadedAt': -1 });
+db.documents.createIndex({ 'uploadedAt': -1, '_id': -1 }, { name: 'uploadedAt_id' });
 db.documents.createIndex({ 'customerId': 1 });
 db.documents.createIndex({ 'metadata.invoiceNumber': 1 }, { sparse: true });
 db.documents.createIndex({ 'metadata.customerName': 1 }, { sparse: true });
 db.documents.createIndex({ 'processedAt': -1 });
+db.documents.createIndex({ 'contentHash': 1 });
+db.documents.createIndex({ 'batchId': 1 }, { sparse: true });
 
 // Create compound indexes
-db.documents.createIndex({ 'status': 1, 'uploadedAt': -1 });
+// Also serves keyset pagination: (uploadedAt desc, _id desc) within a status
+db.documents.createIndex({ 'status': 1, 'uploadedAt': -1, '_id': -1 }, { name: 'status_uploadedAt_id' });
 db.documents.createIndex({ 'customerId': 1, 'status': 1 });
+// Processing recovery: expired leases and due (re)dispatches
+db.documents.createIndex({ 'status': 1, 'leaseExpiresAt': 1 }, { name: 'status_leaseExpiresAt' });
+db.documents.createIndex({ 'status': 1, 'nextAttemptAt': 1 }, { name: 'status_nextAttemptAt' });
+// Document search: ranked text search, see SearchIndexInitializer for the options
+db.documents.createIndex(
+  { 'metadata.invoiceNumber': 'text', 'filename': 'text', 'ocrResult.text': 'text' },
+  {
+    name: 'document_text',
+    weights: { 'metadata.invoiceNumber': 10, 'filename': 5, 'ocrResult.text': 1 },
+    default_language: 'none',
+    language_override: 'searchLanguage'
+  }
+);
+
+// Reference counts of content-addressed files, keyed by SHA-256
+db.createCollection('blobs');
+
+// OCR results keyed by '<contentHash>:<engine>', expiring after 90 days
+db.createCollection('ocr_cache');
+db.ocr_cache.createIndex({ 'createdAt': 1 }, { expireAfterSeconds: 7776000 });
+
+// Statistics rollups: per-status totals and per-minute completion buckets
+db.createCollection('document_stats');
+db.createCollection('processing_stats');
+db.processing_stats.createIndex({ 'expireAt': 1 }, { expireAfterSeconds: 0 });
+
+// Batch uploads; their documents reference them by batchId
+db.createCollection('ingest_batches');
 
 print('Database and collections initialized successfully');
\ No newline at end of file
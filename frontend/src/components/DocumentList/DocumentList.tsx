@@ -40,11 +40,11 @@ import {
 import { format } from 'date-fns';
 import StatusBadge from '../StatusBadge/StatusBadge';
 import { useDocuments, useDocumentOperations } from '../../hooks/useDocuments';
-import { Document, ProcessingStatus } from '../../types/document.types';
+import { DocumentSummary, ProcessingStatus } from '../../types/document.types';
 import { fileUtils } from '../../services/api';
 
 interface DocumentListProps {
-  onDocumentSelect?: (document: Document) => void;
+  onDocumentSelect?: (document: DocumentSummary) => void;
   showFilters?: boolean;
   showActions?: boolean;
   compact?: boolean;
@@ -73,7 +73,7 @@ const DocumentList: React.FC<DocumentListProps> = ({
   const [searchTerm, setSearchTerm] = useState('');
   const [statusFilter, setStatusFilter] = useState<ProcessingStatus | ''>('');
   const [anchorEl, setAnchorEl] = useState<null | HTMLElement>(null);
-  const [selectedDocument, setSelectedDocument] = useState<Document | null>(null);
+  const [selectedDocument, setSelectedDocument] = useState<DocumentSummary | null>(null);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
 
   const handleSearch = (value: string) => {
@@ -104,7 +104,7 @@ const DocumentList: React.FC<DocumentListProps> = ({
     });
   };
 
-  const handleMenuOpen = (event: React.MouseEvent<HTMLElement>, document: Document) => {
+  const handleMenuOpen = (event: React.MouseEvent<HTMLElement>, document: DocumentSummary) => {
     setAnchorEl(event.currentTarget);
     setSelectedDocument(document);
   };
@@ -114,12 +114,12 @@ const DocumentList: React.FC<DocumentListProps> = ({
     setSelectedDocument(null);
   };
 
-  const handleView = (document: Document) => {
+  const handleView = (document: DocumentSummary) => {
     onDocumentSelect?.(document);
     handleMenuClose();
   };
 
-  const handleDownload = async (document: Document) => {
+  const handleDownload = async (document: DocumentSummary) => {
     try {
       await downloadDocument(document.id, document.filename);
     } catch (error) {
@@ -128,7 +128,7 @@ const DocumentList: React.FC<DocumentListProps> = ({
     handleMenuClose();
   };
 
-  const handleDeleteClick = (document: Document) => {
+  const handleDeleteClick = (document: DocumentSummary) => {
     setSelectedDocument(document);
     setDeleteDialogOpen(true);
     handleMenuClose();
@@ -1,14 +1,16 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useRef } from 'react';
 import { documentApi, PaginatedResponse } from '../services/api';
+import { webSocketService } from '../services/websocket';
 import {
   Document,
+  DocumentSummary,
   DocumentFilters,
   UploadResponse,
   ProcessingStatus,
 } from '../types/document.types';
 
 export interface UseDocumentsResult {
-  documents: Document[];
+  documents: DocumentSummary[];
   loading: boolean;
   error: string | null;
   totalElements: number;
@@ -20,10 +22,16 @@ export interface UseDocumentsResult {
   setFilters: (filters: DocumentFilters) => void;
   refreshDocuments: () => Promise<void>;
   loadMore: () => Promise<void>;
-  updateDocument: (id: string, updates: Partial<Document>) => void;
+  updateDocument: (id: string, updates: Partial<DocumentSummary>) => void;
   removeDocument: (id: string) => void;
 }
 
+/**
+ * 'page' uses offset pagination with exact totals (table views);
+ * 'cursor' uses keyset pagination, suited to infinite scroll via loadMore.
+ */
+export type PaginationMode = 'page' | 'cursor';
+
 const DEFAULT_FILTERS: DocumentFilters = {
   page: 0,
   size: 20,
@@ -31,8 +39,12 @@ const DEFAULT_FILTERS: DocumentFilters = {
   sortDirection: 'desc',
 };
 
-export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocumentsResult => {
-  const [documents, setDocuments] = useState<Document[]>([]);
+export const useDocuments = (
+  initialFilters: DocumentFilters = {},
+  mode: PaginationMode = 'page'
+): UseDocumentsResult => {
+  const [documents, setDocuments] = useState<DocumentSummary[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>(undefined);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [paginationInfo, setPaginationInfo] = useState({
@@ -54,7 +66,33 @@ export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocuments
     setError(null);
 
     try {
-      const response: PaginatedResponse<Document> = await documentApi.getDocuments(currentFilters);
+      if (mode === 'cursor') {
+        const slice = await documentApi.getDocumentsByCursor(
+          currentFilters.status,
+          append ? nextCursor : undefined,
+          currentFilters.size,
+          !append
+        );
+        const sliceDocuments = slice.content || [];
+
+        if (append) {
+          setDocuments(prev => [...prev, ...sliceDocuments]);
+        } else {
+          setDocuments(sliceDocuments);
+        }
+
+        setNextCursor(slice.nextCursor);
+        setPaginationInfo(prev => ({
+          totalElements: slice.totalElements ?? prev.totalElements,
+          totalPages: 0,
+          currentPage: append ? prev.currentPage + 1 : 0,
+          hasNext: slice.hasMore,
+          hasPrevious: append,
+        }));
+        return;
+      }
+
+      const response: PaginatedResponse<DocumentSummary> = await documentApi.getDocuments(currentFilters);
 
       const newDocuments = response.content || [];
 
@@ -77,7 +115,7 @@ export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocuments
     } finally {
       setLoading(false);
     }
-  }, [filters]);
+  }, [filters, mode, nextCursor]);
 
   const setFilters = useCallback((newFilters: DocumentFilters) => {
     const updatedFilters = { ...filters, ...newFilters, page: 0 };
@@ -91,12 +129,16 @@ export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocuments
 
   const loadMore = useCallback(async () => {
     if (paginationInfo.hasNext && !loading) {
+      if (mode === 'cursor') {
+        await fetchDocuments(filters, true);
+        return;
+      }
       const nextPageFilters = { ...filters, page: paginationInfo.currentPage + 1 };
       await fetchDocuments(nextPageFilters, true);
     }
-  }, [filters, paginationInfo.hasNext, paginationInfo.currentPage, loading, fetchDocuments]);
+  }, [mode, filters, paginationInfo.hasNext, paginationInfo.currentPage, loading, fetchDocuments]);
 
-  const updateDocument = useCallback((id: string, updates: Partial<Document>) => {
+  const updateDocument = useCallback((id: string, updates: Partial<DocumentSummary>) => {
     setDocuments(prev =>
       prev.map(doc =>
         doc.id === id ? { ...doc, ...updates } : doc
@@ -116,10 +158,54 @@ export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocuments
     fetchDocuments();
   }, []);
 
+  // Status changes are pushed by the server. Completions also change fields the
+  // summary shows (processedAt, errors), so they trigger one debounced reload.
+  const [pushConnected, setPushConnected] = useState(webSocketService.isConnected());
+  const refreshRef = useRef(refreshDocuments);
+  refreshRef.current = refreshDocuments;
+
+  useEffect(() => {
+    let refreshTimer: ReturnType<typeof setTimeout> | undefined;
+    const scheduleRefresh = () => {
+      if (refreshTimer === undefined) {
+        refreshTimer = setTimeout(() => {
+          refreshTimer = undefined;
+          refreshRef.current();
+        }, 1000);
+      }
+    };
+
+    const unsubscribe = webSocketService.subscribeToAll(message => {
+      if (message.status) {
+        setDocuments(prev =>
+          prev.map(doc => (doc.id === message.documentId ? { ...doc, status: message.status! } : doc))
+        );
+      }
+      if (message.type === 'COMPLETED') {
+        scheduleRefresh();
+      }
+    });
+    const unsubscribeConnection = webSocketService.onConnectionChange(connected => {
+      setPushConnected(connected);
+      if (connected) {
+        scheduleRefresh(); // updates sent while disconnected were missed
+      }
+    });
+
+    return () => {
+      unsubscribe();
+      unsubscribeConnection();
+      if (refreshTimer !== undefined) {
+        clearTimeout(refreshTimer);
+      }
+    };
+  }, []);
+
+  // Falls back to polling only while push updates are unavailable
   useEffect(() => {
     const processingDocuments = documents.filter(doc => doc.status === ProcessingStatus.PROCESSING);
 
-    if (processingDocuments.length > 0) {
+    if (!pushConnected && processingDocuments.length > 0) {
       const interval = setInterval(() => {
         refreshDocuments();
       }, 5000); // Refresh every 5 seconds
@@ -128,7 +214,7 @@ export const useDocuments = (initialFilters: DocumentFilters = {}): UseDocuments
     }
 
     return undefined;
-  }, [documents, refreshDocuments]);
+  }, [documents, refreshDocuments, pushConnected]);
 
   return {
     documents,
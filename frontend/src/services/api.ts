@@ -1,8 +1,15 @@
 import axios, { AxiosResponse } from 'axios';
 import {
+  CursorPage,
   Document,
+  DocumentSummary,
   UploadResponse,
+  BatchUploadResponse,
+  BatchStatus,
   DocumentFilters,
+  DocumentSearchParams,
+  FacetFilters,
+  FacetSearchResult,
   ProcessingStatistics,
   ProcessingStatus
 } from '../types/document.types';
@@ -23,6 +30,11 @@ api.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
     }
+    // Uploads are queued for processing per customer
+    const customerId = localStorage.getItem('customerId');
+    if (customerId) {
+      config.headers['X-Customer-Id'] = customerId;
+    }
     return config;
   },
   (error) => {
@@ -56,14 +68,20 @@ export interface PaginatedResponse<T> {
   empty: boolean;
 }
 
+// Search results are not counted; `last` tells whether another page exists
+export type SliceResponse<T> = Omit<PaginatedResponse<T>, 'totalElements' | 'totalPages'>;
+
+const INGEST_CONTENT_TYPES = ['application/pdf', 'image/jpeg', 'image/png'];
+
 export const documentApi = {
   uploadDocument: async (file: File): Promise<UploadResponse> => {
-    const formData = new FormData();
-    formData.append('file', file);
+    // The file is sent as the raw request body so the backend can stream it to storage
+    const contentType = INGEST_CONTENT_TYPES.includes(file.type) ? file.type : 'application/octet-stream';
 
-    const response: AxiosResponse<UploadResponse> = await api.post('/documents/upload', formData, {
+    const response: AxiosResponse<UploadResponse> = await api.post('/documents/ingest', file, {
+      params: { filename: file.name },
       headers: {
-        'Content-Type': 'multipart/form-data',
+        'Content-Type': contentType,
       },
       onUploadProgress: (progressEvent) => {
         const progress = progressEvent.total
@@ -76,7 +94,36 @@ export const documentApi = {
     return response.data;
   },
 
-  getDocuments: async (filters: DocumentFilters = {}): Promise<PaginatedResponse<Document>> => {
+  uploadBatch: async (files: File[]): Promise<BatchUploadResponse> => {
+    const formData = new FormData();
+    files.forEach((file) => formData.append('files', file));
+
+    const response: AxiosResponse<BatchUploadResponse> = await api.post('/documents/batch', formData, {
+      headers: {
+        'Content-Type': 'multipart/form-data',
+      },
+      timeout: 0,
+    });
+    return response.data;
+  },
+
+  // The archive is sent as the raw request body and unpacked on the server as it arrives
+  uploadBatchZip: async (archive: File): Promise<BatchUploadResponse> => {
+    const response: AxiosResponse<BatchUploadResponse> = await api.post('/documents/batch', archive, {
+      headers: {
+        'Content-Type': 'application/zip',
+      },
+      timeout: 0,
+    });
+    return response.data;
+  },
+
+  getBatchStatus: async (batchId: string): Promise<BatchStatus> => {
+    const response: AxiosResponse<BatchStatus> = await api.get(`/documents/batches/${batchId}`);
+    return response.data;
+  },
+
+  getDocuments: async (filters: DocumentFilters = {}): Promise<PaginatedResponse<DocumentSummary>> => {
     const params = new URLSearchParams();
 
     Object.entries(filters).forEach(([key, value]) => {
@@ -85,7 +132,25 @@ export const documentApi = {
       }
     });
 
-    const response: AxiosResponse<PaginatedResponse<Document>> = await api.get(`/documents?${params}`);
+    const response: AxiosResponse<PaginatedResponse<DocumentSummary>> = await api.get(`/documents?${params}`);
+    return response.data;
+  },
+
+  getDocumentsByCursor: async (
+    status?: ProcessingStatus,
+    cursor?: string,
+    size: number = 20,
+    includeTotal: boolean = false
+  ): Promise<CursorPage<DocumentSummary>> => {
+    const params = new URLSearchParams({ size: size.toString(), includeTotal: includeTotal.toString() });
+    if (status) {
+      params.append('status', status);
+    }
+    if (cursor) {
+      params.append('cursor', cursor);
+    }
+
+    const response: AxiosResponse<CursorPage<DocumentSummary>> = await api.get(`/documents/cursor?${params}`);
     return response.data;
   },
 
@@ -122,13 +187,60 @@ export const documentApi = {
     status: ProcessingStatus,
     page: number = 0,
     size: number = 20
-  ): Promise<PaginatedResponse<Document>> => {
-    const response: AxiosResponse<PaginatedResponse<Document>> = await api.get(
+  ): Promise<PaginatedResponse<DocumentSummary>> => {
+    const response: AxiosResponse<PaginatedResponse<DocumentSummary>> = await api.get(
       `/documents/status/${status}?page=${page}&size=${size}`
     );
     return response.data;
   },
 
+  searchDocuments: async (
+    params: DocumentSearchParams,
+    page: number = 0,
+    size: number = 20
+  ): Promise<SliceResponse<DocumentSummary>> => {
+    const query = new URLSearchParams({ page: page.toString(), size: size.toString() });
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        query.append(key, value.toString());
+      }
+    });
+
+    const response: AxiosResponse<SliceResponse<DocumentSummary>> = await api.get(`/documents/search?${query}`);
+    return response.data;
+  },
+
+  getFacets: async (filters: FacetFilters = {}, page: number = 0, size: number = 20): Promise<FacetSearchResult> => {
+    const params = new URLSearchParams({ page: page.toString(), size: size.toString() });
+    Object.entries(filters).forEach(([key, value]) => {
+      const values = Array.isArray(value) ? value : [value];
+      values.forEach((v) => {
+        if (v !== undefined && v !== null && v !== '') {
+          params.append(key, v.toString());
+        }
+      });
+    });
+
+    // 503 while the server is still loading its facet index after a restart
+    const response: AxiosResponse<FacetSearchResult> = await api.get(`/documents/facets?${params}`);
+    return response.data;
+  },
+
+  // A plain URL rather than a request, so the browser streams the export to disk
+  getExportUrl: (
+    format: 'ndjson' | 'csv',
+    filters: { status?: ProcessingStatus; from?: string; to?: string } = {},
+    gzip: boolean = false
+  ): string => {
+    const params = new URLSearchParams({ format, gzip: gzip.toString() });
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value) {
+        params.append(key, value);
+      }
+    });
+    return `${API_BASE_URL}/documents/export?${params}`;
+  },
+
   getDocumentStats: async (): Promise<ProcessingStatistics> => {
     const response: AxiosResponse<ProcessingStatistics> = await api.get('/documents/stats');
     return response.data;
@@ -7,9 +7,11 @@ export class WebSocketService {
   private reconnectDelay = 1000;
   private listeners: Map<string, Set<(message: WebSocketMessage) => void>> = new Map();
   private globalListeners: Set<(message: WebSocketMessage) => void> = new Set();
+  private connectionListeners: Set<(connected: boolean) => void> = new Set();
   private isConnecting = false;
+  private closedByClient = false;
 
-  constructor(private baseUrl: string = process.env.REACT_APP_WS_URL || 'ws://localhost:8080/ws') { }
+  constructor(private baseUrl: string = process.env.REACT_APP_WS_URL || 'ws://localhost:8080/api/ws') { }
 
   connect(): Promise<void> {
     if (this.ws?.readyState === WebSocket.OPEN || this.isConnecting) {
@@ -17,6 +19,7 @@ export class WebSocketService {
     }
 
     this.isConnecting = true;
+    this.closedByClient = false;
 
     return new Promise((resolve, reject) => {
       try {
@@ -26,6 +29,12 @@ export class WebSocketService {
           console.log('WebSocket connected');
           this.isConnecting = false;
           this.reconnectAttempts = 0;
+          // The server only pushes what this session asked for, so restore subscriptions
+          this.listeners.forEach((_, documentId) => this.send({ type: 'SUBSCRIBE', documentId }));
+          if (this.globalListeners.size > 0) {
+            this.send({ type: 'SUBSCRIBE_ALL' });
+          }
+          this.notifyConnection(true);
           resolve();
         };
 
@@ -41,7 +50,10 @@ export class WebSocketService {
         this.ws.onclose = () => {
           console.log('WebSocket disconnected');
           this.isConnecting = false;
-          this.handleReconnect();
+          this.notifyConnection(false);
+          if (!this.closedByClient) {
+            this.handleReconnect();
+          }
         };
 
         this.ws.onerror = (error) => {
@@ -59,17 +71,22 @@ export class WebSocketService {
   }
 
   disconnect(): void {
+    this.closedByClient = true;
     if (this.ws) {
       this.ws.close();
       this.ws = null;
     }
     this.listeners.clear();
     this.globalListeners.clear();
+    this.connectionListeners.clear();
   }
 
   subscribeToDocument(documentId: string, callback: (message: WebSocketMessage) => void): () => void {
     if (!this.listeners.has(documentId)) {
       this.listeners.set(documentId, new Set());
+      if (this.isConnected()) {
+        this.send({ type: 'SUBSCRIBE', documentId });
+      }
     }
 
     this.listeners.get(documentId)!.add(callback);
@@ -84,6 +101,9 @@ export class WebSocketService {
         documentListeners.delete(callback);
         if (documentListeners.size === 0) {
           this.listeners.delete(documentId);
+          if (this.isConnected()) {
+            this.send({ type: 'UNSUBSCRIBE', documentId });
+          }
         }
       }
     };
@@ -94,10 +114,26 @@ export class WebSocketService {
 
     if (this.ws?.readyState !== WebSocket.OPEN) {
       this.connect().catch(console.error);
+    } else if (this.globalListeners.size === 1) {
+      this.send({ type: 'SUBSCRIBE_ALL' });
     }
 
     return () => {
       this.globalListeners.delete(callback);
+      if (this.globalListeners.size === 0 && this.isConnected()) {
+        this.send({ type: 'UNSUBSCRIBE_ALL' });
+      }
+    };
+  }
+
+  /**
+   * Notified when the connection opens or drops, e.g. to reload state that may have
+   * changed while no updates were being received.
+   */
+  onConnectionChange(callback: (connected: boolean) => void): () => void {
+    this.connectionListeners.add(callback);
+    return () => {
+      this.connectionListeners.delete(callback);
     };
   }
 
@@ -134,6 +170,16 @@ export class WebSocketService {
     });
   }
 
+  private notifyConnection(connected: boolean): void {
+    this.connectionListeners.forEach(callback => {
+      try {
+        callback(connected);
+      } catch (error) {
+        console.error('Error in connection listener callback:', error);
+      }
+    });
+  }
+
   private handleReconnect(): void {
     if (this.reconnectAttempts < this.maxReconnectAttempts) {
       this.reconnectAttempts++;
@@ -162,6 +208,8 @@ export const useWebSocket = () => {
       webSocketService.subscribeToDocument(documentId, callback),
     subscribeToAll: (callback: (message: WebSocketMessage) => void) =>
       webSocketService.subscribeToAll(callback),
+    onConnectionChange: (callback: (connected: boolean) => void) =>
+      webSocketService.onConnectionChange(callback),
     isConnected: () => webSocketService.isConnected(),
     send: (message: any) => webSocketService.send(message),
   };
@@ -33,6 +33,7 @@ export interface OCRResult {
 export interface Document {
   id: string;
   filename: string;
+  customerId?: string;
   uploadedAt: string;
   processedAt?: string;
   status: ProcessingStatus;
@@ -47,6 +48,30 @@ export interface Document {
   processingProgress?: number;
 }
 
+export interface DocumentSummary {
+  id: string;
+  filename: string;
+  status: ProcessingStatus;
+  uploadedAt: string;
+  processedAt?: string;
+  invoiceNumber?: string;
+  vendorName?: string;
+  totalAmount?: number;
+  errorCount: number;
+  fileSizeBytes?: number;
+  contentType?: string;
+  processingProgress?: number;
+  score?: number; // text search relevance, only set on search results
+}
+
+export interface CursorPage<T> {
+  content: T[];
+  nextCursor?: string;
+  hasMore: boolean;
+  size: number;
+  totalElements?: number;
+}
+
 export interface UploadResponse {
   documentId: string;
   filename: string;
@@ -80,13 +105,83 @@ export interface DocumentFilters {
   sortDirection?: 'asc' | 'desc';
 }
 
+export interface DocumentSearchParams {
+  q?: string; // matched against invoice number, filename and OCR text
+  invoiceNumber?: string; // prefix
+  status?: ProcessingStatus;
+  from?: string;
+  to?: string;
+}
+
+export interface FacetFilters {
+  status?: ProcessingStatus[];
+  vendor?: string[];
+  minAmount?: number;
+  maxAmount?: number;
+  invoiceDateFrom?: string; // yyyy-MM-dd
+  invoiceDateTo?: string;
+}
+
+// A facet's counts ignore that facet's own selection
+export interface FacetSearchResult {
+  total: number;
+  statusCounts: Partial<Record<ProcessingStatus, number>>;
+  vendorCounts: Record<string, number>;
+  content: DocumentSummary[];
+  page: number;
+  size: number;
+  hasNext: boolean;
+}
+
+export interface BatchItemResult {
+  index: number;
+  filename: string;
+  documentId?: string;
+  fileSizeBytes?: number;
+  error?: string;
+}
+
+export interface BatchUploadResponse {
+  batchId: string;
+  accepted: number;
+  rejected: number;
+  items: BatchItemResult[];
+}
+
+export interface BatchStatus {
+  batchId: string;
+  source: 'multipart' | 'zip';
+  customerId?: string;
+  createdAt: string;
+  received: boolean;
+  accepted: number;
+  rejected: number;
+  statusCounts: Partial<Record<ProcessingStatus, number>>;
+  completed: boolean;
+  rejectedItems: BatchItemResult[];
+}
+
+export interface ThroughputPoint {
+  minute: string;
+  completed: number;
+  failed: number;
+}
+
 export interface ProcessingStatistics {
   total: number;
   uploaded: number;
   processing: number;
   validated: number;
   failed: number;
-  averageProcessingTime?: number;
+  // The fields below cover documents completed within the last windowMinutes
+  windowMinutes: number;
+  completedInWindow: number;
+  averageProcessingTime?: number; // ms
+  latencyPercentiles: Record<string, number>; // p50, p90, p95, p99 in ms
+  throughputPerMinute: number;
+  throughput: ThroughputPoint[];
+  failureReasons: Record<string, number>;
+  countsRebuiltAt?: string;
 }
 
 export interface WebSocketMessage {